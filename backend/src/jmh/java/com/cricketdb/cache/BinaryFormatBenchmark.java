@@ -0,0 +1,91 @@
+package com.cricketdb.cache;
+
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.Gender;
+import com.cricketdb.model.Player;
+import com.cricketdb.model.PlayerRole;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encode/decode time of a player's innings list (the GET /api/stats/batting/player/{id} body)
+// in JSON, Smile and CBOR. Payload sizes are printed once per trial.
+// Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args=BinaryFormatBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+    
+    private static final TypeReference<List<BattingStats>> INNINGS = new TypeReference<>() {
+    };
+    
+    @Param({"json", "smile", "cbor"})
+    private String format;
+    
+    @Param({"20", "200"})
+    private int innings;
+    
+    private ObjectMapper mapper;
+    private List<BattingStats> payload;
+    private byte[] encoded;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        // Same settings as spring.jackson in application.yml
+        mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        
+        Player player = new Player(7L, "Virat Kohli", "India", 2008, Gender.MALE, PlayerRole.BATSMAN,
+                "Right-handed top-order batsman", null, null);
+        payload = new ArrayList<>();
+        for (int i = 0; i < innings; i++) {
+            payload.add(new BattingStats((long) i, player, 20 + i % 130, 30 + i % 110, i % 6, i % 14,
+                    "Opponent " + (i % 9), LocalDate.of(2015, 1, 1).plusDays(i * 11L)));
+        }
+        encoded = mapper.writeValueAsBytes(payload);
+        System.out.printf("%n%s, %d innings: %d bytes%n", format, innings, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(payload);
+    }
+    
+    @Benchmark
+    public List<BattingStats> decode() throws Exception {
+        return mapper.readValue(encoded, INNINGS);
+    }
+}
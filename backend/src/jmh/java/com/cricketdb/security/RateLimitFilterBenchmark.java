@@ -0,0 +1,90 @@
+package com.cricketdb.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of the whole rate limit filter: policy match, client key (including the JWT
+// signature check for authenticated requests) and the bucket. Compare with RateLimiterBenchmark
+// for the share taken by the bucket alone.
+// Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args=RateLimitFilterBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class RateLimitFilterBenchmark {
+    
+    private RateLimitFilter filter;
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "cricketdb-secret-key-for-jwt-token-generation-and-validation-2024");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+        token = jwtUtil.generateToken(User.withUsername("bench").password("x").roles("USER").build());
+        
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName("api");
+        policy.setPath("/api/**");
+        policy.setCapacity(1_000_000);
+        policy.setRefillPerSecond(1_000_000_000);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(policy));
+        
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.init();
+    }
+    
+    @Benchmark
+    public int anonymous() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/players");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+    
+    @Benchmark
+    public int authenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/players");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+    
+    // Authenticated request through both filters; the second reuses the verified subject
+    @Benchmark
+    public String authenticatedWithSubjectReuse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/players");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return jwtUtil.verifiedSubject(request);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cricketdb.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of the rate limiter (bucket lookup + CAS consume) under contention.
+// Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args=RateLimiterBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    
+    private static final int CLIENTS = 10_000;
+    
+    private RateLimiter rateLimiter;
+    private String[] keys;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new RateLimiter(16, 100_000, TimeUnit.MINUTES.toNanos(5));
+        keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "api:ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+    
+    // Every thread hammers one client's bucket: worst case for CAS contention
+    @Benchmark
+    public long singleHotClient() {
+        long now = System.nanoTime();
+        return rateLimiter.bucketFor(keys[0], 1_000_000, 1_000_000, "api", now).tryConsume(now);
+    }
+    
+    // Realistic spread of clients across stripes
+    @Benchmark
+    public long manyClients() {
+        long now = System.nanoTime();
+        String key = keys[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return rateLimiter.bucketFor(key, 200, 50, "api", now).tryConsume(now);
+    }
+}
@@ -0,0 +1,43 @@
+package com.cricketdb.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Year;
+
+// Keeps yearly partitions `ahead-years` past the current year, so new innings never pile up in
+// pmax where every date query would have to scan them. Runs on every node; REORGANIZE is a
+// no-op once the partitions exist.
+@Component
+public class PartitionMaintenance {
+    
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Value("${cricketdb.archive.partitions-ahead:1}")
+    private int aheadYears;
+    
+    @Scheduled(fixedDelayString = "${cricketdb.archive.partition-check-interval:86400000}")
+    public void ensurePartitions() {
+        int throughYear = Year.now().getValue() + aheadYears;
+        // Outside a transaction, so the routing data source hands out a primary connection
+        try (Connection connection = dataSource.getConnection()) {
+            for (String table : StatsPartitions.TABLES) {
+                if (StatsPartitions.extend(connection, table, throughYear)) {
+                    log.info("Added partitions to {} through {}", table, throughYear);
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not extend stats partitions through {}", throughYear, e);
+        }
+    }
+}
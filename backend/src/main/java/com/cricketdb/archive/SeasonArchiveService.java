@@ -0,0 +1,168 @@
+package com.cricketdb.archive;
+
+import com.cricketdb.event.ChangeType;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.repository.BattingStatsRepository;
+import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.repository.SeasonArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.HashSet;
+import java.util.Set;
+
+// Compacts seasons older than keep-seasons into per-player season summaries, oldest first and
+// one transaction per season. With move-raw-innings the innings themselves go to the
+// *_stats_archive tables, leaving their yearly partitions empty. All-time queries read the
+// summaries up to the last archived season, so archived seasons are read-only: an innings
+// written into one would be missing from every total.
+@Service
+public class SeasonArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SeasonArchiveService.class);
+    
+    @Autowired
+    private BattingStatsRepository battingStatsRepository;
+    
+    @Autowired
+    private BowlingStatsRepository bowlingStatsRepository;
+    
+    @Autowired
+    private SeasonArchiveRepository seasonArchiveRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${cricketdb.archive.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.archive.keep-seasons:10}")
+    private int keepSeasons;
+    
+    @Value("${cricketdb.archive.move-raw-innings:false}")
+    private boolean moveRawInnings;
+    
+    private TransactionTemplate primary;
+    // Newest archived season this node has seen; refreshed by every run, so at worst behind
+    private volatile Integer knownArchivedThrough;
+    
+    @PostConstruct
+    public void init() {
+        primary = new TransactionTemplate(transactionManager);
+    }
+    
+    // Read in the caller's transaction, so it matches the snapshot of the queries split on it
+    public SeasonBoundary boundary() {
+        return new SeasonBoundary(seasonArchiveRepository.findArchivedThrough());
+    }
+    
+    // Call in the writing transaction before an innings is added, moved or deleted
+    public void checkWritable(LocalDate matchDate) {
+        int season = matchDate.getYear();
+        // Seasons no run could be archiving skip the locking read, which keeps it off the hot path
+        if (season > lastArchivable()) {
+            return;
+        }
+        int archivedThrough = seasonArchiveRepository.findSeasonsForShare().stream()
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0);
+        if (season <= archivedThrough) {
+            throw new RuntimeException("Season " + season + " is archived and read-only");
+        }
+    }
+    
+    // Call in the player delete transaction; the live innings go by cascade
+    public void deletePlayer(Long playerId) {
+        battingStatsRepository.deleteSummariesByPlayerId(playerId);
+        battingStatsRepository.deleteArchivedByPlayerId(playerId);
+        bowlingStatsRepository.deleteSummariesByPlayerId(playerId);
+        bowlingStatsRepository.deleteArchivedByPlayerId(playerId);
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.archive.interval:86400000}")
+    public void archive() {
+        int archivedThrough = primary.execute(tx -> seasonArchiveRepository.findArchivedThrough());
+        knownArchivedThrough = archivedThrough;
+        if (!enabled) {
+            return;
+        }
+        int lastSeason = Year.now().getValue() - keepSeasons;
+        Integer firstSeason = archivedThrough > 0 ? null : primary.execute(tx -> firstSeason());
+        if (archivedThrough == 0 && firstSeason == null) {
+            return;
+        }
+        for (int season = archivedThrough > 0 ? archivedThrough + 1 : firstSeason; season <= lastSeason; season++) {
+            int target = season;
+            try {
+                long innings = primary.execute(tx -> archiveSeason(target));
+                knownArchivedThrough = target;
+                log.info("Archived season {} ({} innings{})", target, innings,
+                        moveRawInnings ? ", moved to the archive tables" : "");
+            } catch (RuntimeException e) {
+                // Includes another node archiving the same season first; the next run picks up from there
+                log.warn("Could not archive season {}", target, e);
+                return;
+            }
+        }
+    }
+    
+    private long archiveSeason(int season) {
+        LocalDate from = LocalDate.of(season, 1, 1);
+        LocalDate to = from.plusYears(1);
+        // Inserted first: writers into this season wait on its lock, then find it archived
+        seasonArchiveRepository.insertSeason(season, moveRawInnings, LocalDateTime.now());
+        long batting = battingStatsRepository.countBetween(from, to);
+        long bowling = bowlingStatsRepository.countBetween(from, to);
+        battingStatsRepository.summarizeSeason(season, from, to);
+        bowlingStatsRepository.summarizeSeason(season, from, to);
+        if (moveRawInnings) {
+            Set<Long> playerIds = new HashSet<>(battingStatsRepository.findPlayerIdsBetween(from, to));
+            playerIds.addAll(bowlingStatsRepository.findPlayerIdsBetween(from, to));
+            battingStatsRepository.copyToArchive(from, to);
+            battingStatsRepository.deleteBetween(from, to);
+            bowlingStatsRepository.copyToArchive(from, to);
+            bowlingStatsRepository.deleteBetween(from, to);
+            // Their innings lists changed, so their tags move and sync clients refetch them
+            playerIds.forEach(id -> eventPublisher.publishEvent(new PlayerChangedEvent(id, ChangeType.UPDATED)));
+        }
+        seasonArchiveRepository.updateInnings(season, batting, bowling);
+        return batting + bowling;
+    }
+    
+    // Earliest season with innings, or null when there are none
+    private Integer firstSeason() {
+        LocalDate batting = battingStatsRepository.findFirstMatchDate();
+        LocalDate bowling = bowlingStatsRepository.findFirstMatchDate();
+        if (batting == null && bowling == null) {
+            return null;
+        }
+        if (batting == null || bowling == null) {
+            return (batting != null ? batting : bowling).getYear();
+        }
+        return Math.min(batting.getYear(), bowling.getYear());
+    }
+    
+    private int lastArchivable() {
+        Integer known = knownArchivedThrough;
+        if (known == null) {
+            known = seasonArchiveRepository.findArchivedThrough();
+            knownArchivedThrough = known;
+        }
+        return enabled ? Math.max(known, Year.now().getValue() - keepSeasons) : known;
+    }
+}
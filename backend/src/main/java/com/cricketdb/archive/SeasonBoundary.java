@@ -0,0 +1,19 @@
+package com.cricketdb.archive;
+
+import java.time.LocalDate;
+
+// Where all-time queries split: season summaries through archivedThrough (0 when nothing is
+// archived), innings from the stats tables from liveFrom on
+public record SeasonBoundary(int archivedThrough) {
+    
+    // Lowest MySQL DATE
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    
+    public LocalDate liveFrom() {
+        return archivedThrough > 0 ? LocalDate.of(archivedThrough + 1, 1, 1) : EARLIEST;
+    }
+    
+    public boolean isArchived(int season) {
+        return season <= archivedThrough;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cricketdb.archive;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Yearly RANGE COLUMNS partitions on match_date for the stats tables: p{year} holds that
+// calendar year and pmax catches anything past the last one. Dates before the first yearly
+// partition land in it. Used by the V2 migration and PartitionMaintenance.
+public final class StatsPartitions {
+    
+    public static final List<String> TABLES = List.of("batting_stats", "bowling_stats");
+    
+    private static final Pattern YEAR_PARTITION = Pattern.compile("p(\\d{4})");
+    
+    private StatsPartitions() {
+    }
+    
+    public static boolean isPartitioned(Connection connection, String table) throws SQLException {
+        return !partitionNames(connection, table).isEmpty();
+    }
+    
+    // Years that have their own partition, ascending
+    public static List<Integer> partitionYears(Connection connection, String table) throws SQLException {
+        List<Integer> years = new ArrayList<>();
+        for (String name : partitionNames(connection, table)) {
+            Matcher matcher = YEAR_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                years.add(Integer.parseInt(matcher.group(1)));
+            }
+        }
+        Collections.sort(years);
+        return years;
+    }
+    
+    public static void partition(Connection connection, String table, int firstYear, int lastYear) throws SQLException {
+        execute(connection, "ALTER TABLE " + table + " PARTITION BY RANGE COLUMNS(match_date) "
+                + definitions(firstYear, lastYear));
+    }
+    
+    // Splits the years up to throughYear out of pmax; rows already in pmax move with them
+    public static boolean extend(Connection connection, String table, int throughYear) throws SQLException {
+        List<Integer> years = partitionYears(connection, table);
+        if (years.isEmpty() || years.get(years.size() - 1) >= throughYear) {
+            return false;
+        }
+        execute(connection, "ALTER TABLE " + table + " REORGANIZE PARTITION pmax INTO "
+                + definitions(years.get(years.size() - 1) + 1, throughYear));
+        return true;
+    }
+    
+    private static String definitions(int firstYear, int lastYear) {
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (int year = firstYear; year <= lastYear; year++) {
+            partitions.add("PARTITION p" + year + " VALUES LESS THAN ('" + (year + 1) + "-01-01')");
+        }
+        partitions.add("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+        return partitions.toString();
+    }
+    
+    private static List<String> partitionNames(Connection connection, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL")) {
+            statement.setString(1, table);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+    
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.cricketdb.cache;
+
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.event.RemoteChangesEvent;
+import com.cricketdb.model.CacheInvalidation;
+import com.cricketdb.repository.CacheInvalidationRepository;
+import com.cricketdb.shard.Shards;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Keeps the in-process caches of several nodes coherent through the database alone. Every
+// transaction that changes a player bumps that player's row in cache_invalidation, and every
+// node polls the rows updated since its last poll, publishing a RemoteChangesEvent for versions
+// it hasn't seen. Stale local state therefore lives at most one poll-interval past the commit.
+// Rows are re-read for `overlap` after their updated_at, which covers transactions that
+// committed later than they bumped; versions already seen are skipped, including our own.
+@Service
+public class CacheCoherenceService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CacheCoherenceService.class);
+    private static final String PLAYER_REGION = "player:";
+    
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Value("${cricketdb.coherence.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.coherence.overlap:5s}")
+    private Duration overlap;
+    
+    @Value("${cricketdb.coherence.retention:1h}")
+    private Duration retention;
+    
+    // Newest version seen per region, with when it was last seen in a poll
+    private final Map<String, Seen> seen = new HashMap<>();
+    private LocalDateTime since;
+    private TransactionTemplate primary;
+    
+    @PostConstruct
+    public void init() {
+        // Not read-only, so polls read the primary rather than a lagging replica
+        primary = new TransactionTemplate(transactionManager);
+    }
+    
+    // Plain listeners run in the publisher's transaction, so the bump commits or rolls back with the
+    // write; writes on shards other than 0 bump after they commit (see Shards.onGlobalShard)
+    @EventListener
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        changed(event.playerId());
+    }
+    
+    @EventListener
+    public void onInningsChanged(InningsChangedEvent event) {
+        changed(event.playerId());
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.coherence.poll-interval:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        List<CacheInvalidation> rows;
+        try {
+            rows = primary.execute(tx -> {
+                if (since == null) {
+                    // Anything that committed while this node was starting is treated as a change
+                    since = cacheInvalidationRepository.findDatabaseTime().minus(overlap);
+                }
+                return cacheInvalidationRepository.findByUpdatedAtGreaterThanEqual(since);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not poll cache invalidations", e);
+            return;
+        }
+        Set<Long> playerIds = new HashSet<>();
+        long now = System.nanoTime();
+        LocalDateTime newest = null;
+        synchronized (this) {
+            for (CacheInvalidation row : rows) {
+                Seen previous = seen.get(row.getRegion());
+                if (previous == null || row.getVersion() > previous.version()) {
+                    Long playerId = playerId(row.getRegion());
+                    if (playerId != null) {
+                        playerIds.add(playerId);
+                    }
+                }
+                long version = previous != null ? Math.max(previous.version(), row.getVersion()) : row.getVersion();
+                seen.put(row.getRegion(), new Seen(version, now));
+                if (newest == null || row.getUpdatedAt().isAfter(newest)) {
+                    newest = row.getUpdatedAt();
+                }
+            }
+            // A region that fell out of the poll window can only come back with a higher version
+            long expiry = overlap.multipliedBy(2).toNanos();
+            seen.values().removeIf(entry -> now - entry.polledAt() > expiry);
+            if (newest != null && newest.minus(overlap).isAfter(since)) {
+                since = newest.minus(overlap);
+            }
+        }
+        if (!playerIds.isEmpty()) {
+            log.debug("Invalidating {} players changed on other nodes", playerIds.size());
+            eventPublisher.publishEvent(new RemoteChangesEvent(playerIds));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.coherence.cleanup-interval:600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = primary.execute(tx -> cacheInvalidationRepository.deleteUpdatedBefore(
+                    cacheInvalidationRepository.findDatabaseTime().minus(retention)));
+            if (deleted > 0) {
+                log.info("Removed {} cache invalidation rows older than {}", deleted, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not clean up cache invalidations", e);
+        }
+    }
+    
+    private void changed(Long playerId) {
+        if (enabled) {
+            shards.onGlobalShard(() -> pend(playerId));
+        }
+    }
+    
+    private void pend(Long playerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            primary.executeWithoutResult(tx -> pend(playerId));
+            return;
+        }
+        PendingBumps pending = (PendingBumps) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingBumps();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.regions.add(PLAYER_REGION + playerId);
+    }
+    
+    // Our own bump is marked seen only when it directly follows the version we know of; otherwise
+    // another node bumped in between and the poll still has to deliver that version
+    private synchronized void seenOwn(Map<String, Long> versions) {
+        long now = System.nanoTime();
+        versions.forEach((region, version) -> {
+            Seen previous = seen.get(region);
+            long known = previous != null ? previous.version() : 0;
+            if (known == version - 1) {
+                seen.put(region, new Seen(version, now));
+            }
+        });
+    }
+    
+    private static Long playerId(String region) {
+        if (!region.startsWith(PLAYER_REGION)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(region.substring(PLAYER_REGION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    // Regions changed by one transaction, bumped together just before it commits. Sorted, so two
+    // writers touching the same players lock their rows in the same order and can't deadlock,
+    // and late, so the row locks are held only for the commit itself.
+    private class PendingBumps implements TransactionSynchronization {
+        
+        private final Set<String> regions = new TreeSet<>();
+        private final Map<String, Long> versions = new HashMap<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            regions.forEach(cacheInvalidationRepository::bump);
+            for (Object[] row : cacheInvalidationRepository.findVersions(regions)) {
+                versions.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        
+        // Ahead of the change log's entries, which lock a row shared by every writer
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+        
+        @Override
+        public void afterCommit() {
+            seenOwn(versions);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheCoherenceService.this);
+        }
+    }
+    
+    private record Seen(long version, long polledAt) {
+    }
+}
@@ -0,0 +1,289 @@
+package com.cricketdb.cache;
+
+import com.cricketdb.datasource.TaggedReads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Hot read responses kept as encoded bytes (and gzip bytes for larger bodies), keyed by name,
+// encoding and the version tag from VersionCounters. A write changes the tag, so the next read re-encodes;
+// everything else is a straight byte[] write with no Jackson work. Bodies load through TaggedReads,
+// so they are never older than their tag, and are kept only if no version moved while they loaded:
+// a load that straddled a write may mix both sides of it, so it is served once and not cached.
+// Hits only stamp the entry; when the total passes max-size, one thread at a time evicts the
+// least recently used entries down to EVICT_TO of it.
+@Component
+public class ResponseBytesCache {
+    
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final MediaType CBOR = new MediaType("application", "cbor");
+    private static final double EVICT_TO = 0.9;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+    
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private VersionCounters versionCounters;
+    
+    @Value("${cricketdb.response-cache.max-size:32MB}")
+    private DataSize maxSize;
+    
+    @Value("${cricketdb.response-cache.gzip-min-size:2KB}")
+    private DataSize gzipMinSize;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Counter hits;
+    private Counter misses;
+    
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("cricketdb.response-cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("cricketdb.response-cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cricketdb.response-cache.bytes", this, ResponseBytesCache::getTotalBytes).register(meterRegistry);
+    }
+    
+    public ResponseEntity<byte[]> respond(String name, String etag, WebRequest webRequest, Supplier<?> loader) {
+        return respond(name, etag, webRequest, null, loader);
+    }
+    
+    public ResponseEntity<byte[]> respond(String name, String etag, WebRequest webRequest,
+                                          CacheControl cacheControl, Supplier<?> loader) {
+        MediaType mediaType = negotiate(webRequest);
+        boolean acceptsGzip = acceptsGzip(webRequest);
+        Entry entry = get(name + "|" + mediaType, etag, mediaType, loader);
+        boolean gzip = entry.gzip != null && acceptsGzip;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(representationTag(etag, mediaType, acceptsGzip))
+                .contentType(mediaType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (cacheControl != null) {
+            response.cacheControl(cacheControl);
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? entry.gzip : entry.body);
+    }
+    
+    // Conditional GET against the tag of the representation respond() would send for this request
+    public boolean checkNotModified(String etag, WebRequest webRequest) {
+        return webRequest.checkNotModified(representationTag(etag, negotiate(webRequest), acceptsGzip(webRequest)));
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+    
+    private Entry get(String name, String etag, MediaType mediaType, Supplier<?> loader) {
+        Entry cached = entries.get(name);
+        if (cached != null && cached.etag.equals(etag)) {
+            cached.lastUsed = System.nanoTime();
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long changes = versionCounters.changes();
+        Entry loaded = encode(etag, mapperFor(mediaType), TaggedReads.load(etag, loader));
+        if (changes == versionCounters.changes()) {
+            put(name, loaded);
+        }
+        return loaded;
+    }
+    
+    private void put(String name, Entry entry) {
+        if (entry.size() > maxSize.toBytes()) {
+            return;
+        }
+        Entry previous = entries.put(name, entry);
+        long total = totalBytes.addAndGet(entry.size() - (previous != null ? previous.size() : 0));
+        if (total > maxSize.toBytes()) {
+            evict();
+        }
+    }
+    
+    // Whoever finds the lock taken leaves the eviction to its holder
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long target = (long) (maxSize.toBytes() * EVICT_TO);
+            List<Map.Entry<String, Entry>> byLastUse = new ArrayList<>(entries.entrySet());
+            byLastUse.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastUsed));
+            for (Map.Entry<String, Entry> candidate : byLastUse) {
+                if (totalBytes.get() <= target) {
+                    break;
+                }
+                // Skips entries replaced since the snapshot; their replacement is accounted separately
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    totalBytes.addAndGet(-candidate.getValue().size());
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    // First acceptable encoding in the client's order; JSON for wildcards and anything else
+    private static MediaType negotiate(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType candidate : accepted) {
+                if (candidate.getQualityValue() == 0 || candidate.isWildcardSubtype()) {
+                    continue;
+                }
+                if (candidate.isCompatibleWith(SMILE)) {
+                    return SMILE;
+                }
+                if (candidate.isCompatibleWith(CBOR)) {
+                    return CBOR;
+                }
+                if (candidate.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return MediaType.APPLICATION_JSON;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Fall through to JSON, as the converters would
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+    
+    private ObjectMapper mapperFor(MediaType mediaType) {
+        if (SMILE.equals(mediaType)) {
+            return smileConverter.getObjectMapper();
+        }
+        if (CBOR.equals(mediaType)) {
+            return cborConverter.getObjectMapper();
+        }
+        return objectMapper;
+    }
+    
+    private Entry encode(String etag, ObjectMapper mapper, Object value) {
+        try {
+            byte[] body = mapper.writeValueAsBytes(value);
+            byte[] gzip = body.length >= gzipMinSize.toBytes() ? gzip(body) : null;
+            return new Entry(etag, body, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cached response", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    // Each encoding and content coding gets its own strong tag. Clients that accept gzip get the "-gz" tag
+    // even for bodies too small to compress, which only costs them a revalidation if their Accept-Encoding changes.
+    private static String representationTag(String etag, MediaType mediaType, boolean acceptsGzip) {
+        String tag = etag;
+        if (SMILE.equals(mediaType)) {
+            tag += "-smile";
+        } else if (CBOR.equals(mediaType)) {
+            tag += "-cbor";
+        }
+        return acceptsGzip ? tag + "-gz" : tag;
+    }
+    
+    // gzip (or x-gzip, or *) listed with a non-zero q-value; "gzip;q=0" refuses it
+    private static boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+    
+    private static final class Entry {
+        
+        private final String etag;
+        private final byte[] body;
+        private final byte[] gzip;
+        private volatile long lastUsed = System.nanoTime();
+        
+        private Entry(String etag, byte[] body, byte[] gzip) {
+            this.etag = etag;
+            this.body = body;
+            this.gzip = gzip;
+        }
+        
+        long size() {
+            return body.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cricketdb.cache;
+
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.event.RemoteChangesEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cheap per-aggregate versions for ETags. Counters are bumped after commit, and callers take
+// the tag before they query, so a tag is never newer than the body it labels as long as that
+// query sees every commit the tag counts: it has to run inside TaggedReads.load, which keeps
+// it on the primary and out of coalescing, since a replica or an earlier in-flight call may
+// not have those commits yet. The boot epoch keeps tags from one run from matching after a restart.
+@Component
+public class VersionCounters {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong players = new AtomicLong();
+    private final AtomicLong analytics = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<Long, AtomicLong> playerVersions = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> battingVersions = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> bowlingVersions = new ConcurrentHashMap<>();
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        players.incrementAndGet();
+        analytics.incrementAndGet();
+        bump(playerVersions, event.playerId());
+        changes.incrementAndGet();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInningsChanged(InningsChangedEvent event) {
+        analytics.incrementAndGet();
+        bump(InningsChangedEvent.BATTING.equals(event.discipline()) ? battingVersions : bowlingVersions, event.playerId());
+        changes.incrementAndGet();
+    }
+    
+    // The event carries no discipline, so both innings tags move along with the player's
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        players.incrementAndGet();
+        analytics.incrementAndGet();
+        for (Long playerId : event.playerIds()) {
+            bump(playerVersions, playerId);
+            bump(battingVersions, playerId);
+            bump(bowlingVersions, playerId);
+        }
+        changes.incrementAndGet();
+    }
+    
+    // Moves after every counter below has; equal readings around a load mean no tag moved during it
+    public long changes() {
+        return changes.get();
+    }
+    
+    // Any player change: list, countries
+    public String playersTag() {
+        return tag("p", players.get());
+    }
+    
+    public String playerTag(Long playerId) {
+        return tag("p" + playerId, version(playerVersions, playerId));
+    }
+    
+    // Innings bodies embed the player, so both versions go into the tag
+    public String battingTag(Long playerId) {
+        return tag("b" + playerId, version(battingVersions, playerId)) + "." + version(playerVersions, playerId);
+    }
+    
+    public String bowlingTag(Long playerId) {
+        return tag("w" + playerId, version(bowlingVersions, playerId)) + "." + version(playerVersions, playerId);
+    }
+    
+    public String analyticsTag() {
+        return tag("a", analytics.get());
+    }
+    
+    private String tag(String aggregate, long version) {
+        return aggregate + "-" + epoch + "-" + version;
+    }
+    
+    private static void bump(Map<Long, AtomicLong> versions, Long playerId) {
+        versions.computeIfAbsent(playerId, id -> new AtomicLong()).incrementAndGet();
+    }
+    
+    private static long version(Map<Long, AtomicLong> versions, Long playerId) {
+        AtomicLong version = versions.get(playerId);
+        return version != null ? version.get() : 0;
+    }
+}
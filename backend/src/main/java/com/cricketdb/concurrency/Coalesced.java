@@ -0,0 +1,14 @@
+package com.cricketdb.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Concurrent calls with equal arguments share a single in-flight invocation (see CoalescingAspect).
+// Only use on side-effect-free reads whose result does not depend on the caller. Every caller gets
+// the same result object, so it must be immutable: unmodifiable lists of immutable DTOs, not entities.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
@@ -0,0 +1,117 @@
+package com.cricketdb.concurrency;
+
+import com.cricketdb.datasource.RecentWrites;
+import com.cricketdb.datasource.TaggedReads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs outside the transaction advice so followers never open a transaction of their own.
+// A caller who committed a write within the sticky window, or after the in-flight call started,
+// runs the call itself: the leader may have read before that write or from a lagging replica.
+// Reads behind a version tag (see TaggedReads) are never coalesced, for the same reason.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CoalescingAspect {
+    
+    private final Map<CallKey, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private RecentWrites recentWrites;
+    
+    // Followers stop waiting after this long and run the call themselves
+    @Value("${cricketdb.coalescing.max-wait:5s}")
+    private Duration maxWait;
+    
+    @Around("@annotation(com.cricketdb.concurrency.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Meters methodMeters = meters.computeIfAbsent(method, this::createMeters);
+        if (TaggedReads.active()) {
+            methodMeters.bypassed.increment();
+            return joinPoint.proceed();
+        }
+        CallKey key = new CallKey(method, Arrays.asList(joinPoint.getArgs()));
+        
+        InFlight call = new InFlight(new CompletableFuture<>(), System.nanoTime());
+        InFlight leader = inFlight.putIfAbsent(key, call);
+        
+        if (leader == null) {
+            methodMeters.executed.increment();
+            try {
+                Object result = joinPoint.proceed();
+                call.result().complete(result);
+                return result;
+            } catch (Throwable t) {
+                call.result().completeExceptionally(t);
+                throw t;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+        
+        String user = RecentWrites.currentUser();
+        Long lastWrite = recentWrites.lastWrite(user);
+        if (lastWrite != null && (recentWrites.wroteRecently(user) || lastWrite - leader.startedAt() >= 0)) {
+            methodMeters.bypassed.increment();
+            return joinPoint.proceed();
+        }
+        
+        methodMeters.collapsed.increment();
+        try {
+            return leader.result().get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            methodMeters.timedOut.increment();
+            return joinPoint.proceed();
+        } catch (InterruptedException e) {
+            // Stop waiting, but keep the interrupt for whatever the call does next
+            Thread.currentThread().interrupt();
+            return joinPoint.proceed();
+        }
+    }
+    
+    private Meters createMeters(Method method) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return new Meters(
+                Counter.builder("cricketdb.coalescing.executed").tag("method", name).register(meterRegistry),
+                Counter.builder("cricketdb.coalescing.collapsed").tag("method", name).register(meterRegistry),
+                Counter.builder("cricketdb.coalescing.timeouts").tag("method", name).register(meterRegistry),
+                Counter.builder("cricketdb.coalescing.bypassed").tag("method", name).register(meterRegistry)
+        );
+    }
+    
+    private record CallKey(Method method, List<Object> args) {
+    }
+    
+    private record InFlight(CompletableFuture<Object> result, long startedAt) {
+    }
+    
+    private record Meters(Counter executed, Counter collapsed, Counter timedOut, Counter bypassed) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.cricketdb.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the parts of a player profile concurrently. Bounded, and sized well below the connection
+// pool, so profile fan-out can't take every connection from the other endpoints.
+@Configuration
+public class ProfileExecutorConfig {
+    
+    @Value("${cricketdb.profile.threads:8}")
+    private int threads;
+    
+    @Value("${cricketdb.profile.queue-capacity:200}")
+    private int queueCapacity;
+    
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService profileExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "profile-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "profile");
+    }
+}
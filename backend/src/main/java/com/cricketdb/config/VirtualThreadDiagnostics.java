@@ -0,0 +1,41 @@
+package com.cricketdb.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.util.Collections;
+
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadDiagnostics {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkPinningHazards() {
+        log.info("Request handling is running on virtual threads");
+        
+        for (Driver driver : Collections.list(DriverManager.getDrivers())) {
+            if (!driver.getClass().getName().startsWith("com.mysql")) {
+                continue;
+            }
+            // Connector/J before 9.0 guards socket I/O with synchronized blocks, which pins the
+            // carrier thread for the whole round trip and caps throughput at the carrier count.
+            if (driver.getMajorVersion() < 9) {
+                log.warn("MySQL Connector/J {}.{} pins virtual threads on every query (synchronized I/O). "
+                        + "Build with -Pjava21 to use Connector/J 9.x.",
+                        driver.getMajorVersion(), driver.getMinorVersion());
+            }
+        }
+        
+        if (System.getProperty("jdk.tracePinnedThreads") == null) {
+            log.info("Start the JVM with -Djdk.tracePinnedThreads=short to log remaining pinning sites");
+        }
+    }
+}
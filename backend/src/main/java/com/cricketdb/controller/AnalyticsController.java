@@ -1,12 +1,34 @@
 package com.cricketdb.controller;
 
+import com.cricketdb.cache.ResponseBytesCache;
+import com.cricketdb.cache.VersionCounters;
 import com.cricketdb.dto.AnalyticsResponse;
+import com.cricketdb.dto.DistributionResponse;
+import com.cricketdb.dto.PlayerComparisonResponse;
+import com.cricketdb.dto.RankResponse;
+import com.cricketdb.rank.RankService;
 import com.cricketdb.service.AnalyticsService;
+import com.cricketdb.sketch.DistributionService;
+import com.cricketdb.stream.ChangeStreamService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -16,10 +38,71 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
     
+    @Autowired
+    private DistributionService distributionService;
+    
+    @Autowired
+    private RankService rankService;
+    
+    @Autowired
+    private ChangeStreamService changeStreamService;
+    
+    @Autowired
+    private VersionCounters versionCounters;
+    
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+    
+    @Value("${cricketdb.http-cache.analytics-max-age:10s}")
+    private Duration analyticsMaxAge;
+    
     @GetMapping("/summary")
     @Operation(summary = "Get analytics summary", description = "Retrieve comprehensive analytics summary")
-    public ResponseEntity<AnalyticsResponse> getAnalyticsSummary() {
-        AnalyticsResponse analytics = analyticsService.getAnalytics();
-        return ResponseEntity.ok(analytics);
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = AnalyticsResponse.class)))
+    public ResponseEntity<byte[]> getAnalyticsSummary(WebRequest webRequest) {
+        String etag = versionCounters.analyticsTag();
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("analytics", etag, webRequest,
+                CacheControl.maxAge(analyticsMaxAge).cachePublic(), analyticsService::getAnalytics);
+    }
+    
+    @GetMapping("/compare")
+    @Operation(summary = "Compare players", description = "Batting and bowling aggregates for 2-20 players, as series aligned with playerIds; optional from/to match date range")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = PlayerComparisonResponse.class)))
+    public ResponseEntity<byte[]> comparePlayers(@RequestParam List<Long> playerIds,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 WebRequest webRequest) {
+        String variant = "~" + playerIds.stream().map(String::valueOf).collect(Collectors.joining(".")) + "~" + from + "~" + to;
+        String etag = versionCounters.analyticsTag() + variant;
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("compare" + variant, etag, webRequest,
+                CacheControl.maxAge(analyticsMaxAge).cachePublic(),
+                () -> analyticsService.comparePlayers(playerIds, from, to));
+    }
+    
+    @GetMapping("/distribution/{metric}")
+    @Operation(summary = "Get metric distribution", description = "Approximate quantiles of runs, strike-rate, economy or wickets per innings, or the distinct opponents count, over all players or one playerId")
+    public ResponseEntity<DistributionResponse> getDistribution(@PathVariable String metric,
+                                                                @RequestParam(required = false) Long playerId,
+                                                                @RequestParam(required = false) List<Double> quantiles) {
+        return ResponseEntity.ok(distributionService.getDistribution(metric, playerId, quantiles));
+    }
+    
+    @GetMapping("/rank/{metric}/{playerId}")
+    @Operation(summary = "Get player rank", description = "Player's rank on the career runs, fours, sixes or wickets leaderboard, with up to `window` players either side")
+    public ResponseEntity<RankResponse> getRank(@PathVariable String metric, @PathVariable Long playerId,
+                                                @RequestParam(defaultValue = "5") int window) {
+        return ResponseEntity.ok(rankService.getRank(metric, playerId, window));
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream analytics changes", description = "Server-sent events: a 'summary' event on connect, then 'leaderboard' events with the changed fields")
+    public SseEmitter streamAnalytics() {
+        return changeStreamService.subscribeAnalytics();
     }
 }
@@ -10,12 +10,16 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Authentication endpoints")
@@ -30,22 +34,39 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    @Qualifier("loginExecutor")
+    private ExecutorService loginExecutor;
+    
+    // The password check runs on the bounded login pool and the request thread is released
+    // meanwhile; a full queue rejects immediately (503) instead of piling up request threads
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+        CompletableFuture<ResponseEntity<LoginResponse>> result = new CompletableFuture<>();
         
-        User user = (User) authentication.getPrincipal();
-        String token = jwtUtil.generateToken(user);
+        loginExecutor.execute(() -> {
+            try {
+                Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+                );
+                
+                User user = (User) authentication.getPrincipal();
+                String token = jwtUtil.generateToken(user);
+                
+                result.complete(ResponseEntity.ok(new LoginResponse(
+                        token,
+                        user.getEmail(),
+                        user.getRole(),
+                        "Login successful"
+                )));
+            } catch (Throwable e) {
+                // Anything escaping here would leave the request hanging until the async timeout
+                result.completeExceptionally(e);
+            }
+        });
         
-        return ResponseEntity.ok(new LoginResponse(
-                token,
-                user.getEmail(),
-                user.getRole(),
-                "Login successful"
-        ));
+        return result;
     }
     
     @PostMapping("/register")
@@ -0,0 +1,50 @@
+package com.cricketdb.controller;
+
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BowlingStatsRequest;
+import com.cricketdb.dto.IngestionResponse;
+import com.cricketdb.ingestion.IngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/stats/ingest")
+@Tag(name = "Statistics Ingestion", description = "Asynchronous write-behind ingestion for live scoring feeds")
+public class IngestionController {
+    
+    @Autowired
+    private IngestionService ingestionService;
+    
+    @PostMapping("/batting")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
+    @Operation(summary = "Queue batting stats", description = "Validate and queue batting statistics; returns 202 with an ingestion id")
+    public ResponseEntity<IngestionResponse> ingestBattingStats(@Valid @RequestBody BattingStatsRequest request) {
+        return accepted(ingestionService.submitBatting(request));
+    }
+    
+    @PostMapping("/bowling")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
+    @Operation(summary = "Queue bowling stats", description = "Validate and queue bowling statistics; returns 202 with an ingestion id")
+    public ResponseEntity<IngestionResponse> ingestBowlingStats(@Valid @RequestBody BowlingStatsRequest request) {
+        return accepted(ingestionService.submitBowling(request));
+    }
+    
+    @GetMapping("/{ingestionId}")
+    @Operation(summary = "Get ingestion status", description = "Check whether a queued record has been committed")
+    public ResponseEntity<IngestionResponse> getIngestionStatus(@PathVariable String ingestionId) {
+        return ResponseEntity.ok(ingestionService.getStatus(ingestionId));
+    }
+    
+    private ResponseEntity<IngestionResponse> accepted(IngestionResponse response) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/stats/ingest/" + response.getIngestionId()))
+                .body(response);
+    }
+}
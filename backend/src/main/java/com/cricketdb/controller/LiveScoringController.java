@@ -0,0 +1,58 @@
+package com.cricketdb.controller;
+
+import com.cricketdb.dto.BallEventBatchRequest;
+import com.cricketdb.dto.LiveInningsRequest;
+import com.cricketdb.dto.LiveMatchResponse;
+import com.cricketdb.live.LiveScoringService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/live")
+@Tag(name = "Live Scoring", description = "Ball-by-ball scoring with periodic stats checkpoints")
+public class LiveScoringController {
+    
+    @Autowired
+    private LiveScoringService liveScoringService;
+    
+    @PostMapping("/{matchId}/innings")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
+    @Operation(summary = "Start an innings", description = "Start a new innings for a live match; the previous innings is checkpointed")
+    public ResponseEntity<LiveMatchResponse> startInnings(@PathVariable String matchId,
+                                                          @Valid @RequestBody LiveInningsRequest request) {
+        return ResponseEntity.ok(liveScoringService.startInnings(matchId, request));
+    }
+    
+    @PostMapping("/{matchId}/balls")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
+    @Operation(summary = "Record balls", description = "Apply one or more ball events to the current innings; stats rows are written at the next checkpoint")
+    public ResponseEntity<LiveMatchResponse> recordBalls(@PathVariable String matchId,
+                                                         @Valid @RequestBody BallEventBatchRequest request) {
+        return ResponseEntity.accepted().body(liveScoringService.recordBalls(matchId, request.getBalls()));
+    }
+    
+    @GetMapping("/{matchId}")
+    @Operation(summary = "Get live match", description = "Retrieve the live scorecard of a match")
+    public ResponseEntity<LiveMatchResponse> getLiveMatch(@PathVariable String matchId) {
+        return ResponseEntity.ok(liveScoringService.getLiveMatch(matchId));
+    }
+    
+    @PostMapping("/{matchId}/checkpoint")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
+    @Operation(summary = "Checkpoint a live match", description = "Write the current aggregates to batting and bowling stats now")
+    public ResponseEntity<LiveMatchResponse> checkpoint(@PathVariable String matchId) {
+        return ResponseEntity.ok(liveScoringService.checkpoint(matchId));
+    }
+    
+    @PostMapping("/{matchId}/end")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
+    @Operation(summary = "End a live match", description = "Write the final aggregates and stop tracking the match")
+    public ResponseEntity<LiveMatchResponse> endMatch(@PathVariable String matchId) {
+        return ResponseEntity.ok(liveScoringService.endMatch(matchId));
+    }
+}
@@ -1,9 +1,23 @@
 package com.cricketdb.controller;
 
+import com.cricketdb.cache.ResponseBytesCache;
+import com.cricketdb.cache.VersionCounters;
+import com.cricketdb.datasource.TaggedReads;
+import com.cricketdb.dto.BatchGetRequest;
+import com.cricketdb.dto.BatchGetResponse;
+import com.cricketdb.dto.PlayerProfileResponse;
 import com.cricketdb.dto.PlayerRequest;
 import com.cricketdb.dto.PlayerResponse;
+import com.cricketdb.dto.SimilarPlayersResponse;
+import com.cricketdb.service.FieldSelectionService;
+import com.cricketdb.service.PlayerProfileService;
 import com.cricketdb.service.PlayerService;
+import com.cricketdb.similarity.SimilarPlayerService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +25,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,32 +37,95 @@ public class PlayerController {
     @Autowired
     private PlayerService playerService;
     
+    @Autowired
+    private VersionCounters versionCounters;
+    
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+    
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+    
+    @Autowired
+    private PlayerProfileService playerProfileService;
+    
+    @Autowired
+    private SimilarPlayerService similarPlayerService;
+    
     @GetMapping
-    @Operation(summary = "Get all players", description = "Retrieve list of all players")
-    public ResponseEntity<List<PlayerResponse>> getAllPlayers() {
-        List<PlayerResponse> players = playerService.getAllPlayers();
-        return ResponseEntity.ok(players);
+    @Operation(summary = "Get all players", description = "Retrieve list of all players; `fields` (e.g. playerId,playerName,country) selects a subset of columns")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = PlayerResponse.class))))
+    public ResponseEntity<byte[]> getAllPlayers(@RequestParam(required = false) String fields, WebRequest webRequest) {
+        List<String> selected = fields != null ? fieldSelectionService.parsePlayerFields(fields) : null;
+        String variant = fieldSelectionService.variant(selected);
+        String etag = versionCounters.playersTag() + variant;
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("players" + variant, etag, webRequest,
+                () -> selected != null ? fieldSelectionService.getPlayers(selected) : playerService.getAllPlayers());
     }
     
     @GetMapping("/country/{country}")
     @Operation(summary = "Get players by country", description = "Retrieve players filtered by country")
-    public ResponseEntity<List<PlayerResponse>> getPlayersByCountry(@PathVariable String country) {
-        List<PlayerResponse> players = playerService.getPlayersByCountry(country);
-        return ResponseEntity.ok(players);
+    public ResponseEntity<List<PlayerResponse>> getPlayersByCountry(@PathVariable String country, WebRequest webRequest) {
+        String etag = versionCounters.playersTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<PlayerResponse> players = TaggedReads.load(etag, () -> playerService.getPlayersByCountry(country));
+        return ResponseEntity.ok().eTag(etag).body(players);
     }
     
     @GetMapping("/countries")
     @Operation(summary = "Get distinct countries", description = "Retrieve list of all distinct countries")
-    public ResponseEntity<List<String>> getDistinctCountries() {
-        List<String> countries = playerService.getDistinctCountries();
-        return ResponseEntity.ok(countries);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = String.class))))
+    public ResponseEntity<byte[]> getDistinctCountries(WebRequest webRequest) {
+        String etag = versionCounters.playersTag();
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("countries", etag, webRequest, playerService::getDistinctCountries);
     }
     
     @GetMapping("/{id}")
-    @Operation(summary = "Get player by ID", description = "Retrieve a specific player by ID")
-    public ResponseEntity<PlayerResponse> getPlayerById(@PathVariable Long id) {
-        PlayerResponse player = playerService.getPlayerById(id);
-        return ResponseEntity.ok(player);
+    @Operation(summary = "Get player by ID", description = "Retrieve a specific player by ID; `fields` selects a subset of columns")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = PlayerResponse.class)))
+    public ResponseEntity<byte[]> getPlayerById(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                                WebRequest webRequest) {
+        List<String> selected = fields != null ? fieldSelectionService.parsePlayerFields(fields) : null;
+        String variant = fieldSelectionService.variant(selected);
+        String etag = versionCounters.playerTag(id) + variant;
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("player:" + id + variant, etag, webRequest,
+                () -> selected != null ? fieldSelectionService.getPlayer(id, selected) : playerService.getPlayerById(id));
+    }
+    
+    @GetMapping("/{id}/profile")
+    @Operation(summary = "Get player profile", description = "Player, the most recent `recent` batting and bowling innings and innings counts in one response")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = PlayerProfileResponse.class)))
+    public ResponseEntity<byte[]> getPlayerProfile(@PathVariable Long id, @RequestParam(defaultValue = "10") int recent,
+                                                   WebRequest webRequest) {
+        String etag = playerProfileService.profileTag(id) + "~" + recent;
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("profile:" + id + "~" + recent, etag, webRequest,
+                () -> playerProfileService.getProfile(id, recent));
+    }
+    
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Find similar players", description = "The k players with the closest career profile (batting average, strike rate, boundary %, economy, wickets per innings, role)")
+    public ResponseEntity<SimilarPlayersResponse> getSimilarPlayers(@PathVariable Long id, @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(similarPlayerService.findSimilar(id, k));
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Get players by IDs", description = "Resolve up to cricketdb.batch.max-ids players in one query; results follow request order with NOT_FOUND markers")
+    public ResponseEntity<BatchGetResponse<PlayerResponse>> getPlayersByIds(@Valid @RequestBody BatchGetRequest request) {
+        return ResponseEntity.ok(playerService.getPlayersByIds(request.getIds()));
     }
     
     @PostMapping
@@ -1,18 +1,33 @@
 package com.cricketdb.controller;
 
+import com.cricketdb.cache.ResponseBytesCache;
+import com.cricketdb.cache.VersionCounters;
+import com.cricketdb.dto.BatchGetRequest;
+import com.cricketdb.dto.BatchGetResponse;
 import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BattingStatsResponse;
 import com.cricketdb.dto.BowlingStatsRequest;
+import com.cricketdb.dto.BowlingStatsResponse;
 import com.cricketdb.model.BattingStats;
 import com.cricketdb.model.BowlingStats;
+import com.cricketdb.service.FieldSelectionService;
 import com.cricketdb.service.StatsService;
+import com.cricketdb.stream.ChangeStreamService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -24,6 +39,18 @@ public class StatsController {
     @Autowired
     private StatsService statsService;
     
+    @Autowired
+    private ChangeStreamService changeStreamService;
+    
+    @Autowired
+    private VersionCounters versionCounters;
+    
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+    
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+    
     @PostMapping("/batting")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DATA_ENTRY')")
     @Operation(summary = "Add batting stats", description = "Add batting statistics for a player")
@@ -41,17 +68,51 @@ public class StatsController {
     }
     
     @GetMapping("/batting/player/{playerId}")
-    @Operation(summary = "Get batting stats by player", description = "Retrieve all batting statistics for a specific player")
-    public ResponseEntity<List<BattingStats>> getBattingStatsByPlayer(@PathVariable Long playerId) {
-        List<BattingStats> battingStats = statsService.getBattingStatsByPlayer(playerId);
-        return ResponseEntity.ok(battingStats);
+    @Operation(summary = "Get batting stats by player", description = "Retrieve all batting statistics for a specific player; `fields` (e.g. id,runs,matchDate) selects a subset of columns")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BattingStatsResponse.class))))
+    public ResponseEntity<byte[]> getBattingStatsByPlayer(@PathVariable Long playerId,
+                                                          @RequestParam(required = false) String fields,
+                                                          WebRequest webRequest) {
+        List<String> selected = fields != null ? fieldSelectionService.parseBattingFields(fields) : null;
+        String variant = fieldSelectionService.variant(selected);
+        String etag = versionCounters.battingTag(playerId) + variant;
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("batting:" + playerId + variant, etag, webRequest,
+                () -> selected != null
+                        ? fieldSelectionService.getBattingStatsByPlayer(playerId, selected)
+                        : statsService.getBattingStatsByPlayer(playerId));
     }
     
     @GetMapping("/bowling/player/{playerId}")
-    @Operation(summary = "Get bowling stats by player", description = "Retrieve all bowling statistics for a specific player")
-    public ResponseEntity<List<BowlingStats>> getBowlingStatsByPlayer(@PathVariable Long playerId) {
-        List<BowlingStats> bowlingStats = statsService.getBowlingStatsByPlayer(playerId);
-        return ResponseEntity.ok(bowlingStats);
+    @Operation(summary = "Get bowling stats by player", description = "Retrieve all bowling statistics for a specific player; `fields` selects a subset of columns")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BowlingStatsResponse.class))))
+    public ResponseEntity<byte[]> getBowlingStatsByPlayer(@PathVariable Long playerId,
+                                                          @RequestParam(required = false) String fields,
+                                                          WebRequest webRequest) {
+        List<String> selected = fields != null ? fieldSelectionService.parseBowlingFields(fields) : null;
+        String variant = fieldSelectionService.variant(selected);
+        String etag = versionCounters.bowlingTag(playerId) + variant;
+        if (responseBytesCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
+        return responseBytesCache.respond("bowling:" + playerId + variant, etag, webRequest,
+                () -> selected != null
+                        ? fieldSelectionService.getBowlingStatsByPlayer(playerId, selected)
+                        : statsService.getBowlingStatsByPlayer(playerId));
+    }
+    
+    @PostMapping("/batting/batch")
+    @Operation(summary = "Get batting stats by IDs", description = "Resolve up to cricketdb.batch.max-ids batting rows in one query; results follow request order with NOT_FOUND markers")
+    public ResponseEntity<BatchGetResponse<BattingStats>> getBattingStatsByIds(@Valid @RequestBody BatchGetRequest request) {
+        return ResponseEntity.ok(statsService.getBattingStatsByIds(request.getIds()));
+    }
+    
+    @PostMapping("/bowling/batch")
+    @Operation(summary = "Get bowling stats by IDs", description = "Resolve up to cricketdb.batch.max-ids bowling rows in one query; results follow request order with NOT_FOUND markers")
+    public ResponseEntity<BatchGetResponse<BowlingStats>> getBowlingStatsByIds(@Valid @RequestBody BatchGetRequest request) {
+        return ResponseEntity.ok(statsService.getBowlingStatsByIds(request.getIds()));
     }
     
     @GetMapping("/batting/{id}")
@@ -99,4 +160,10 @@ public class StatsController {
         statsService.deleteBowlingStats(id);
         return ResponseEntity.noContent().build();
     }
+    
+    @GetMapping(value = "/stream/player/{playerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream a player's innings changes", description = "Server-sent 'innings' events for new, updated or deleted batting and bowling rows of a player")
+    public SseEmitter streamPlayerStats(@PathVariable Long playerId) {
+        return changeStreamService.subscribePlayer(playerId);
+    }
 }
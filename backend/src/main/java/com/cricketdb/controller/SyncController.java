@@ -0,0 +1,25 @@
+package com.cricketdb.controller;
+
+import com.cricketdb.dto.SyncResponse;
+import com.cricketdb.service.ChangeLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@Tag(name = "Sync", description = "Incremental change feed for client caches")
+public class SyncController {
+    
+    @Autowired
+    private ChangeLogService changeLogService;
+    
+    @GetMapping
+    @Operation(summary = "Get changes since a sequence number", description = "Latest change per player and innings row after `since`; pass `nextSince` on the next call.")
+    public ResponseEntity<SyncResponse> getChanges(@RequestParam(defaultValue = "0") Long since,
+                                                   @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(changeLogService.getChangesSince(since, limit));
+    }
+}
@@ -0,0 +1,125 @@
+package com.cricketdb.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a healthy replica and everything else to the primary. Reads
+// behind a version tag (see TaggedReads) and reads shortly after the user's own write stay on
+// the primary too.
+// Must sit behind a LazyConnectionDataSourceProxy so the transaction's read-only flag is
+// known by the time a connection is actually fetched.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    
+    private final List<ReplicaPool> replicas;
+    private final RecentWrites recentWrites;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routedCounters = new HashMap<>();
+    private final Counter stickyReads;
+    private final Counter taggedReads;
+    private final Counter failoverReads;
+    private final ScheduledExecutorService healthChecker;
+    
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<ReplicaPool> replicas,
+                                      RoutingDataSourceProperties properties, RecentWrites recentWrites,
+                                      MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.recentWrites = recentWrites;
+        this.maxLagSeconds = properties.getMaxReplicaLag().toSeconds();
+        
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routedCounters.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (ReplicaPool replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+            routedCounters.put(replica.getName(), routedCounter(meterRegistry, replica.getName()));
+            Gauge.builder("cricketdb.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("cricketdb.datasource.replica.lag", replica, ReplicaPool::getLagSeconds)
+                    .tag("pool", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        
+        stickyReads = Counter.builder("cricketdb.datasource.sticky.reads").register(meterRegistry);
+        taggedReads = Counter.builder("cricketdb.datasource.tagged.reads").register(meterRegistry);
+        failoverReads = Counter.builder("cricketdb.datasource.failover.reads").register(meterRegistry);
+        
+        Duration interval = properties.getHealthCheckInterval();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = chooseTarget();
+        routedCounters.get(key).increment();
+        return key;
+    }
+    
+    private String chooseTarget() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            return PRIMARY;
+        }
+        if (TaggedReads.active()) {
+            taggedReads.increment();
+            return PRIMARY;
+        }
+        if (recentWrites.wroteRecently(RecentWrites.currentUser())) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        failoverReads.increment();
+        return PRIMARY;
+    }
+    
+    private void checkReplicas() {
+        for (ReplicaPool replica : replicas) {
+            replica.check(maxLagSeconds);
+        }
+    }
+    
+    private static Counter routedCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("cricketdb.datasource.routed")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+    
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
@@ -0,0 +1,61 @@
+package com.cricketdb.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// When each user last committed a read-write transaction, for read-your-writes: routing keeps
+// their reads on the primary for sticky-window, and coalescing won't hand them a result computed
+// before their write. Boot registers it with the transaction manager as an execution listener.
+@Component
+public class RecentWrites implements TransactionExecutionListener {
+    
+    // Entries outlive the sticky window so a long-running coalesced call can still be compared
+    private static final Duration MIN_RETENTION = Duration.ofMinutes(1);
+    
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    
+    @Value("${cricketdb.datasource.routing.sticky-window:10s}")
+    private Duration stickyWindow;
+    
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+        String user = currentUser();
+        if (user != null) {
+            lastWriteByUser.put(user, System.nanoTime());
+        }
+    }
+    
+    // System.nanoTime() of the user's last committed write, or null if none is remembered
+    public Long lastWrite(String user) {
+        return user != null ? lastWriteByUser.get(user) : null;
+    }
+    
+    public boolean wroteRecently(String user) {
+        Long lastWrite = lastWrite(user);
+        return lastWrite != null && System.nanoTime() - lastWrite < stickyWindow.toNanos();
+    }
+    
+    public static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void prune() {
+        long retention = Math.max(stickyWindow.toNanos(), MIN_RETENTION.toNanos());
+        long now = System.nanoTime();
+        lastWriteByUser.values().removeIf(lastWrite -> now - lastWrite >= retention);
+    }
+}
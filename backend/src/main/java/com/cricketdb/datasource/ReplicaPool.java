@@ -0,0 +1,63 @@
+package com.cricketdb.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Getter
+public class ReplicaPool {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+    
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final boolean checkLag;
+    private volatile boolean healthy = true;
+    private volatile long lagSeconds = 0;
+    
+    public ReplicaPool(String name, HikariDataSource dataSource, boolean checkLag) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.checkLag = checkLag;
+    }
+    
+    // Marks the replica unhealthy when it is unreachable, replication is stopped or it lags too far behind
+    public void check(long maxLagSeconds) {
+        try (Connection connection = dataSource.getConnection()) {
+            Long lag = readReplicationLag(connection);
+            if (lag == null) {
+                healthy = false;
+                return;
+            }
+            lagSeconds = lag;
+            healthy = lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            if (healthy) {
+                log.warn("Taking replica {} out of rotation: its health check failed", name, e);
+            }
+            healthy = false;
+        }
+    }
+    
+    private Long readReplicationLag(Connection connection) throws SQLException {
+        if (!checkLag) {
+            return connection.isValid(1) ? 0L : null;
+        }
+        // A failure here (e.g. no REPLICATION CLIENT privilege) propagates and marks the replica unhealthy
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                // Not configured as a replica (e.g. a standalone local database): nothing to lag behind
+                return 0L;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : lag;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cricketdb.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "cricketdb.datasource.routing")
+public class RoutingDataSourceProperties {
+    
+    private boolean enabled = false;
+    
+    // Replicas further behind the primary than this are taken out of rotation
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+    
+    // Reads by a user who committed a write within this window go to the primary
+    private Duration stickyWindow = Duration.ofSeconds(10);
+    
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    
+    private int replicaPoolSize = 10;
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        // Off only for databases without replication status (embedded test databases), which
+        // then count as up to date while reachable; otherwise a failed status read is unhealthy
+        private boolean checkLag = true;
+    }
+}
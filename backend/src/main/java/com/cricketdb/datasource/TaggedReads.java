@@ -0,0 +1,53 @@
+package com.cricketdb.datasource;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+// Reads that produce the body for a VersionCounters tag. The tag counts commits this node has
+// seen, so the body must be at least that new: routing sends these reads to the primary rather
+// than a replica that may lag, and coalescing won't hand them a result another caller started
+// loading before the tag moved.
+public final class TaggedReads {
+    
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    
+    private TaggedReads() {
+    }
+    
+    public static <T> T load(String tag, Supplier<T> loader) {
+        String previous = CURRENT.get();
+        CURRENT.set(tag);
+        try {
+            return loader.get();
+        } finally {
+            restore(previous);
+        }
+    }
+    
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+    
+    // Carries the submitting thread's tag, if any, into the tasks
+    public static Executor propagating(Executor executor) {
+        return task -> {
+            String tag = CURRENT.get();
+            if (tag == null) {
+                executor.execute(task);
+                return;
+            }
+            executor.execute(() -> load(tag, () -> {
+                task.run();
+                return null;
+            }));
+        };
+    }
+    
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
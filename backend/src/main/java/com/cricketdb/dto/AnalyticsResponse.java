@@ -2,11 +2,12 @@ package com.cricketdb.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
 import java.time.LocalDate;
 
-@Data
+// Immutable: coalesced reads hand the same instance to every caller
+@Value
 @Builder
 @AllArgsConstructor
 public class AnalyticsResponse {
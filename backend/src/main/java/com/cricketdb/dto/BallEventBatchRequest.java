@@ -0,0 +1,14 @@
+package com.cricketdb.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BallEventBatchRequest {
+    @NotEmpty(message = "At least one ball is required")
+    @Valid
+    private List<BallEventRequest> balls;
+}
@@ -0,0 +1,39 @@
+package com.cricketdb.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BallEventRequest {
+    @NotNull(message = "Batsman ID is required")
+    private Long batsmanId;
+    
+    @NotNull(message = "Bowler ID is required")
+    private Long bowlerId;
+    
+    // Runs off the bat
+    @Min(value = 0, message = "Runs cannot be negative")
+    @Max(value = 7, message = "Runs off one ball cannot exceed 7")
+    private int runs;
+    
+    // Extra runs; charged to the bowler for wides and no-balls, not for byes/leg byes
+    @Min(value = 0, message = "Extras cannot be negative")
+    private int extras;
+    
+    // Wides are neither faced by the batsman nor counted in the over
+    private boolean wide;
+    
+    // No-balls are faced by the batsman but not counted in the over
+    private boolean noBall;
+    
+    private boolean wicket;
+    
+    // Run-outs dismiss the batsman without crediting the bowler
+    private boolean runOut;
+    
+    private boolean four;
+    
+    private boolean six;
+}
@@ -0,0 +1,13 @@
+package com.cricketdb.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchGetRequest {
+    @NotEmpty(message = "At least one id is required")
+    private List<@NotNull(message = "Ids cannot be null") Long> ids;
+}
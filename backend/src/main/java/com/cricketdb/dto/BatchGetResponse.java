@@ -0,0 +1,37 @@
+package com.cricketdb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class BatchGetResponse<T> {
+    // One entry per requested id, in request order
+    private List<Item<T>> results;
+    
+    public static <T> BatchGetResponse<T> inRequestOrder(List<Long> ids, Map<Long, T> found) {
+        List<Item<T>> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T data = found.get(id);
+            results.add(new Item<>(id, data != null ? Status.FOUND : Status.NOT_FOUND, data));
+        }
+        return new BatchGetResponse<>(results);
+    }
+    
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Item<T> {
+        private Long id;
+        private Status status;
+        private T data;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cricketdb.dto;
+
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.Player;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+// Same JSON as the BattingStats entity; immutable, so coalesced reads can share it
+@Value
+@AllArgsConstructor
+public class BattingStatsResponse {
+    private Long id;
+    private PlayerResponse player;
+    private Integer runs;
+    private Integer ballsPlayed;
+    private Integer sixes;
+    private Integer fours;
+    private String against;
+    private LocalDate matchDate;
+    
+    public static BattingStatsResponse from(BattingStats stats) {
+        Player player = stats.getPlayer();
+        return new BattingStatsResponse(stats.getId(),
+                new PlayerResponse(player.getPlayerId(), player.getPlayerName(), player.getCountry(),
+                        player.getStartYear(), player.getGender(), player.getRole(), player.getNotes()),
+                stats.getRuns(), stats.getBallsPlayed(), stats.getSixes(), stats.getFours(),
+                stats.getAgainst(), stats.getMatchDate());
+    }
+}
@@ -0,0 +1,31 @@
+package com.cricketdb.dto;
+
+import com.cricketdb.model.BowlingStats;
+import com.cricketdb.model.Player;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+// Same JSON as the BowlingStats entity; immutable, so coalesced reads can share it
+@Value
+@AllArgsConstructor
+public class BowlingStatsResponse {
+    private Long id;
+    private PlayerResponse player;
+    private Double overs;
+    private Integer maidens;
+    private Integer runsGiven;
+    private Integer wicketsTaken;
+    private String against;
+    private LocalDate matchDate;
+    
+    public static BowlingStatsResponse from(BowlingStats stats) {
+        Player player = stats.getPlayer();
+        return new BowlingStatsResponse(stats.getId(),
+                new PlayerResponse(player.getPlayerId(), player.getPlayerName(), player.getCountry(),
+                        player.getStartYear(), player.getGender(), player.getRole(), player.getNotes()),
+                stats.getOvers(), stats.getMaidens(), stats.getRunsGiven(), stats.getWicketsTaken(),
+                stats.getAgainst(), stats.getMatchDate());
+    }
+}
@@ -0,0 +1,29 @@
+package com.cricketdb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class DistributionResponse {
+    private String metric;
+    // Null for the distribution over all players
+    private Long playerId;
+    
+    // Quantile metrics: innings counted, exact min/max and the requested quantiles
+    private Long count;
+    private Double min;
+    private Double max;
+    private Map<String, Double> quantiles;
+    // Normalized rank error: a reported p50 lies between the true p(50 - 100*rankError) and p(50 + 100*rankError)
+    private Double rankError;
+    
+    // Cardinality metrics
+    private Long distinct;
+    private Double relativeError;
+    
+    // An updated or deleted innings is still counted until the sketches are rebuilt
+    private boolean stale;
+}
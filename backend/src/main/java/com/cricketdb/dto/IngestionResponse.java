@@ -0,0 +1,14 @@
+package com.cricketdb.dto;
+
+import com.cricketdb.ingestion.IngestionState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class IngestionResponse {
+    private String ingestionId;
+    private IngestionState status;
+    private Long statsId;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.cricketdb.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class LiveInningsRequest {
+    @NotBlank(message = "Batting team is required")
+    private String battingTeam;
+    
+    @NotBlank(message = "Bowling team is required")
+    private String bowlingTeam;
+    
+    @NotNull(message = "Match date is required")
+    private LocalDate matchDate;
+}
@@ -0,0 +1,48 @@
+package com.cricketdb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LiveMatchResponse {
+    private String matchId;
+    private List<Innings> innings;
+    
+    @Data
+    @AllArgsConstructor
+    public static class Innings {
+        private String battingTeam;
+        private String bowlingTeam;
+        private LocalDate matchDate;
+        private Integer totalRuns;
+        private Integer wickets;
+        private Double overs;
+        private List<Batter> batting;
+        private List<Bowler> bowling;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Batter {
+        private Long playerId;
+        private Integer runs;
+        private Integer ballsPlayed;
+        private Integer fours;
+        private Integer sixes;
+        private Boolean out;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Bowler {
+        private Long playerId;
+        private Double overs;
+        private Integer maidens;
+        private Integer runsGiven;
+        private Integer wicketsTaken;
+    }
+}
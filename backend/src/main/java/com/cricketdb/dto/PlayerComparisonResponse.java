@@ -0,0 +1,23 @@
+package com.cricketdb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class PlayerComparisonResponse {
+    private LocalDate from;
+    private LocalDate to;
+    
+    // Category axis; every series below has one value per player in this order
+    private List<Long> playerIds;
+    private List<String> playerNames;
+    
+    // Metric name -> series; ratios are null where undefined (no balls, overs or wickets)
+    private Map<String, List<Number>> batting;
+    private Map<String, List<Number>> bowling;
+}
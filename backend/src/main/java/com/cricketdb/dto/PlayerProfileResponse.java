@@ -0,0 +1,19 @@
+package com.cricketdb.dto;
+
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.BowlingStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PlayerProfileResponse {
+    private PlayerResponse player;
+    // Most recent innings first
+    private List<BattingStats> recentBatting;
+    private List<BowlingStats> recentBowling;
+    private long battingInnings;
+    private long bowlingInnings;
+}
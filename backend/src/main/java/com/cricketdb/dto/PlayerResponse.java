@@ -3,9 +3,10 @@ package com.cricketdb.dto;
 import com.cricketdb.model.Gender;
 import com.cricketdb.model.PlayerRole;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
 
-@Data
+// Immutable: coalesced reads hand the same instance to every caller
+@Value
 @AllArgsConstructor
 public class PlayerResponse {
     private Long playerId;
@@ -0,0 +1,30 @@
+package com.cricketdb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RankResponse {
+    private String metric;
+    private Long playerId;
+    private String playerName;
+    private Long value;
+    // Players with the same value share a rank
+    private Long rank;
+    private Integer totalPlayers;
+    // Nearest first in both lists
+    private List<RankedPlayer> above;
+    private List<RankedPlayer> below;
+    
+    @Data
+    @AllArgsConstructor
+    public static class RankedPlayer {
+        private Long playerId;
+        private String playerName;
+        private Long value;
+        private Long rank;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cricketdb.dto;
+
+import com.cricketdb.model.PlayerRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SimilarPlayersResponse {
+    private Long playerId;
+    // "exact" for a full scan, "approximate" when answered from the LSH index
+    private String method;
+    // Closest first
+    private List<SimilarPlayer> similar;
+    
+    @Data
+    @AllArgsConstructor
+    public static class SimilarPlayer {
+        private Long playerId;
+        private String playerName;
+        private PlayerRole role;
+        // Euclidean distance between normalized career vectors
+        private Double distance;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cricketdb.dto;
+
+import com.cricketdb.model.ChangeLogEntry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SyncResponse {
+    private List<ChangeLogEntry> changes;
+    // Pass as `since` on the next call
+    private Long nextSince;
+    private boolean hasMore;
+}
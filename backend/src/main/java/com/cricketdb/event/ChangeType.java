@@ -0,0 +1,7 @@
+package com.cricketdb.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package com.cricketdb.event;
+
+// Published by StatsService for a batting or bowling row; stats is null for deletes
+public record InningsChangedEvent(Long playerId, String discipline, Long statsId, ChangeType type, Object stats) {
+    
+    public static final String BATTING = "batting";
+    public static final String BOWLING = "bowling";
+}
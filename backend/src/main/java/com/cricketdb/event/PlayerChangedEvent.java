@@ -0,0 +1,5 @@
+package com.cricketdb.event;
+
+// Published by PlayerService; listeners should act after commit
+public record PlayerChangedEvent(Long playerId, ChangeType type) {
+}
@@ -0,0 +1,7 @@
+package com.cricketdb.event;
+
+import java.util.Set;
+
+// Players another node changed, published by CacheCoherenceService once their commits are visible
+public record RemoteChangesEvent(Set<Long> playerIds) {
+}
@@ -0,0 +1,183 @@
+package com.cricketdb.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Append-only log of accepted ingestion records and their completion markers, one JSON object per
+// line. Records accepted but never completed are replayed after a restart (at-least-once: a crash
+// between the database commit and the DONE marker replays that record).
+public class IngestionJournal {
+    
+    private static final String ACCEPT = "ACCEPT";
+    private static final String DONE = "DONE";
+    
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    // A lock rather than synchronized so virtual threads writing the journal don't pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    
+    public IngestionJournal(Path file, ObjectMapper objectMapper, boolean fsync) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+    }
+    
+    // Returns records that were accepted but not completed, in acceptance order
+    public List<IngestionRecord> open() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Map<String, IngestionRecord> pending = new LinkedHashMap<>();
+        // Completions are matched by id, which also copes with journals that wrote DONE before ACCEPT
+        Set<String> completed = new HashSet<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Entry entry;
+                    try {
+                        entry = objectMapper.readValue(line, Entry.class);
+                    } catch (IOException e) {
+                        // A torn last line from a crash mid-append
+                        break;
+                    }
+                    if (ACCEPT.equals(entry.getOp())) {
+                        pending.put(entry.getRecord().getId(), entry.getRecord());
+                    } else {
+                        completed.add(entry.getId());
+                    }
+                }
+            }
+        }
+        pending.keySet().removeAll(completed);
+        List<IngestionRecord> records = new ArrayList<>(pending.values());
+        rewrite(records);
+        return records;
+    }
+    
+    public void appendAccepted(IngestionRecord record) {
+        append(new Entry(ACCEPT, null, record));
+    }
+    
+    public void appendCompleted(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String id : ids) {
+            lines.append(toJson(new Entry(DONE, id, null))).append('\n');
+        }
+        write(lines.toString());
+    }
+    
+    public long size() {
+        lock.lock();
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Replaces the journal with just the given pending records
+    public void rewrite(Collection<IngestionRecord> pending) throws IOException {
+        lock.lock();
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (IngestionRecord record : pending) {
+                    out.write(utf8(toJson(new Entry(ACCEPT, null, record)) + "\n"));
+                }
+                out.force(true);
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void append(Entry entry) {
+        write(toJson(entry) + "\n");
+    }
+    
+    private void write(String lines) {
+        ByteBuffer buffer = utf8(lines);
+        lock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write ingestion journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private String toJson(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static ByteBuffer utf8(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String op;
+        private String id;
+        private IngestionRecord record;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cricketdb.ingestion;
+
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BowlingStatsRequest;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionRecord {
+    private String id;
+    private IngestionType type;
+    private BattingStatsRequest batting;
+    private BowlingStatsRequest bowling;
+    
+    @JsonIgnore
+    public Long getPlayerId() {
+        return type == IngestionType.BATTING ? batting.getPlayerId() : bowling.getPlayerId();
+    }
+}
@@ -0,0 +1,365 @@
+package com.cricketdb.ingestion;
+
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BowlingStatsRequest;
+import com.cricketdb.dto.IngestionResponse;
+import com.cricketdb.model.Player;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.service.StatsService;
+import com.cricketdb.shard.Shards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Write-behind ingestion: records are journaled, acknowledged and flushed to MySQL in batches.
+// Each player is pinned to one writer lane, so a player's records are committed in arrival order.
+@Service
+public class IngestionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+    private static final int MAX_BATCH_RETRIES = 3;
+    
+    @Autowired
+    private StatsService statsService;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cricketdb.ingestion.writers:2}")
+    private int writers;
+    
+    @Value("${cricketdb.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${cricketdb.ingestion.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${cricketdb.ingestion.journal-file:./data/ingestion/ingestion.journal}")
+    private String journalFile;
+    
+    @Value("${cricketdb.ingestion.fsync:false}")
+    private boolean fsync;
+    
+    @Value("${cricketdb.ingestion.status-retention:10m}")
+    private Duration statusRetention;
+    
+    @Value("${cricketdb.ingestion.journal-compact-size:16MB}")
+    private DataSize journalCompactSize;
+    
+    private final Map<String, IngestionStatus> statuses = new ConcurrentHashMap<>();
+    private final Map<String, IngestionRecord> pending = new ConcurrentHashMap<>();
+    // Keeps `pending` and the journal in step: held while either changes and while compacting, so a
+    // rewrite never drops an accepted record or writes back one that just completed. A lock rather
+    // than synchronized so virtual threads submitting records don't pin their carrier.
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private IngestionJournal journal;
+    private TransactionTemplate transactionTemplate;
+    private List<Lane> lanes;
+    private Counter committed;
+    private Counter failed;
+    private volatile boolean running = true;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        committed = Counter.builder("cricketdb.ingestion.records").tag("result", "committed").register(meterRegistry);
+        failed = Counter.builder("cricketdb.ingestion.records").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("cricketdb.ingestion.pending", pending, Map::size).register(meterRegistry);
+        
+        journal = new IngestionJournal(Path.of(journalFile), objectMapper, fsync);
+        List<IngestionRecord> recovered = journal.open();
+        
+        // Recovered records were already acknowledged, so each lane gets room for its whole backlog
+        int[] backlog = new int[writers];
+        for (IngestionRecord record : recovered) {
+            backlog[laneIndex(record.getPlayerId())]++;
+        }
+        lanes = new ArrayList<>();
+        int laneCapacity = Math.max(1, queueCapacity / writers);
+        for (int i = 0; i < writers; i++) {
+            lanes.add(new Lane(i, laneCapacity + backlog[i]));
+        }
+        for (IngestionRecord record : recovered) {
+            track(record);
+            if (!laneFor(record.getPlayerId()).queue.offer(record)) {
+                throw new IllegalStateException("No room to replay ingestion record " + record.getId());
+            }
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} ingestion records from {}", recovered.size(), journalFile);
+        }
+        
+        lanes.forEach(lane -> lane.thread.start());
+    }
+    
+    public IngestionResponse submitBatting(BattingStatsRequest request) {
+        return submit(new IngestionRecord(UUID.randomUUID().toString(), IngestionType.BATTING, request, null));
+    }
+    
+    public IngestionResponse submitBowling(BowlingStatsRequest request) {
+        return submit(new IngestionRecord(UUID.randomUUID().toString(), IngestionType.BOWLING, null, request));
+    }
+    
+    public IngestionResponse getStatus(String ingestionId) {
+        IngestionStatus status = statuses.get(ingestionId);
+        if (status == null) {
+            throw new RuntimeException("Ingestion not found with id: " + ingestionId);
+        }
+        return toResponse(status);
+    }
+    
+    // Journaled before it is queued, so its completion can never be written ahead of it
+    private IngestionResponse submit(IngestionRecord record) {
+        IngestionStatus status;
+        journalLock.lock();
+        try {
+            status = track(record);
+            journal.appendAccepted(record);
+        } catch (RuntimeException e) {
+            statuses.remove(record.getId());
+            pending.remove(record.getId());
+            throw e;
+        } finally {
+            journalLock.unlock();
+        }
+        if (!laneFor(record.getPlayerId()).queue.offer(record)) {
+            statuses.remove(record.getId());
+            forget(List.of(record));
+            throw new RejectedExecutionException("Ingestion queue is full");
+        }
+        return toResponse(status);
+    }
+    
+    private IngestionStatus track(IngestionRecord record) {
+        IngestionStatus status = new IngestionStatus(record.getId());
+        statuses.put(record.getId(), status);
+        pending.put(record.getId(), record);
+        return status;
+    }
+    
+    private Lane laneFor(Long playerId) {
+        return lanes.get(laneIndex(playerId));
+    }
+    
+    private int laneIndex(Long playerId) {
+        return Math.floorMod(playerId.hashCode(), writers);
+    }
+    
+    // A transaction writes to one shard, so a lane's batch is split by the shard of each player
+    private void flushByShard(List<IngestionRecord> batch) {
+        if (!shards.isEnabled()) {
+            flush(batch);
+            return;
+        }
+        Map<Integer, List<IngestionRecord>> byShard = batch.stream().collect(Collectors.groupingBy(
+                record -> shards.shardOf(record.getPlayerId()), LinkedHashMap::new, Collectors.toList()));
+        for (List<IngestionRecord> records : byShard.values()) {
+            shards.onShardOf(records.get(0).getPlayerId(), () -> {
+                flush(records);
+                return null;
+            });
+        }
+    }
+    
+    private void flush(List<IngestionRecord> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Map<String, Long> statsIds = transactionTemplate.execute(tx -> writeBatch(batch));
+                complete(batch, statsIds, null);
+                return;
+            } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+                if (attempt >= MAX_BATCH_RETRIES || !running) {
+                    log.warn("Ingestion batch of {} failed after {} attempts", batch.size(), attempt, e);
+                    break;
+                }
+                sleepQuietly(RETRY_BACKOFF_MILLIS * attempt);
+            } catch (RuntimeException e) {
+                break;
+            }
+        }
+        
+        // Isolate the records that can't be written so the rest of the batch still commits
+        for (IngestionRecord record : batch) {
+            try {
+                Map<String, Long> statsIds = transactionTemplate.execute(tx -> writeBatch(List.of(record)));
+                complete(List.of(record), statsIds, null);
+            } catch (RuntimeException e) {
+                complete(List.of(record), Map.of(), e.getMessage());
+            }
+        }
+    }
+    
+    // Returns stats ids by ingestion id; records for unknown players are left out
+    private Map<String, Long> writeBatch(List<IngestionRecord> batch) {
+        Set<Long> playerIds = batch.stream().map(IngestionRecord::getPlayerId).collect(Collectors.toSet());
+        // Loads every player once; the per-record lookups in StatsService hit the persistence context
+        Set<Long> knownPlayers = playerRepository.findAllById(playerIds).stream()
+                .map(Player::getPlayerId)
+                .collect(Collectors.toSet());
+        
+        Map<String, Long> statsIds = new HashMap<>();
+        for (IngestionRecord record : batch) {
+            if (!knownPlayers.contains(record.getPlayerId())) {
+                continue;
+            }
+            Long statsId = record.getType() == IngestionType.BATTING
+                    ? statsService.addBattingStats(record.getBatting()).getId()
+                    : statsService.addBowlingStats(record.getBowling()).getId();
+            statsIds.put(record.getId(), statsId);
+        }
+        return statsIds;
+    }
+    
+    private void complete(List<IngestionRecord> records, Map<String, Long> statsIds, String error) {
+        long now = System.currentTimeMillis();
+        for (IngestionRecord record : records) {
+            IngestionStatus status = statuses.get(record.getId());
+            Long statsId = statsIds.get(record.getId());
+            if (status != null) {
+                if (statsId != null) {
+                    status.setStatsId(statsId);
+                    status.setState(IngestionState.COMMITTED);
+                } else {
+                    status.setError(error != null ? error : "Player not found with id: " + record.getPlayerId());
+                    status.setState(IngestionState.FAILED);
+                }
+                status.setCompletedAtMillis(now);
+            }
+            if (statsId != null) {
+                committed.increment();
+            } else {
+                failed.increment();
+            }
+        }
+        forget(records);
+    }
+    
+    private void forget(List<IngestionRecord> records) {
+        journalLock.lock();
+        try {
+            records.forEach(record -> pending.remove(record.getId()));
+            journal.appendCompleted(records.stream().map(IngestionRecord::getId).toList());
+        } finally {
+            journalLock.unlock();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.ingestion.maintenance-interval:60000}")
+    public void maintain() throws IOException {
+        long cutoff = System.currentTimeMillis() - statusRetention.toMillis();
+        statuses.values().removeIf(status -> status.getState() != IngestionState.QUEUED
+                && status.getCompletedAtMillis() < cutoff);
+        
+        if (journal.size() > journalCompactSize.toBytes()) {
+            journalLock.lock();
+            try {
+                journal.rewrite(List.copyOf(pending.values()));
+            } finally {
+                journalLock.unlock();
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        journal.close();
+    }
+    
+    private IngestionResponse toResponse(IngestionStatus status) {
+        return new IngestionResponse(status.getIngestionId(), status.getState(), status.getStatsId(), status.getError());
+    }
+    
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private class Lane implements Runnable {
+        private final BlockingQueue<IngestionRecord> queue;
+        private final Thread thread;
+        
+        Lane(int index, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "ingestion-writer-" + index);
+            Gauge.builder("cricketdb.ingestion.queue.depth", queue, BlockingQueue::size)
+                    .tag("lane", String.valueOf(index))
+                    .register(meterRegistry);
+        }
+        
+        @Override
+        public void run() {
+            List<IngestionRecord> batch = new ArrayList<>(batchSize);
+            // On shutdown the lane keeps flushing until its queue is empty
+            while (running || !queue.isEmpty()) {
+                try {
+                    IngestionRecord first = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    flushByShard(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Ingestion writer failed; records stay in the journal for replay", e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
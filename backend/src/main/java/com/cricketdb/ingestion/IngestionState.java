@@ -0,0 +1,7 @@
+package com.cricketdb.ingestion;
+
+public enum IngestionState {
+    QUEUED,
+    COMMITTED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package com.cricketdb.ingestion;
+
+import lombok.Data;
+
+@Data
+public class IngestionStatus {
+    private final String ingestionId;
+    private volatile IngestionState state = IngestionState.QUEUED;
+    private volatile Long statsId;
+    private volatile String error;
+    private volatile long completedAtMillis;
+}
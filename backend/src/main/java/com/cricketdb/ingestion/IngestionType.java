@@ -0,0 +1,6 @@
+package com.cricketdb.ingestion;
+
+public enum IngestionType {
+    BATTING,
+    BOWLING
+}
@@ -0,0 +1,170 @@
+package com.cricketdb.live;
+
+import com.cricketdb.dto.BallEventRequest;
+import com.cricketdb.dto.LiveMatchResponse;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-memory aggregates for one innings. Balls only touch these counters; the database rows are
+// derived from them at checkpoints.
+public class LiveInnings {
+    
+    @Getter
+    private final String battingTeam;
+    @Getter
+    private final String bowlingTeam;
+    @Getter
+    private final LocalDate matchDate;
+    private final Map<Long, Batter> batters = new LinkedHashMap<>();
+    private final Map<Long, Bowler> bowlers = new LinkedHashMap<>();
+    private final Set<Long> dirtyBatters = new HashSet<>();
+    private final Set<Long> dirtyBowlers = new HashSet<>();
+    // Set while a checkpoint for this innings is queued, so bursts of balls queue at most one
+    final AtomicBoolean checkpointQueued = new AtomicBoolean();
+    private int totalRuns;
+    private int wickets;
+    private int legalBalls;
+    private int ballsSinceCheckpoint;
+    
+    public LiveInnings(String battingTeam, String bowlingTeam, LocalDate matchDate) {
+        this.battingTeam = battingTeam;
+        this.bowlingTeam = bowlingTeam;
+        this.matchDate = matchDate;
+    }
+    
+    // Returns the number of balls recorded since the last checkpoint
+    public synchronized int record(BallEventRequest ball) {
+        boolean legal = !ball.isWide() && !ball.isNoBall();
+        int bowlerRuns = ball.getRuns() + (ball.isWide() || ball.isNoBall() ? ball.getExtras() : 0);
+        totalRuns += ball.getRuns() + ball.getExtras();
+        
+        if (!ball.isWide() || ball.isWicket()) {
+            Batter batter = batters.computeIfAbsent(ball.getBatsmanId(), id -> new Batter());
+            if (!ball.isWide()) {
+                batter.balls++;
+                batter.runs += ball.getRuns();
+                if (ball.isFour()) {
+                    batter.fours++;
+                }
+                if (ball.isSix()) {
+                    batter.sixes++;
+                }
+            }
+            if (ball.isWicket()) {
+                batter.out = true;
+            }
+            dirtyBatters.add(ball.getBatsmanId());
+        }
+        
+        Bowler bowler = bowlers.computeIfAbsent(ball.getBowlerId(), id -> new Bowler());
+        bowler.runsGiven += bowlerRuns;
+        bowler.overRuns += bowlerRuns;
+        if (ball.isWicket()) {
+            wickets++;
+            if (!ball.isRunOut()) {
+                bowler.wickets++;
+            }
+        }
+        if (legal) {
+            legalBalls++;
+            bowler.legalBalls++;
+            if (bowler.legalBalls % 6 == 0) {
+                if (bowler.overRuns == 0) {
+                    bowler.maidens++;
+                }
+                bowler.overRuns = 0;
+            }
+        }
+        dirtyBowlers.add(ball.getBowlerId());
+        
+        return ++ballsSinceCheckpoint;
+    }
+    
+    public synchronized boolean isDirty() {
+        return !dirtyBatters.isEmpty() || !dirtyBowlers.isEmpty();
+    }
+    
+    // Takes a consistent copy of everything that changed since the last checkpoint
+    public synchronized Checkpoint drainDirty() {
+        List<BatterSnapshot> batting = new ArrayList<>();
+        for (Long playerId : dirtyBatters) {
+            Batter b = batters.get(playerId);
+            batting.add(new BatterSnapshot(playerId, b.statsId, b.runs, b.balls, b.fours, b.sixes));
+        }
+        List<BowlerSnapshot> bowling = new ArrayList<>();
+        for (Long playerId : dirtyBowlers) {
+            Bowler b = bowlers.get(playerId);
+            bowling.add(new BowlerSnapshot(playerId, b.statsId, overs(b.legalBalls), b.maidens, b.runsGiven, b.wickets));
+        }
+        dirtyBatters.clear();
+        dirtyBowlers.clear();
+        ballsSinceCheckpoint = 0;
+        return new Checkpoint(batting, bowling);
+    }
+    
+    public synchronized void checkpointed(Map<Long, Long> battingStatsIds, Map<Long, Long> bowlingStatsIds) {
+        battingStatsIds.forEach((playerId, statsId) -> batters.get(playerId).statsId = statsId);
+        bowlingStatsIds.forEach((playerId, statsId) -> bowlers.get(playerId).statsId = statsId);
+    }
+    
+    // A failed checkpoint is retried with the next one, minus players that no longer exist
+    public synchronized void checkpointFailed(Checkpoint checkpoint, Set<Long> deletedPlayerIds) {
+        checkpoint.batting().stream()
+                .filter(b -> !deletedPlayerIds.contains(b.playerId()))
+                .forEach(b -> dirtyBatters.add(b.playerId()));
+        checkpoint.bowling().stream()
+                .filter(b -> !deletedPlayerIds.contains(b.playerId()))
+                .forEach(b -> dirtyBowlers.add(b.playerId()));
+    }
+    
+    public synchronized LiveMatchResponse.Innings toResponse() {
+        List<LiveMatchResponse.Batter> batting = new ArrayList<>();
+        batters.forEach((playerId, b) -> batting.add(
+                new LiveMatchResponse.Batter(playerId, b.runs, b.balls, b.fours, b.sixes, b.out)));
+        List<LiveMatchResponse.Bowler> bowling = new ArrayList<>();
+        bowlers.forEach((playerId, b) -> bowling.add(
+                new LiveMatchResponse.Bowler(playerId, overs(b.legalBalls), b.maidens, b.runsGiven, b.wickets)));
+        return new LiveMatchResponse.Innings(battingTeam, bowlingTeam, matchDate, totalRuns, wickets,
+                overs(legalBalls), batting, bowling);
+    }
+    
+    // Cricket notation: 9.5 means nine overs and five balls
+    static double overs(int legalBalls) {
+        return legalBalls / 6 + (legalBalls % 6) / 10.0;
+    }
+    
+    private static class Batter {
+        private int runs;
+        private int balls;
+        private int fours;
+        private int sixes;
+        private boolean out;
+        private Long statsId;
+    }
+    
+    private static class Bowler {
+        private int legalBalls;
+        private int runsGiven;
+        private int wickets;
+        private int maidens;
+        private int overRuns;
+        private Long statsId;
+    }
+    
+    public record BatterSnapshot(Long playerId, Long statsId, int runs, int balls, int fours, int sixes) {
+    }
+    
+    public record BowlerSnapshot(Long playerId, Long statsId, double overs, int maidens, int runsGiven, int wickets) {
+    }
+    
+    public record Checkpoint(List<BatterSnapshot> batting, List<BowlerSnapshot> bowling) {
+    }
+}
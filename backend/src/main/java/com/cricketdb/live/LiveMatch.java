@@ -0,0 +1,36 @@
+package com.cricketdb.live;
+
+import com.cricketdb.dto.LiveMatchResponse;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class LiveMatch {
+    
+    @Getter
+    private final String matchId;
+    @Getter
+    private final List<LiveInnings> innings = new CopyOnWriteArrayList<>();
+    private volatile LiveInnings currentInnings;
+    
+    public LiveMatch(String matchId) {
+        this.matchId = matchId;
+    }
+    
+    // Returns the innings that was in progress, if any
+    public synchronized LiveInnings startInnings(LiveInnings next) {
+        LiveInnings previous = currentInnings;
+        innings.add(next);
+        currentInnings = next;
+        return previous;
+    }
+    
+    public LiveInnings getCurrentInnings() {
+        return currentInnings;
+    }
+    
+    public LiveMatchResponse toResponse() {
+        return new LiveMatchResponse(matchId, innings.stream().map(LiveInnings::toResponse).toList());
+    }
+}
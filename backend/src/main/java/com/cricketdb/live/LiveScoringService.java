@@ -0,0 +1,305 @@
+package com.cricketdb.live;
+
+import com.cricketdb.dto.BallEventRequest;
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BowlingStatsRequest;
+import com.cricketdb.dto.LiveInningsRequest;
+import com.cricketdb.dto.LiveMatchResponse;
+import com.cricketdb.repository.BattingStatsRepository;
+import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.service.StatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Ball-by-ball scoring. Balls update in-memory innings aggregates; the BattingStats/BowlingStats
+// rows are derived from those aggregates and upserted at checkpoints, not on every ball.
+@Service
+public class LiveScoringService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LiveScoringService.class);
+    
+    @Autowired
+    private StatsService statsService;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private BattingStatsRepository battingStatsRepository;
+    
+    @Autowired
+    private BowlingStatsRepository bowlingStatsRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cricketdb.live.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.live.checkpoint-balls:30}")
+    private int checkpointBalls;
+    
+    private final Map<String, LiveMatch> matches = new ConcurrentHashMap<>();
+    // Players already checked this run, so balls don't need a lookup each
+    private final Set<Long> knownPlayers = ConcurrentHashMap.newKeySet();
+    // One writer keeps checkpoints of the same innings in order
+    private final ExecutorService checkpointExecutor =
+            Executors.newSingleThreadExecutor(r -> new Thread(r, "live-checkpoint"));
+    private TransactionTemplate transactionTemplate;
+    private Counter balls;
+    private Counter checkpointFailures;
+    private Timer checkpointTimer;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        balls = Counter.builder("cricketdb.live.balls").register(meterRegistry);
+        checkpointFailures = Counter.builder("cricketdb.live.checkpoint.failures").register(meterRegistry);
+        checkpointTimer = Timer.builder("cricketdb.live.checkpoint").register(meterRegistry);
+        Gauge.builder("cricketdb.live.matches", matches, Map::size).register(meterRegistry);
+    }
+    
+    public LiveMatchResponse startInnings(String matchId, LiveInningsRequest request) {
+        if (!enabled) {
+            throw new RuntimeException("Live scoring is disabled");
+        }
+        LiveMatch match = matches.computeIfAbsent(matchId, LiveMatch::new);
+        LiveInnings previous = match.startInnings(
+                new LiveInnings(request.getBattingTeam(), request.getBowlingTeam(), request.getMatchDate()));
+        if (previous != null) {
+            queueCheckpoint(previous);
+        }
+        return match.toResponse();
+    }
+    
+    public LiveMatchResponse recordBalls(String matchId, List<BallEventRequest> events) {
+        LiveMatch match = getMatch(matchId);
+        LiveInnings innings = match.getCurrentInnings();
+        for (BallEventRequest event : events) {
+            ensurePlayerExists(event.getBatsmanId());
+            ensurePlayerExists(event.getBowlerId());
+        }
+        
+        int sinceCheckpoint = 0;
+        for (BallEventRequest event : events) {
+            sinceCheckpoint = innings.record(event);
+        }
+        balls.increment(events.size());
+        if (sinceCheckpoint >= checkpointBalls) {
+            queueCheckpoint(innings);
+        }
+        return match.toResponse();
+    }
+    
+    public LiveMatchResponse getLiveMatch(String matchId) {
+        return getMatch(matchId).toResponse();
+    }
+    
+    // Writes the current aggregates of every innings and waits for the result
+    public LiveMatchResponse checkpoint(String matchId) {
+        LiveMatch match = getMatch(matchId);
+        checkpointNow(match);
+        return match.toResponse();
+    }
+    
+    public LiveMatchResponse endMatch(String matchId) {
+        LiveMatch match = getMatch(matchId);
+        checkpointNow(match);
+        matches.remove(matchId);
+        return match.toResponse();
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.live.checkpoint-interval:15000}")
+    public void checkpointDirtyInnings() {
+        for (LiveMatch match : matches.values()) {
+            for (LiveInnings innings : match.getInnings()) {
+                if (innings.isDirty()) {
+                    queueCheckpoint(innings);
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (LiveMatch match : matches.values()) {
+            match.getInnings().forEach(this::queueCheckpoint);
+        }
+        checkpointExecutor.shutdown();
+        checkpointExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+    
+    private LiveMatch getMatch(String matchId) {
+        LiveMatch match = matches.get(matchId);
+        if (match == null || match.getCurrentInnings() == null) {
+            throw new RuntimeException("Live match not found with id: " + matchId);
+        }
+        return match;
+    }
+    
+    private void ensurePlayerExists(Long playerId) {
+        if (knownPlayers.contains(playerId)) {
+            return;
+        }
+        if (!playerRepository.existsById(playerId)) {
+            throw new RuntimeException("Player not found with id: " + playerId);
+        }
+        knownPlayers.add(playerId);
+    }
+    
+    private void queueCheckpoint(LiveInnings innings) {
+        if (innings.checkpointQueued.compareAndSet(false, true)) {
+            checkpointExecutor.execute(() -> {
+                innings.checkpointQueued.set(false);
+                writeCheckpoint(innings);
+            });
+        }
+    }
+    
+    private void checkpointNow(LiveMatch match) {
+        Future<Boolean> result = checkpointExecutor.submit(() -> {
+            boolean ok = true;
+            for (LiveInnings innings : match.getInnings()) {
+                ok &= writeCheckpoint(innings);
+            }
+            return ok;
+        });
+        try {
+            if (!result.get()) {
+                throw new RuntimeException("Checkpoint failed for live match: " + match.getMatchId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checkpointing live match: " + match.getMatchId());
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Checkpoint failed for live match: " + match.getMatchId());
+        }
+    }
+    
+    // Runs on the checkpoint thread only
+    private boolean writeCheckpoint(LiveInnings innings) {
+        LiveInnings.Checkpoint checkpoint = innings.drainDirty();
+        if (checkpoint.batting().isEmpty() && checkpoint.bowling().isEmpty()) {
+            return true;
+        }
+        
+        Map<Long, Long> battingIds = new HashMap<>();
+        Map<Long, Long> bowlingIds = new HashMap<>();
+        Set<Long> gone = new HashSet<>();
+        try {
+            checkpointTimer.record(() -> transactionTemplate.executeWithoutResult(tx -> {
+                // Players deleted since they were checked are skipped, so they can't fail the innings
+                gone.addAll(missingPlayers(checkpoint));
+                // Rows deleted since the last checkpoint are inserted again rather than failing every retry
+                Set<Long> battingRows = existingRows(battingStatsRepository::findExistingIds,
+                        checkpoint.batting().stream().map(LiveInnings.BatterSnapshot::statsId).toList());
+                Set<Long> bowlingRows = existingRows(bowlingStatsRepository::findExistingIds,
+                        checkpoint.bowling().stream().map(LiveInnings.BowlerSnapshot::statsId).toList());
+                for (LiveInnings.BatterSnapshot b : checkpoint.batting()) {
+                    if (gone.contains(b.playerId())) {
+                        continue;
+                    }
+                    BattingStatsRequest request = new BattingStatsRequest();
+                    request.setPlayerId(b.playerId());
+                    request.setRuns(b.runs());
+                    request.setBallsPlayed(b.balls());
+                    request.setFours(b.fours());
+                    request.setSixes(b.sixes());
+                    request.setAgainst(innings.getBowlingTeam());
+                    request.setMatchDate(innings.getMatchDate());
+                    Long statsId = b.statsId() == null || !battingRows.contains(b.statsId())
+                            ? statsService.addBattingStats(request).getId()
+                            : statsService.updateBattingStats(b.statsId(), request).getId();
+                    battingIds.put(b.playerId(), statsId);
+                }
+                for (LiveInnings.BowlerSnapshot b : checkpoint.bowling()) {
+                    if (gone.contains(b.playerId())) {
+                        continue;
+                    }
+                    BowlingStatsRequest request = new BowlingStatsRequest();
+                    request.setPlayerId(b.playerId());
+                    request.setOvers(b.overs());
+                    request.setMaidens(b.maidens());
+                    request.setRunsGiven(b.runsGiven());
+                    request.setWicketsTaken(b.wickets());
+                    request.setAgainst(innings.getBattingTeam());
+                    request.setMatchDate(innings.getMatchDate());
+                    Long statsId = b.statsId() == null || !bowlingRows.contains(b.statsId())
+                            ? statsService.addBowlingStats(request).getId()
+                            : statsService.updateBowlingStats(b.statsId(), request).getId();
+                    bowlingIds.put(b.playerId(), statsId);
+                }
+            }));
+            innings.checkpointed(battingIds, bowlingIds);
+            forgetPlayers(gone);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Live checkpoint failed for {} v {}; retrying with the next checkpoint",
+                    innings.getBattingTeam(), innings.getBowlingTeam(), e);
+            checkpointFailures.increment();
+            // A player deleted mid-checkpoint is dropped rather than failing every retry with it
+            Set<Long> deleted;
+            try {
+                deleted = transactionTemplate.execute(tx -> missingPlayers(checkpoint));
+            } catch (RuntimeException lookupFailure) {
+                deleted = Set.of();
+            }
+            innings.checkpointFailed(checkpoint, deleted);
+            forgetPlayers(deleted);
+            return false;
+        }
+    }
+    
+    private Set<Long> missingPlayers(LiveInnings.Checkpoint checkpoint) {
+        Set<Long> missing = new HashSet<>();
+        checkpoint.batting().forEach(b -> missing.add(b.playerId()));
+        checkpoint.bowling().forEach(b -> missing.add(b.playerId()));
+        playerRepository.findIdsAndNamesByIds(new ArrayList<>(missing)).forEach(row -> missing.remove((Long) row[0]));
+        return missing;
+    }
+    
+    private static Set<Long> existingRows(Function<Collection<Long>, List<Long>> finder, List<Long> statsIds) {
+        List<Long> checkpointed = statsIds.stream().filter(Objects::nonNull).toList();
+        return checkpointed.isEmpty() ? Set.of() : new HashSet<>(finder.apply(checkpointed));
+    }
+    
+    // Further balls for them are rejected, as for any unknown player
+    private void forgetPlayers(Set<Long> playerIds) {
+        if (!playerIds.isEmpty()) {
+            log.warn("Dropping deleted players {} from live checkpoints", playerIds);
+            knownPlayers.removeAll(playerIds);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.cricketdb.migration;
+
+import com.cricketdb.archive.StatsPartitions;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+// Partitions batting_stats and bowling_stats by year of match_date, through next year.
+// MySQL wants the partitioning column in every unique key and has no foreign keys on
+// partitioned tables, so the primary key becomes (id, match_date), the player foreign keys
+// Hibernate generated are dropped, and (player_id, match_date) takes over the player lookups.
+// Java rather than SQL because the foreign key names and the first year depend on the data.
+public class V2__PartitionStatsByYear extends BaseJavaMigration {
+    
+    // Older dates share the first partition instead of adding hundreds of empty ones
+    private static final int MAX_HISTORY_YEARS = 200;
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        int currentYear = Year.now().getValue();
+        for (String table : StatsPartitions.TABLES) {
+            if (StatsPartitions.isPartitioned(connection, table)) {
+                continue;
+            }
+            for (String foreignKey : foreignKeys(connection, table)) {
+                execute(connection, "ALTER TABLE " + table + " DROP FOREIGN KEY " + foreignKey);
+            }
+            execute(connection, "ALTER TABLE " + table + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, match_date), "
+                    + "ADD INDEX idx_" + table + "_player_date (player_id, match_date)");
+            int firstYear = Math.max(firstYear(connection, table, currentYear), currentYear - MAX_HISTORY_YEARS);
+            StatsPartitions.partition(connection, table, firstYear, currentYear + 1);
+        }
+    }
+    
+    private static List<String> foreignKeys(Connection connection, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'")) {
+            statement.setString(1, table);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+    
+    private static int firstYear(Connection connection, String table, int currentYear) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT YEAR(MIN(match_date)) FROM " + table)) {
+            rows.next();
+            int year = rows.getInt(1);
+            return rows.wasNull() ? currentYear : year;
+        }
+    }
+    
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cricketdb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Serialized DistributionSketches for one scope: "global" or "player:{id}"
+@Entity
+@Table(name = "analytics_sketch")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSketch {
+    
+    @Id
+    @Column(length = 32)
+    private String scope;
+    
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+    
+    // Last change_log seq the sketches include
+    @Column(nullable = false)
+    private Long throughSeq;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,10 +1,13 @@
 package com.cricketdb.model;
 
+import com.cricketdb.shard.ShardedIdGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.time.LocalDate;
 
@@ -16,11 +19,14 @@ import java.time.LocalDate;
 public class BowlingStats {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "bowling-ids")
+    @GenericGenerator(name = "bowling-ids", type = ShardedIdGenerator.class,
+            parameters = @Parameter(name = "sequence", value = "bowling_stats"))
     private Long id;
     
+    // No database foreign key: MySQL doesn't allow them on partitioned tables
     @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "player_id", nullable = false)
+    @JoinColumn(name = "player_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "battingStats", "bowlingStats"})
     private Player player;
     
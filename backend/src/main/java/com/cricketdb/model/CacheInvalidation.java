@@ -0,0 +1,28 @@
+package com.cricketdb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The version of a cache region ("player:{id}"), bumped in every transaction that changes it
+@Entity
+@Table(name = "cache_invalidation", indexes = @Index(name = "idx_cache_invalidation_updated_at", columnList = "updatedAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+    
+    @Id
+    @Column(length = 64)
+    private String region;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    // Database time, so nodes with skewed clocks still agree on the poll window
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.cricketdb.model;
+
+public enum ChangeEntityType {
+    PLAYER,
+    BATTING,
+    BOWLING
+}
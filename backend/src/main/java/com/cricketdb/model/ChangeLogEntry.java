@@ -0,0 +1,45 @@
+package com.cricketdb.model;
+
+import com.cricketdb.event.ChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_entity", columnList = "entityType, entityId, seq")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeEntityType entityType;
+    
+    @Column(nullable = false)
+    private Long entityId;
+    
+    // Owning player for innings rows, so clients can tell which player's cache to touch
+    @Column(nullable = false)
+    private Long playerId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType op;
+    
+    // Number of changes recorded for this entity, including this one
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -1,9 +1,12 @@
 package com.cricketdb.model;
 
+import com.cricketdb.shard.ShardedIdGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,7 +19,9 @@ import java.util.List;
 public class Player {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "player-ids")
+    @GenericGenerator(name = "player-ids", type = ShardedIdGenerator.class,
+            parameters = @Parameter(name = "sequence", value = "players"))
     private Long playerId;
     
     @Column(nullable = false)
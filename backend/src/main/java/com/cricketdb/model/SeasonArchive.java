@@ -0,0 +1,34 @@
+package com.cricketdb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A season (calendar year of match_date) compacted into the season summary tables.
+// Archived seasons are contiguous from the oldest and no longer accept innings writes.
+@Entity
+@Table(name = "season_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeasonArchive {
+    
+    @Id
+    private Integer season;
+    
+    @Column(nullable = false)
+    private Long battingInnings;
+    
+    @Column(nullable = false)
+    private Long bowlingInnings;
+    
+    // Raw innings were moved to the *_stats_archive tables
+    @Column(nullable = false)
+    private Boolean rawMoved;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,59 @@
+package com.cricketdb.rank;
+
+// Binary indexed tree of counts over non-negative integer values. Grows by doubling when a
+// value beyond the current range arrives, which is rare for career totals.
+// Not thread-safe.
+public class FenwickTree {
+    
+    private long[] tree;
+    
+    public FenwickTree(int capacity) {
+        tree = new long[Math.max(capacity, 16) + 1];
+    }
+    
+    public void add(long value, long delta) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        ensureRange(value);
+        for (int i = (int) value + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+    
+    // Number of entries with a value <= value
+    public long countAtMost(long value) {
+        if (value < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = (int) Math.min(value + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+    
+    private void ensureRange(long value) {
+        if (value + 1 < tree.length) {
+            return;
+        }
+        if (value >= Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        int size = tree.length - 1;
+        while (size <= value) {
+            size *= 2;
+        }
+        // New nodes above the old range cover old values too, so re-add the counts
+        long[] counts = new long[tree.length];
+        for (int i = 1; i < tree.length; i++) {
+            counts[i] = countAtMost(i - 1) - countAtMost(i - 2);
+        }
+        tree = new long[size + 1];
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                add(i - 1, counts[i]);
+            }
+        }
+    }
+}
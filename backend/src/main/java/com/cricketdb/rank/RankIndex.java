@@ -0,0 +1,83 @@
+package com.cricketdb.rank;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// One leaderboard: a Fenwick tree of how many players hold each value gives a player's rank
+// in O(log n), and an ordered set of (value desc, playerId) gives the players around them.
+// Ties share a rank ("1224" ranking). Not thread-safe; RankService guards it.
+public class RankIndex {
+    
+    private static final Comparator<Position> ORDER = Comparator.comparingLong(Position::value).reversed()
+            .thenComparingLong(Position::playerId);
+    
+    private final FenwickTree counts = new FenwickTree(1024);
+    private final Map<Long, Long> values = new HashMap<>();
+    private final TreeSet<Position> ordered = new TreeSet<>(ORDER);
+    
+    // Negative totals can only come from bad rows; they rank as zero
+    public void set(long playerId, long value) {
+        value = Math.max(0, value);
+        Long previous = values.put(playerId, value);
+        if (previous != null) {
+            if (previous == value) {
+                return;
+            }
+            counts.add(previous, -1);
+            ordered.remove(new Position(previous, playerId));
+        }
+        counts.add(value, 1);
+        ordered.add(new Position(value, playerId));
+    }
+    
+    public void add(long playerId, long delta) {
+        set(playerId, values.getOrDefault(playerId, 0L) + delta);
+    }
+    
+    public void remove(long playerId) {
+        Long previous = values.remove(playerId);
+        if (previous != null) {
+            counts.add(previous, -1);
+            ordered.remove(new Position(previous, playerId));
+        }
+    }
+    
+    public Long value(long playerId) {
+        return values.get(playerId);
+    }
+    
+    public int size() {
+        return values.size();
+    }
+    
+    // 1 + the number of players with a strictly higher value
+    public long rankOf(long value) {
+        return values.size() - counts.countAtMost(value) + 1;
+    }
+    
+    // Up to `count` players ranked directly above the player, nearest first
+    public List<Position> above(long playerId, int count) {
+        return take(ordered.headSet(new Position(values.get(playerId), playerId), false).descendingIterator(), count);
+    }
+    
+    // Up to `count` players ranked directly below the player, nearest first
+    public List<Position> below(long playerId, int count) {
+        return take(ordered.tailSet(new Position(values.get(playerId), playerId), false).iterator(), count);
+    }
+    
+    private static List<Position> take(Iterator<Position> iterator, int count) {
+        List<Position> positions = new ArrayList<>(count);
+        while (positions.size() < count && iterator.hasNext()) {
+            positions.add(iterator.next());
+        }
+        return positions;
+    }
+    
+    public record Position(long value, long playerId) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.cricketdb.rank;
+
+// Career totals a player can be ranked on
+public enum RankMetric {
+    RUNS("runs"),
+    FOURS("fours"),
+    SIXES("sixes"),
+    WICKETS("wickets");
+    
+    private final String path;
+    
+    RankMetric(String path) {
+        this.path = path;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public static RankMetric fromPath(String path) {
+        for (RankMetric metric : values()) {
+            if (metric.path.equals(path)) {
+                return metric;
+            }
+        }
+        throw new RuntimeException("Unknown rank metric: " + path);
+    }
+}
@@ -0,0 +1,396 @@
+package com.cricketdb.rank;
+
+import com.cricketdb.archive.SeasonArchiveService;
+import com.cricketdb.archive.SeasonBoundary;
+import com.cricketdb.dto.RankResponse;
+import com.cricketdb.event.ChangeType;
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.event.RemoteChangesEvent;
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.BowlingStats;
+import com.cricketdb.repository.BattingStatsRepository;
+import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.snapshot.SnapshotReader;
+import com.cricketdb.snapshot.SnapshotWriter;
+import com.cricketdb.snapshot.WarmStartState;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Career-total leaderboards held in memory, one RankIndex per metric, so rank lookups never
+// query the database. A new innings is added to its player's totals straight from the event.
+// Edits, deletes and player changes can't be applied as a delta (the event has no old values),
+// so those players are re-read with one grouped query per discipline on the next refresh.
+// While a player is queued or being re-read, their deltas are dropped and the player is queued
+// again instead, so a delta is never counted on top of totals that already include it. A new innings
+// is tracked by stats id from its publication until its transaction completes: a read that overlaps
+// that window may or may not include it, so its player stays queued and the delta is dropped.
+@Service
+public class RankService implements WarmStartState {
+    
+    private static final Logger log = LoggerFactory.getLogger(RankService.class);
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private BattingStatsRepository battingStatsRepository;
+    
+    @Autowired
+    private BowlingStatsRepository bowlingStatsRepository;
+    
+    @Autowired
+    private SeasonArchiveService seasonArchiveService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${cricketdb.rank.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.rank.max-window:25}")
+    private int maxWindow;
+    
+    private final Object loadLock = new Object();
+    private final Map<RankMetric, RankIndex> indexes = new EnumMap<>(RankMetric.class);
+    private final Map<Long, String> names = new HashMap<>();
+    private final Set<Long> dirty = new HashSet<>();
+    private final Set<Long> inFlight = new HashSet<>();
+    // Player id -> stats ids of innings created by transactions that haven't completed
+    private final Map<Long, Set<Long>> uncommittedCreates = new HashMap<>();
+    private volatile boolean loaded;
+    private boolean loading;
+    private TransactionTemplate primaryReads;
+    
+    @PostConstruct
+    public void init() {
+        // Not read-only, so re-reads go to the primary and see the commit that queued them
+        primaryReads = new TransactionTemplate(transactionManager);
+        for (RankMetric metric : RankMetric.values()) {
+            indexes.put(metric, new RankIndex());
+        }
+    }
+    
+    public RankResponse getRank(String metricPath, Long playerId, int window) {
+        if (!enabled) {
+            throw new RuntimeException("Leaderboard ranks are disabled");
+        }
+        RankMetric metric = RankMetric.fromPath(metricPath);
+        if (window < 0 || window > maxWindow) {
+            throw new RuntimeException("window must be between 0 and " + maxWindow);
+        }
+        ensureLoaded();
+        synchronized (this) {
+            RankIndex index = indexes.get(metric);
+            Long value = index.value(playerId);
+            if (value == null) {
+                throw new RuntimeException("Player not found with id: " + playerId);
+            }
+            return new RankResponse(metric.getPath(), playerId, names.get(playerId), value, index.rankOf(value),
+                    index.size(), ranked(index, index.above(playerId, window)), ranked(index, index.below(playerId, window)));
+        }
+    }
+    
+    // Runs inside the writing transaction, before its delta listener can
+    @EventListener
+    public void onInningsPublished(InningsChangedEvent event) {
+        // Tracked before the first load too, which may read an innings whose delta arrives after it
+        if (!enabled || event.type() != ChangeType.CREATED || event.statsId() == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        synchronized (this) {
+            uncommittedCreates.computeIfAbsent(event.playerId(), id -> new HashSet<>()).add(event.statsId());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new PendingCreate(event.playerId(), event.statsId()));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onInningsChanged(InningsChangedEvent event) {
+        if (!loaded && !loading) {
+            return;
+        }
+        Long playerId = event.playerId();
+        if (event.type() != ChangeType.CREATED || loading || !names.containsKey(playerId)
+                || dirty.contains(playerId) || inFlight.contains(playerId)) {
+            dirty.add(playerId);
+            return;
+        }
+        if (event.stats() instanceof BattingStats batting) {
+            indexes.get(RankMetric.RUNS).add(playerId, number(batting.getRuns()));
+            indexes.get(RankMetric.FOURS).add(playerId, number(batting.getFours()));
+            indexes.get(RankMetric.SIXES).add(playerId, number(batting.getSixes()));
+        } else if (event.stats() instanceof BowlingStats bowling) {
+            indexes.get(RankMetric.WICKETS).add(playerId, number(bowling.getWicketsTaken()));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPlayerChanged(PlayerChangedEvent event) {
+        if (loaded || loading) {
+            dirty.add(event.playerId());
+        }
+    }
+    
+    @EventListener
+    public synchronized void onRemoteChanges(RemoteChangesEvent event) {
+        if (loaded || loading) {
+            dirty.addAll(event.playerIds());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.rank.refresh-interval:1000}")
+    public void refresh() {
+        List<Long> playerIds;
+        synchronized (this) {
+            if (!loaded || dirty.isEmpty()) {
+                return;
+            }
+            playerIds = new ArrayList<>(dirty);
+            inFlight.addAll(playerIds);
+            dirty.clear();
+        }
+        try {
+            Totals totals = primaryReads.execute(tx -> readTotals(playerIds));
+            synchronized (this) {
+                for (Long playerId : playerIds) {
+                    apply(playerId, totals);
+                }
+                requeueUncommitted(playerIds);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh leaderboard ranks for {} players", playerIds.size(), e);
+            synchronized (this) {
+                dirty.addAll(playerIds);
+            }
+        } finally {
+            synchronized (this) {
+                playerIds.forEach(inFlight::remove);
+            }
+        }
+    }
+    
+    @Override
+    public String snapshotSection() {
+        return "rank";
+    }
+    
+    // The metric names, then per player: id, name and one total per metric; then the players
+    // still waiting to be re-read
+    @Override
+    public synchronized boolean writeSnapshot(SnapshotWriter out) {
+        if (!loaded) {
+            return false;
+        }
+        RankMetric[] metrics = RankMetric.values();
+        out.writeInt(metrics.length);
+        for (RankMetric metric : metrics) {
+            out.writeString(metric.name());
+        }
+        out.writeInt(names.size());
+        names.forEach((playerId, name) -> {
+            out.writeLong(playerId);
+            out.writeString(name);
+            for (RankMetric metric : metrics) {
+                Long value = indexes.get(metric).value(playerId);
+                out.writeLong(value != null ? value : 0);
+            }
+        });
+        Set<Long> pending = new HashSet<>(dirty);
+        pending.addAll(inFlight);
+        out.writeInt(pending.size());
+        pending.forEach(out::writeLong);
+        return true;
+    }
+    
+    // Read in full before anything is applied, so a bad section leaves the indexes empty
+    @Override
+    public void readSnapshot(SnapshotReader in, Set<Long> changedPlayerIds) {
+        RankMetric[] metrics = RankMetric.values();
+        int metricCount = in.readInt();
+        if (metricCount != metrics.length) {
+            throw new IllegalStateException("Snapshot has " + metricCount + " rank metrics, expected " + metrics.length);
+        }
+        for (RankMetric metric : metrics) {
+            String name = in.readString();
+            if (!metric.name().equals(name)) {
+                throw new IllegalStateException("Snapshot has rank metric " + name + " where " + metric + " is expected");
+            }
+        }
+        int count = in.readInt();
+        long[] playerIds = new long[count];
+        String[] playerNames = new String[count];
+        long[] values = new long[count * metrics.length];
+        for (int i = 0; i < count; i++) {
+            playerIds[i] = in.readLong();
+            playerNames[i] = in.readString();
+            for (int m = 0; m < metrics.length; m++) {
+                values[i * metrics.length + m] = in.readLong();
+            }
+        }
+        Set<Long> pending = new HashSet<>(changedPlayerIds);
+        int pendingCount = in.readInt();
+        for (int i = 0; i < pendingCount; i++) {
+            pending.add(in.readLong());
+        }
+        synchronized (loadLock) {
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                for (int i = 0; i < count; i++) {
+                    for (int m = 0; m < metrics.length; m++) {
+                        indexes.get(metrics[m]).set(playerIds[i], values[i * metrics.length + m]);
+                    }
+                    names.put(playerIds[i], playerNames[i]);
+                }
+                // Re-read by the next refresh, which also drops players deleted since
+                dirty.addAll(pending);
+                loaded = true;
+            }
+        }
+        log.info("Restored leaderboard ranks for {} players; {} to re-read", count, pending.size());
+    }
+    
+    // Built on first use; writes that land during the build are queued and re-read afterwards
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                loading = true;
+            }
+            try {
+                Totals totals = primaryReads.execute(tx -> readTotals(null));
+                synchronized (this) {
+                    for (Long playerId : totals.names().keySet()) {
+                        apply(playerId, totals);
+                    }
+                    requeueUncommitted(totals.names().keySet());
+                    loaded = true;
+                }
+                log.info("Loaded leaderboard ranks for {} players", totals.names().size());
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                }
+            }
+        }
+    }
+    
+    // All players when playerIds is null
+    private Totals readTotals(Collection<Long> playerIds) {
+        List<Object[]> players = playerIds == null ? playerRepository.findIdsAndNames()
+                : playerRepository.findIdsAndNamesByIds(playerIds);
+        SeasonBoundary boundary = seasonArchiveService.boundary();
+        LocalDate liveFrom = boundary.liveFrom();
+        int archivedThrough = boundary.archivedThrough();
+        List<Object[]> batting = playerIds == null ? battingStatsRepository.findCareerTotals(liveFrom, archivedThrough)
+                : battingStatsRepository.findCareerTotalsByPlayerIds(playerIds, liveFrom, archivedThrough);
+        List<Object[]> bowling = playerIds == null ? bowlingStatsRepository.findCareerTotals(liveFrom, archivedThrough)
+                : bowlingStatsRepository.findCareerTotalsByPlayerIds(playerIds, liveFrom, archivedThrough);
+        Map<Long, String> playerNames = new HashMap<>();
+        players.forEach(row -> playerNames.put((Long) row[0], (String) row[1]));
+        return new Totals(playerNames, byPlayer(batting), byPlayer(bowling));
+    }
+    
+    // Their totals may already hold an innings whose delta is still to come
+    private void requeueUncommitted(Collection<Long> playerIds) {
+        for (Long playerId : playerIds) {
+            if (uncommittedCreates.containsKey(playerId)) {
+                dirty.add(playerId);
+            }
+        }
+    }
+    
+    private void apply(Long playerId, Totals totals) {
+        String name = totals.names().get(playerId);
+        if (name == null) {
+            indexes.values().forEach(index -> index.remove(playerId));
+            names.remove(playerId);
+            return;
+        }
+        // Career totals rows: batting (playerId, innings, runs, balls, fours, sixes),
+        // bowling (playerId, innings, overs, runs given, wickets)
+        Object[] batting = totals.batting().get(playerId);
+        Object[] bowling = totals.bowling().get(playerId);
+        indexes.get(RankMetric.RUNS).set(playerId, batting != null ? number(batting[2]) : 0);
+        indexes.get(RankMetric.FOURS).set(playerId, batting != null ? number(batting[4]) : 0);
+        indexes.get(RankMetric.SIXES).set(playerId, batting != null ? number(batting[5]) : 0);
+        indexes.get(RankMetric.WICKETS).set(playerId, bowling != null ? number(bowling[4]) : 0);
+        names.put(playerId, name);
+    }
+    
+    private List<RankResponse.RankedPlayer> ranked(RankIndex index, List<RankIndex.Position> positions) {
+        List<RankResponse.RankedPlayer> ranked = new ArrayList<>(positions.size());
+        for (RankIndex.Position position : positions) {
+            ranked.add(new RankResponse.RankedPlayer(position.playerId(), names.get(position.playerId()),
+                    position.value(), index.rankOf(position.value())));
+        }
+        return ranked;
+    }
+    
+    private static Map<Long, Object[]> byPlayer(List<Object[]> rows) {
+        Map<Long, Object[]> byPlayer = new HashMap<>();
+        for (Object[] row : rows) {
+            byPlayer.put(((Number) row[0]).longValue(), row);
+        }
+        return byPlayer;
+    }
+    
+    private static long number(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+    
+    // Completion runs after every afterCommit, so the innings' own delta listener has already
+    // seen it as uncommitted
+    private class PendingCreate implements TransactionSynchronization {
+        
+        private final Long playerId;
+        private final Long statsId;
+        
+        private PendingCreate(Long playerId, Long statsId) {
+            this.playerId = playerId;
+            this.statsId = statsId;
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            synchronized (RankService.this) {
+                Set<Long> statsIds = uncommittedCreates.get(playerId);
+                if (statsIds != null && statsIds.remove(statsId) && statsIds.isEmpty()) {
+                    uncommittedCreates.remove(playerId);
+                }
+            }
+        }
+    }
+    
+    private record Totals(Map<Long, String> names, Map<Long, Object[]> batting, Map<Long, Object[]> bowling) {
+    }
+}
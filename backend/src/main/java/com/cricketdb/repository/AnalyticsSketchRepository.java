@@ -0,0 +1,9 @@
+package com.cricketdb.repository;
+
+import com.cricketdb.model.AnalyticsSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalyticsSketchRepository extends JpaRepository<AnalyticsSketch, String> {
+}
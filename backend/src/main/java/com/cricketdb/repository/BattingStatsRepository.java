@@ -2,12 +2,20 @@ package com.cricketdb.repository;
 
 import com.cricketdb.model.BattingStats;
 import com.cricketdb.model.Player;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BattingStatsRepository extends JpaRepository<BattingStats, Long> {
@@ -16,21 +24,132 @@ public interface BattingStatsRepository extends JpaRepository<BattingStats, Long
     @Query("SELECT b FROM BattingStats b JOIN FETCH b.player WHERE b.player.playerId = :playerId")
     List<BattingStats> findByPlayerIdWithPlayer(@Param("playerId") Long playerId);
     
-    @Query("SELECT p.playerName, SUM(b.runs) FROM Player p JOIN p.battingStats b GROUP BY p ORDER BY SUM(b.runs) DESC")
-    List<Object[]> findHighestRunsData();
+    @Query("SELECT b FROM BattingStats b JOIN FETCH b.player WHERE b.id IN :ids")
+    List<BattingStats> findAllByIdWithPlayer(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT p.playerName, COUNT(b) FROM Player p JOIN p.battingStats b WHERE b.runs >= 100 GROUP BY p ORDER BY COUNT(b) DESC")
-    List<Object[]> findTotalCenturiesData();
+    @Query("SELECT b.id FROM BattingStats b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT p.playerName, MAX(b.matchDate) FROM Player p JOIN p.battingStats b WHERE b.runs >= 100 GROUP BY p ORDER BY MAX(b.matchDate) DESC")
-    List<Object[]> findMostRecentCenturyData();
+    @Query("SELECT b FROM BattingStats b JOIN FETCH b.player WHERE b.player.playerId = :playerId ORDER BY b.matchDate DESC, b.id DESC")
+    List<BattingStats> findRecentByPlayerId(@Param("playerId") Long playerId, Pageable pageable);
     
-    @Query("SELECT p.playerName, SUM(b.sixes) FROM Player p JOIN p.battingStats b GROUP BY p ORDER BY SUM(b.sixes) DESC")
-    List<Object[]> findMostSixesData();
+    long countByPlayerPlayerId(Long playerId);
     
-    @Query("SELECT p.playerName, SUM(b.fours) FROM Player p JOIN p.battingStats b GROUP BY p ORDER BY SUM(b.fours) DESC")
-    List<Object[]> findMostFoursData();
+    // Per-player totals of innings still in batting_stats; season summaries have the same columns
+    String LIVE_TOTALS = "SELECT player_id, COUNT(*) AS innings, SUM(runs) AS runs, SUM(balls_played) AS balls_played, " +
+            "SUM(fours) AS fours, SUM(sixes) AS sixes, MAX(runs) AS highest, " +
+            "SUM(CASE WHEN runs >= 50 AND runs < 100 THEN 1 ELSE 0 END) AS fifties, " +
+            "SUM(CASE WHEN runs >= 100 THEN 1 ELSE 0 END) AS centuries, COUNT(DISTINCT match_date) AS match_days, " +
+            "MAX(CASE WHEN runs >= 100 THEN match_date END) AS last_century_date FROM batting_stats ";
     
-    @Query("SELECT p.playerName, SUM(b.runs) / COUNT(DISTINCT b.matchDate) FROM Player p JOIN p.battingStats b GROUP BY p HAVING COUNT(DISTINCT b.matchDate) > 0 ORDER BY SUM(b.runs) / COUNT(DISTINCT b.matchDate) DESC")
-    List<Object[]> findBestBattingAverageData();
+    String SUMMARY_TOTALS = "SELECT player_id, innings, runs, balls_played, fours, sixes, highest, fifties, centuries, " +
+            "match_days, last_century_date FROM batting_season_summary ";
+    
+    // All-time rows: summaries through the last archived season, live innings after it. The
+    // match_date bound is a constant, so only the partitions after the boundary are scanned.
+    String CAREER_ROWS = "(" + LIVE_TOTALS + "WHERE match_date >= :liveFrom GROUP BY player_id UNION ALL " +
+            SUMMARY_TOTALS + "WHERE season <= :archivedThrough)";
+    
+    String PLAYER_CAREER_ROWS = "(" + LIVE_TOTALS + "WHERE player_id IN :playerIds AND match_date >= :liveFrom " +
+            "GROUP BY player_id UNION ALL " + SUMMARY_TOTALS + "WHERE player_id IN :playerIds AND season <= :archivedThrough)";
+    
+    String TOP_PLAYER = "FROM players p JOIN " + CAREER_ROWS + " t ON t.player_id = p.player_id GROUP BY p.player_id, p.player_name ";
+    
+    // Per-player aggregates: playerId, innings, runs, balls, fours, sixes, highest, fifties, centuries, match days.
+    // Callers split the range at the archive boundary: live innings in [from, to], summaries in [fromSeason, toSeason].
+    @Query(value = "SELECT t.player_id, SUM(t.innings), SUM(t.runs), SUM(t.balls_played), SUM(t.fours), SUM(t.sixes), " +
+            "MAX(t.highest), SUM(t.fifties), SUM(t.centuries), SUM(t.match_days) FROM (" +
+            LIVE_TOTALS + "WHERE player_id IN :playerIds AND match_date BETWEEN :from AND :to GROUP BY player_id UNION ALL " +
+            SUMMARY_TOTALS + "WHERE player_id IN :playerIds AND season BETWEEN :fromSeason AND :toSeason) t " +
+            "GROUP BY t.player_id", nativeQuery = true)
+    List<Object[]> findAggregatesByPlayerIds(@Param("playerIds") Collection<Long> playerIds,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("fromSeason") int fromSeason, @Param("toSeason") int toSeason);
+    
+    // Career totals for similarity vectors and ranks: playerId, innings, runs, balls, fours, sixes
+    @Query(value = "SELECT t.player_id, SUM(t.innings), SUM(t.runs), SUM(t.balls_played), SUM(t.fours), SUM(t.sixes) " +
+            "FROM " + CAREER_ROWS + " t GROUP BY t.player_id", nativeQuery = true)
+    List<Object[]> findCareerTotals(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT t.player_id, SUM(t.innings), SUM(t.runs), SUM(t.balls_played), SUM(t.fours), SUM(t.sixes) " +
+            "FROM " + PLAYER_CAREER_ROWS + " t GROUP BY t.player_id", nativeQuery = true)
+    List<Object[]> findCareerTotalsByPlayerIds(@Param("playerIds") Collection<Long> playerIds,
+                                               @Param("liveFrom") LocalDate liveFrom,
+                                               @Param("archivedThrough") int archivedThrough);
+    
+    // Per-innings values for distribution sketches: id, runs, balls, opponent.
+    // MySQL Connector/J streams rows instead of buffering the result when the fetch size is Integer.MIN_VALUE.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT b.id, b.runs, b.ballsPlayed, b.against FROM BattingStats b")
+    Stream<Object[]> streamDistributionValues();
+    
+    @Query("SELECT b.id, b.runs, b.ballsPlayed, b.against FROM BattingStats b WHERE b.player.playerId = :playerId")
+    List<Object[]> findDistributionValuesByPlayerId(@Param("playerId") Long playerId);
+    
+    @Query("SELECT b.id, b.runs, b.ballsPlayed, b.against FROM BattingStats b WHERE b.id IN :ids")
+    List<Object[]> findDistributionValuesByIds(@Param("ids") Collection<Long> ids);
+    
+    // Innings moved out by the season archiver; they never change again
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(value = "SELECT id, runs, balls_played, against FROM batting_stats_archive", nativeQuery = true)
+    Stream<Object[]> streamArchivedDistributionValues();
+    
+    @Query(value = "SELECT id, runs, balls_played, against FROM batting_stats_archive WHERE player_id = :playerId", nativeQuery = true)
+    List<Object[]> findArchivedDistributionValuesByPlayerId(@Param("playerId") Long playerId);
+    
+    @Query("SELECT MIN(b.matchDate) FROM BattingStats b")
+    LocalDate findFirstMatchDate();
+    
+    @Query("SELECT COUNT(b) FROM BattingStats b WHERE b.matchDate >= :from AND b.matchDate < :to")
+    long countBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT DISTINCT b.player.playerId FROM BattingStats b WHERE b.matchDate >= :from AND b.matchDate < :to")
+    List<Long> findPlayerIdsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "INSERT INTO batting_season_summary (player_id, innings, runs, balls_played, fours, sixes, highest, " +
+            "fifties, centuries, match_days, last_century_date, season) SELECT t.*, :season FROM (" +
+            LIVE_TOTALS + "WHERE match_date >= :from AND match_date < :to GROUP BY player_id) t", nativeQuery = true)
+    int summarizeSeason(@Param("season") int season, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "INSERT INTO batting_stats_archive (id, player_id, runs, balls_played, sixes, fours, against, match_date) " +
+            "SELECT id, player_id, runs, balls_played, sixes, fours, against, match_date FROM batting_stats " +
+            "WHERE match_date >= :from AND match_date < :to", nativeQuery = true)
+    int copyToArchive(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "DELETE FROM batting_stats WHERE match_date >= :from AND match_date < :to", nativeQuery = true)
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "DELETE FROM batting_season_summary WHERE player_id = :playerId", nativeQuery = true)
+    int deleteSummariesByPlayerId(@Param("playerId") Long playerId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM batting_stats_archive WHERE player_id = :playerId", nativeQuery = true)
+    int deleteArchivedByPlayerId(@Param("playerId") Long playerId);
+    
+    // All-time leaderboards over CAREER_ROWS: playerName, value; at most one row
+    @Query(value = "SELECT p.player_name, SUM(t.runs) AS v " + TOP_PLAYER + "ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findHighestRunsData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, SUM(t.centuries) AS v " + TOP_PLAYER + "HAVING v > 0 ORDER BY v DESC LIMIT 1",
+            nativeQuery = true)
+    List<Object[]> findTotalCenturiesData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, MAX(t.last_century_date) AS v " + TOP_PLAYER +
+            "HAVING v IS NOT NULL ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findMostRecentCenturyData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, SUM(t.sixes) AS v " + TOP_PLAYER + "ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findMostSixesData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, SUM(t.fours) AS v " + TOP_PLAYER + "ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findMostFoursData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    // Match days are counted per season, and a date belongs to one season, so the sums add up
+    @Query(value = "SELECT p.player_name, SUM(t.runs) / SUM(t.match_days) AS v " + TOP_PLAYER +
+            "HAVING SUM(t.match_days) > 0 ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findBestBattingAverageData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
 }
@@ -2,12 +2,20 @@ package com.cricketdb.repository;
 
 import com.cricketdb.model.BowlingStats;
 import com.cricketdb.model.Player;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BowlingStatsRepository extends JpaRepository<BowlingStats, Long> {
@@ -16,18 +24,127 @@ public interface BowlingStatsRepository extends JpaRepository<BowlingStats, Long
     @Query("SELECT b FROM BowlingStats b JOIN FETCH b.player WHERE b.player.playerId = :playerId")
     List<BowlingStats> findByPlayerIdWithPlayer(@Param("playerId") Long playerId);
     
-    @Query("SELECT p.playerName, SUM(b.wicketsTaken) FROM Player p JOIN p.bowlingStats b GROUP BY p ORDER BY SUM(b.wicketsTaken) DESC")
-    List<Object[]> findHighestWicketsData();
+    @Query("SELECT b FROM BowlingStats b JOIN FETCH b.player WHERE b.id IN :ids")
+    List<BowlingStats> findAllByIdWithPlayer(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT p.playerName, SUM(b.maidens) FROM Player p JOIN p.bowlingStats b GROUP BY p ORDER BY SUM(b.maidens) DESC")
-    List<Object[]> findMostMaidenOversData();
+    @Query("SELECT b.id FROM BowlingStats b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT p.playerName, COUNT(b) FROM Player p JOIN p.bowlingStats b WHERE b.wicketsTaken >= 5 GROUP BY p ORDER BY COUNT(b) DESC")
-    List<Object[]> findTotalFiveWicketHaulsData();
+    @Query("SELECT b FROM BowlingStats b JOIN FETCH b.player WHERE b.player.playerId = :playerId ORDER BY b.matchDate DESC, b.id DESC")
+    List<BowlingStats> findRecentByPlayerId(@Param("playerId") Long playerId, Pageable pageable);
     
-    @Query("SELECT p.playerName, MAX(b.matchDate) FROM Player p JOIN p.bowlingStats b WHERE b.wicketsTaken >= 5 GROUP BY p ORDER BY MAX(b.matchDate) DESC")
-    List<Object[]> findMostRecentFiveWicketHaulData();
+    long countByPlayerPlayerId(Long playerId);
     
-    @Query("SELECT p.playerName, SUM(b.runsGiven) / SUM(b.overs) FROM Player p JOIN p.bowlingStats b GROUP BY p HAVING SUM(b.overs) > 0 ORDER BY SUM(b.runsGiven) / SUM(b.overs) ASC")
-    List<Object[]> findBestBowlingEconomyData();
+    // Per-player totals of innings still in bowling_stats; season summaries have the same columns
+    String LIVE_TOTALS = "SELECT player_id, COUNT(*) AS innings, SUM(overs) AS overs, SUM(maidens) AS maidens, " +
+            "SUM(runs_given) AS runs_given, SUM(wickets_taken) AS wickets, MAX(wickets_taken) AS best_wickets, " +
+            "SUM(CASE WHEN wickets_taken >= 5 THEN 1 ELSE 0 END) AS five_fors, " +
+            "MAX(CASE WHEN wickets_taken >= 5 THEN match_date END) AS last_five_for_date FROM bowling_stats ";
+    
+    String SUMMARY_TOTALS = "SELECT player_id, innings, overs, maidens, runs_given, wickets, best_wickets, five_fors, " +
+            "last_five_for_date FROM bowling_season_summary ";
+    
+    // All-time rows, split at the archive boundary the same way as BattingStatsRepository.CAREER_ROWS
+    String CAREER_ROWS = "(" + LIVE_TOTALS + "WHERE match_date >= :liveFrom GROUP BY player_id UNION ALL " +
+            SUMMARY_TOTALS + "WHERE season <= :archivedThrough)";
+    
+    String PLAYER_CAREER_ROWS = "(" + LIVE_TOTALS + "WHERE player_id IN :playerIds AND match_date >= :liveFrom " +
+            "GROUP BY player_id UNION ALL " + SUMMARY_TOTALS + "WHERE player_id IN :playerIds AND season <= :archivedThrough)";
+    
+    String TOP_PLAYER = "FROM players p JOIN " + CAREER_ROWS + " t ON t.player_id = p.player_id GROUP BY p.player_id, p.player_name ";
+    
+    // Per-player aggregates: playerId, innings, overs, maidens, runs given, wickets, best wickets, five-fors.
+    // Callers split the range at the archive boundary: live innings in [from, to], summaries in [fromSeason, toSeason].
+    @Query(value = "SELECT t.player_id, SUM(t.innings), SUM(t.overs), SUM(t.maidens), SUM(t.runs_given), SUM(t.wickets), " +
+            "MAX(t.best_wickets), SUM(t.five_fors) FROM (" +
+            LIVE_TOTALS + "WHERE player_id IN :playerIds AND match_date BETWEEN :from AND :to GROUP BY player_id UNION ALL " +
+            SUMMARY_TOTALS + "WHERE player_id IN :playerIds AND season BETWEEN :fromSeason AND :toSeason) t " +
+            "GROUP BY t.player_id", nativeQuery = true)
+    List<Object[]> findAggregatesByPlayerIds(@Param("playerIds") Collection<Long> playerIds,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("fromSeason") int fromSeason, @Param("toSeason") int toSeason);
+    
+    // Career totals for similarity vectors and ranks: playerId, innings, overs, runs given, wickets
+    @Query(value = "SELECT t.player_id, SUM(t.innings), SUM(t.overs), SUM(t.runs_given), SUM(t.wickets) " +
+            "FROM " + CAREER_ROWS + " t GROUP BY t.player_id", nativeQuery = true)
+    List<Object[]> findCareerTotals(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT t.player_id, SUM(t.innings), SUM(t.overs), SUM(t.runs_given), SUM(t.wickets) " +
+            "FROM " + PLAYER_CAREER_ROWS + " t GROUP BY t.player_id", nativeQuery = true)
+    List<Object[]> findCareerTotalsByPlayerIds(@Param("playerIds") Collection<Long> playerIds,
+                                               @Param("liveFrom") LocalDate liveFrom,
+                                               @Param("archivedThrough") int archivedThrough);
+    
+    // Per-innings values for distribution sketches: id, overs, runs given, wickets, opponent.
+    // MySQL Connector/J streams rows instead of buffering the result when the fetch size is Integer.MIN_VALUE.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT b.id, b.overs, b.runsGiven, b.wicketsTaken, b.against FROM BowlingStats b")
+    Stream<Object[]> streamDistributionValues();
+    
+    @Query("SELECT b.id, b.overs, b.runsGiven, b.wicketsTaken, b.against FROM BowlingStats b WHERE b.player.playerId = :playerId")
+    List<Object[]> findDistributionValuesByPlayerId(@Param("playerId") Long playerId);
+    
+    @Query("SELECT b.id, b.overs, b.runsGiven, b.wicketsTaken, b.against FROM BowlingStats b WHERE b.id IN :ids")
+    List<Object[]> findDistributionValuesByIds(@Param("ids") Collection<Long> ids);
+    
+    // Innings moved out by the season archiver; they never change again
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(value = "SELECT id, overs, runs_given, wickets_taken, against FROM bowling_stats_archive", nativeQuery = true)
+    Stream<Object[]> streamArchivedDistributionValues();
+    
+    @Query(value = "SELECT id, overs, runs_given, wickets_taken, against FROM bowling_stats_archive WHERE player_id = :playerId",
+            nativeQuery = true)
+    List<Object[]> findArchivedDistributionValuesByPlayerId(@Param("playerId") Long playerId);
+    
+    @Query("SELECT MIN(b.matchDate) FROM BowlingStats b")
+    LocalDate findFirstMatchDate();
+    
+    @Query("SELECT COUNT(b) FROM BowlingStats b WHERE b.matchDate >= :from AND b.matchDate < :to")
+    long countBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT DISTINCT b.player.playerId FROM BowlingStats b WHERE b.matchDate >= :from AND b.matchDate < :to")
+    List<Long> findPlayerIdsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "INSERT INTO bowling_season_summary (player_id, innings, overs, maidens, runs_given, wickets, " +
+            "best_wickets, five_fors, last_five_for_date, season) SELECT t.*, :season FROM (" +
+            LIVE_TOTALS + "WHERE match_date >= :from AND match_date < :to GROUP BY player_id) t", nativeQuery = true)
+    int summarizeSeason(@Param("season") int season, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "INSERT INTO bowling_stats_archive (id, player_id, overs, maidens, runs_given, wickets_taken, against, match_date) " +
+            "SELECT id, player_id, overs, maidens, runs_given, wickets_taken, against, match_date FROM bowling_stats " +
+            "WHERE match_date >= :from AND match_date < :to", nativeQuery = true)
+    int copyToArchive(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "DELETE FROM bowling_stats WHERE match_date >= :from AND match_date < :to", nativeQuery = true)
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query(value = "DELETE FROM bowling_season_summary WHERE player_id = :playerId", nativeQuery = true)
+    int deleteSummariesByPlayerId(@Param("playerId") Long playerId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM bowling_stats_archive WHERE player_id = :playerId", nativeQuery = true)
+    int deleteArchivedByPlayerId(@Param("playerId") Long playerId);
+    
+    // All-time leaderboards over CAREER_ROWS: playerName, value; at most one row
+    @Query(value = "SELECT p.player_name, SUM(t.wickets) AS v " + TOP_PLAYER + "ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findHighestWicketsData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, SUM(t.maidens) AS v " + TOP_PLAYER + "ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findMostMaidenOversData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, SUM(t.five_fors) AS v " + TOP_PLAYER + "HAVING v > 0 ORDER BY v DESC LIMIT 1",
+            nativeQuery = true)
+    List<Object[]> findTotalFiveWicketHaulsData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, MAX(t.last_five_for_date) AS v " + TOP_PLAYER +
+            "HAVING v IS NOT NULL ORDER BY v DESC LIMIT 1", nativeQuery = true)
+    List<Object[]> findMostRecentFiveWicketHaulData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
+    
+    @Query(value = "SELECT p.player_name, SUM(t.runs_given) / SUM(t.overs) AS v " + TOP_PLAYER +
+            "HAVING SUM(t.overs) > 0 ORDER BY v ASC LIMIT 1", nativeQuery = true)
+    List<Object[]> findBestBowlingEconomyData(@Param("liveFrom") LocalDate liveFrom, @Param("archivedThrough") int archivedThrough);
 }
@@ -0,0 +1,34 @@
+package com.cricketdb.repository;
+
+import com.cricketdb.model.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, String> {
+    // Locks the row until the caller commits, so versions of a region are bumped one writer at a time
+    @Modifying
+    @Query(value = "INSERT INTO cache_invalidation (region, version, updated_at) VALUES (:region, 1, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = NOW(6)", nativeQuery = true)
+    int bump(@Param("region") String region);
+    
+    // Rows are (region, version)
+    @Query("SELECT c.region, c.version FROM CacheInvalidation c WHERE c.region IN :regions")
+    List<Object[]> findVersions(@Param("regions") Collection<String> regions);
+    
+    List<CacheInvalidation> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+    
+    @Query("SELECT LOCAL DATETIME")
+    LocalDateTime findDatabaseTime();
+    
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation c WHERE c.updatedAt < :before")
+    int deleteUpdatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,55 @@
+package com.cricketdb.repository;
+
+import com.cricketdb.model.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    List<ChangeLogEntry> findBySeqGreaterThanOrderBySeqAsc(Long since, Pageable pageable);
+    
+    // Held until the caller commits, so appending transactions take their seqs one at a time
+    @Query(value = "SELECT id FROM change_log_lock WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    Integer lockForAppend();
+    
+    // Locks the entity's row until the caller commits; 0 if the entity has no row yet
+    @Modifying
+    @Query(value = "UPDATE change_version SET version = version + 1 WHERE entity_type = :entityType AND entity_id = :entityId",
+            nativeQuery = true)
+    int incrementVersion(@Param("entityType") String entityType, @Param("entityId") Long entityId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO change_version (entity_type, entity_id, version) VALUES (:entityType, :entityId, 1)",
+            nativeQuery = true)
+    int insertVersion(@Param("entityType") String entityType, @Param("entityId") Long entityId);
+    
+    @Query(value = "SELECT version FROM change_version WHERE entity_type = :entityType AND entity_id = :entityId",
+            nativeQuery = true)
+    long findVersion(@Param("entityType") String entityType, @Param("entityId") Long entityId);
+    
+    List<ChangeLogEntry> findByPlayerIdAndSeqGreaterThanOrderBySeqAsc(Long playerId, Long since);
+    
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM ChangeLogEntry c")
+    long findMaxSeq();
+    
+    // Players touched after seq; a range scan on the primary key, so it costs only the writes since
+    @Query("SELECT DISTINCT c.playerId FROM ChangeLogEntry c WHERE c.seq > :seq AND c.playerId IS NOT NULL")
+    List<Long> findPlayerIdsChangedAfter(@Param("seq") long seq);
+    
+    // Entries that a newer entry for the same entity supersedes. Selected first and deleted by seq,
+    // since MySQL can't delete from a table its own subquery reads.
+    @Query("SELECT c.seq FROM ChangeLogEntry c WHERE c.changedAt < :cutoff AND EXISTS (" +
+            "SELECT n.seq FROM ChangeLogEntry n WHERE n.entityType = c.entityType AND n.entityId = c.entityId AND n.seq > c.seq)")
+    List<Long> findSupersededBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.seq IN :seqs")
+    int deleteBySeqIn(@Param("seqs") List<Long> seqs);
+}
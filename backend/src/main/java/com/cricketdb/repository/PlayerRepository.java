@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +18,10 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
     
     @Query("SELECT p FROM Player p WHERE p.playerName LIKE %:name%")
     List<Player> findByNameContaining(@Param("name") String name);
+    
+    @Query("SELECT p.playerId, p.playerName FROM Player p")
+    List<Object[]> findIdsAndNames();
+    
+    @Query("SELECT p.playerId, p.playerName FROM Player p WHERE p.playerId IN :ids")
+    List<Object[]> findIdsAndNamesByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,40 @@
+package com.cricketdb.repository;
+
+import com.cricketdb.model.SeasonArchive;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SeasonArchiveRepository extends JpaRepository<SeasonArchive, Integer> {
+    // 0 when nothing is archived
+    @Query("SELECT COALESCE(MAX(s.season), 0) FROM SeasonArchive s")
+    int findArchivedThrough();
+    
+    // Shared locks on every row and the gap after the last, so an archive run can't add a season
+    // until the caller commits, and the caller waits for a run that is adding one. The dialect picks the
+    // clause: FOR SHARE on MySQL, FOR UPDATE on H2, which has no shared row locks.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT s.season FROM SeasonArchive s")
+    List<Integer> findSeasonsForShare();
+    
+    // A plain insert, so a season another node archived first fails instead of being overwritten
+    @Modifying
+    @Query(value = "INSERT INTO season_archive (season, batting_innings, bowling_innings, raw_moved, archived_at) " +
+            "VALUES (:season, 0, 0, :rawMoved, :archivedAt)", nativeQuery = true)
+    int insertSeason(@Param("season") int season, @Param("rawMoved") boolean rawMoved,
+                     @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @Modifying
+    @Query("UPDATE SeasonArchive s SET s.battingInnings = :battingInnings, s.bowlingInnings = :bowlingInnings " +
+            "WHERE s.season = :season")
+    int updateInnings(@Param("season") int season, @Param("battingInnings") long battingInnings,
+                      @Param("bowlingInnings") long bowlingInnings);
+}
@@ -0,0 +1,108 @@
+package com.cricketdb.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Gradient-style adaptive limit: the limit grows while latency stays near the long-term baseline
+// and shrinks as soon as requests start queueing (latency rises) or failing.
+public class AdaptiveConcurrencyLimit {
+    
+    // Latency may rise this much above the baseline before the limit starts shrinking
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    // Baseline latency adapts slowly so a sustained slowdown is eventually accepted as the new normal
+    private static final double LONG_RTT_DECAY = 0.01;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile double limit;
+    private double longRttNanos;
+    
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        
+        Gauge.builder("cricketdb.concurrency.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .tag("endpoints", name)
+                .register(meterRegistry);
+        Gauge.builder("cricketdb.concurrency.inflight", inFlight, AtomicInteger::get)
+                .tag("endpoints", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("cricketdb.concurrency.rejected")
+                .tag("endpoints", name)
+                .register(meterRegistry);
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // Successful samples that find another thread updating are dropped rather than waited for, so
+    // releases never queue on the lock; the estimate only needs a steady stream of samples.
+    // Failures always wait, so every one of them backs the limit off.
+    public void release(long rttNanos, boolean failed) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (failed) {
+            updateLock.lock();
+        } else if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            update(rttNanos, inFlightAtCompletion, failed);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    // Called with updateLock held
+    private void update(long rttNanos, int inFlightAtCompletion, boolean failed) {
+        double current = limit;
+        if (failed) {
+            limit = Math.max(minLimit, current * BACKOFF_RATIO);
+            return;
+        }
+        
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos = longRttNanos * (1 - LONG_RTT_DECAY) + rttNanos * LONG_RTT_DECAY;
+        }
+        
+        // Don't grow the limit when it isn't the bottleneck (application-limited traffic)
+        if (inFlightAtCompletion < current / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rttNanos));
+        double queueAllowance = Math.sqrt(current);
+        double target = current * gradient + queueAllowance;
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,106 @@
+package com.cricketdb.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Sheds load in front of the DB-bound endpoints before any authentication or database work is done
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cricketdb.concurrency-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.concurrency-limit.min-limit:4}")
+    private int minLimit;
+    
+    @Value("${cricketdb.concurrency-limit.read.initial-limit:50}")
+    private int readInitialLimit;
+    
+    @Value("${cricketdb.concurrency-limit.read.max-limit:400}")
+    private int readMaxLimit;
+    
+    @Value("${cricketdb.concurrency-limit.write.initial-limit:20}")
+    private int writeInitialLimit;
+    
+    @Value("${cricketdb.concurrency-limit.write.max-limit:100}")
+    private int writeMaxLimit;
+    
+    @Value("${cricketdb.concurrency-limit.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
+    private AdaptiveConcurrencyLimit readLimit;
+    private AdaptiveConcurrencyLimit writeLimit;
+    
+    @PostConstruct
+    public void init() {
+        readLimit = new AdaptiveConcurrencyLimit("read", readInitialLimit, minLimit, readMaxLimit, meterRegistry);
+        writeLimit = new AdaptiveConcurrencyLimit("write", writeInitialLimit, minLimit, writeMaxLimit, meterRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || limitFor(request) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        
+        AdaptiveConcurrencyLimit limit = limitFor(request);
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is overloaded. Please retry shortly.\"}");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limit.release(System.nanoTime() - start, failed);
+        }
+    }
+    
+    private AdaptiveConcurrencyLimit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        
+        if (HttpMethod.OPTIONS.matches(method)) {
+            return null;
+        }
+        // Event streams stay open for minutes and return from the filter as soon as they go async;
+        // neither their slots nor their latencies mean anything to the limit
+        if (path.startsWith("/api/analytics/stream") || path.startsWith("/api/stats/stream/")) {
+            return null;
+        }
+        if (path.startsWith("/api/analytics")) {
+            return HttpMethod.GET.matches(method) ? readLimit : null;
+        }
+        if (path.startsWith("/api/players") || path.startsWith("/api/stats")) {
+            // Batch gets are POSTs but only read
+            return HttpMethod.GET.matches(method) || path.endsWith("/batch") ? readLimit : writeLimit;
+        }
+        return null;
+    }
+}
@@ -1,9 +1,13 @@
 package com.cricketdb.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -17,14 +21,46 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     
+    private static final String VERIFIED_SUBJECT = JwtUtil.class.getName() + ".subject";
+    private static final String NO_SUBJECT = "";
+    
     @Value("${spring.security.jwt.secret}")
     private String secret;
     
     @Value("${spring.security.jwt.expiration}")
     private Long expiration;
     
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
+    }
+    
+    // Subject of the request's bearer token, or null when it is missing or invalid. The signature is
+    // checked once per request and the result shared by the rate limiter and the authentication filter.
+    public String verifiedSubject(HttpServletRequest request) {
+        Object cached = request.getAttribute(VERIFIED_SUBJECT);
+        if (cached == null) {
+            String subject = null;
+            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+                try {
+                    subject = extractUsername(authorizationHeader.substring(7));
+                } catch (Exception e) {
+                    // Expired, malformed or wrongly signed
+                }
+            }
+            cached = subject != null ? subject : NO_SUBJECT;
+            request.setAttribute(VERIFIED_SUBJECT, cached);
+        }
+        return cached == NO_SUBJECT ? null : (String) cached;
     }
     
     public String extractUsername(String token) {
@@ -41,11 +77,7 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
     
     private Boolean isTokenExpired(String token) {
@@ -0,0 +1,45 @@
+package com.cricketdb.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Password verification runs on this pool instead of Tomcat's request threads, so a login storm
+// queues here (and is rejected once the queue is full) without starving the read endpoints
+@Configuration
+public class LoginExecutorConfig {
+    
+    @Value("${cricketdb.security.login.threads:0}")
+    private int threads;
+    
+    @Value("${cricketdb.security.login.queue-capacity:100}")
+    private int queueCapacity;
+    
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService loginExecutor(MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        // Publishes executor.queued (queue depth), executor.active and per-task timings tagged name=login
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "login");
+    }
+}
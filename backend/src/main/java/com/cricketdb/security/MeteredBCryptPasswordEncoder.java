@@ -0,0 +1,44 @@
+package com.cricketdb.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// BCrypt with a configurable cost that times every hash and asks for a rehash whenever a stored
+// hash was made with a different cost (BCryptPasswordEncoder itself only upgrades weaker hashes)
+public class MeteredBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    
+    private final int strength;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    
+    public MeteredBCryptPasswordEncoder(int strength, MeterRegistry meterRegistry) {
+        super(strength);
+        this.strength = strength;
+        this.encodeTimer = Timer.builder("cricketdb.auth.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("cricketdb.auth.hash").tag("operation", "match").register(meterRegistry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> super.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchTimer.record(() -> super.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Stored format: $2a$10$<salt+hash>, where 10 is the cost
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.cricketdb.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Per-client rate limiting keyed by JWT subject, or by client IP for anonymous requests
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    
+    @Autowired
+    private RateLimitProperties properties;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final List<CompiledPolicy> policies = new ArrayList<>();
+    private RateLimiter rateLimiter;
+    
+    @PostConstruct
+    public void init() {
+        rateLimiter = new RateLimiter(properties.getStripes(), properties.getMaxKeys(), properties.getIdleEviction().toNanos());
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            policies.add(new CompiledPolicy(
+                    policy,
+                    PathPatternParser.defaultInstance.parse(policy.getPath()),
+                    Counter.builder("cricketdb.ratelimit.rejected").tag("policy", policy.getName()).register(meterRegistry)));
+        }
+        Gauge.builder("cricketdb.ratelimit.clients", rateLimiter, RateLimiter::size).register(meterRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        
+        CompiledPolicy policy = policyFor(request);
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        RateLimitProperties.Policy config = policy.config();
+        long now = System.nanoTime();
+        TokenBucket bucket = rateLimiter.bucketFor(
+                config.getName() + ':' + clientKey(request),
+                config.getCapacity(),
+                config.getRefillPerSecond(),
+                config.getName(),
+                now);
+        long remaining = bucket.tryConsume(now);
+        
+        response.setHeader("RateLimit-Limit", String.valueOf(config.getCapacity()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(Math.max(0, remaining)));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(bucket.nanosUntilFull(now))));
+        
+        if (remaining < 0) {
+            policy.rejected().increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, toSeconds(-remaining))));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests. Please slow down.\"}");
+            return;
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.rate-limit.eviction-interval:60000}")
+    public void evictIdleClients() {
+        rateLimiter.evictIdle(System.nanoTime());
+    }
+    
+    private CompiledPolicy policyFor(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledPolicy policy : policies) {
+            String method = policy.config().getMethod();
+            if ((method == null || method.isEmpty() || method.equalsIgnoreCase(request.getMethod()))
+                    && policy.pattern().matches(path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+    
+    private String clientKey(HttpServletRequest request) {
+        // Invalid tokens are limited by IP like anonymous requests
+        String subject = jwtUtil.verifiedSubject(request);
+        if (subject != null) {
+            return "user:" + subject;
+        }
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return "ip:" + (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    private static long toSeconds(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+    
+    private record CompiledPolicy(RateLimitProperties.Policy config, PathPattern pattern, Counter rejected) {
+    }
+}
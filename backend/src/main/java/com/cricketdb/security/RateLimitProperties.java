@@ -0,0 +1,67 @@
+package com.cricketdb.security;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bad values fail startup rather than producing buckets that never refill or overflow
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "cricketdb.rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Upper bound on tracked clients across all stripes; idle buckets are evicted first
+    @Min(1)
+    private int maxKeys = 100_000;
+    
+    @Min(1)
+    private int stripes = 16;
+    
+    // A bucket that has been full for this long is dropped from the map
+    @NotNull
+    private Duration idleEviction = Duration.ofMinutes(5);
+    
+    // Use the first X-Forwarded-For address as the client IP (only behind a trusted proxy)
+    private boolean trustForwardedFor = false;
+    
+    // Checked in order; the first matching policy applies
+    @Valid
+    private List<Policy> policies = new ArrayList<>();
+    
+    @Data
+    public static class Policy {
+        @NotBlank
+        private String name;
+        // Empty matches every method
+        private String method;
+        @NotBlank
+        private String path;
+        @Min(1)
+        private int capacity;
+        // At most one token per nanosecond, the bucket's resolution
+        @DecimalMin(value = "0", inclusive = false)
+        @DecimalMax("1000000000")
+        private double refillPerSecond;
+        
+        // An empty bucket must refill within the nanosecond clock's range
+        @AssertTrue(message = "capacity / refill-per-second is too large")
+        public boolean isRefillTimeRepresentable() {
+            return refillPerSecond <= 0 || capacity / refillPerSecond < Long.MAX_VALUE / 1e9;
+        }
+    }
+}
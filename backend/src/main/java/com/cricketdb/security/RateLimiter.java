@@ -0,0 +1,82 @@
+package com.cricketdb.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounded map of token buckets split into independently sized stripes so that inserts and
+// evictions on one stripe never contend with lookups on the others.
+public class RateLimiter {
+    
+    private final Stripe[] stripes;
+    private final int maxEntriesPerStripe;
+    private final long idleNanos;
+    // Shared per-policy buckets used once a stripe is full of active clients
+    private final Map<String, TokenBucket> overflow = new ConcurrentHashMap<>();
+    
+    public RateLimiter(int stripeCount, int maxKeys, long idleNanos) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxEntriesPerStripe = Math.max(1, maxKeys / size);
+        this.idleNanos = idleNanos;
+    }
+    
+    public TokenBucket bucketFor(String key, int capacity, double refillPerSecond, String overflowKey, long nowNanos) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        TokenBucket bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        
+        if (stripe.size.get() >= maxEntriesPerStripe) {
+            stripe.evictIdle(nowNanos, idleNanos);
+            if (stripe.size.get() >= maxEntriesPerStripe) {
+                return overflow.computeIfAbsent(overflowKey, k -> new TokenBucket(capacity, refillPerSecond, nowNanos));
+            }
+        }
+        
+        TokenBucket created = new TokenBucket(capacity, refillPerSecond, nowNanos);
+        TokenBucket existing = stripe.buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        stripe.size.incrementAndGet();
+        return created;
+    }
+    
+    public void evictIdle(long nowNanos) {
+        for (Stripe stripe : stripes) {
+            stripe.evictIdle(nowNanos, idleNanos);
+        }
+    }
+    
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.size.get();
+        }
+        return total;
+    }
+    
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+    
+    private static final class Stripe {
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+        
+        private void evictIdle(long nowNanos, long idleNanos) {
+            buckets.entrySet().removeIf(entry -> {
+                if (entry.getValue().isIdleSince(nowNanos, idleNanos)) {
+                    size.decrementAndGet();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.cricketdb.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -29,9 +31,18 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+    
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
+    @Value("${cricketdb.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new MeteredBCryptPasswordEncoder(bcryptStrength, meterRegistry);
     }
     
     @Bean
@@ -45,21 +56,32 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches (event streams, async login) were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/analytics/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/players").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
                 .requestMatchers(HttpMethod.GET, "/api/players/*").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
+                .requestMatchers(HttpMethod.GET, "/api/players/*/profile", "/api/players/*/similar").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
                 .requestMatchers(HttpMethod.GET, "/api/stats/**").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
+                .requestMatchers(HttpMethod.POST, "/api/players/batch", "/api/stats/batting/batch", "/api/stats/bowling/batch")
+                    .hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
                 .requestMatchers(HttpMethod.POST, "/api/players").hasAnyRole("ADMIN", "DATA_ENTRY")
                 .requestMatchers(HttpMethod.PUT, "/api/players/**").hasAnyRole("ADMIN", "DATA_ENTRY")
                 .requestMatchers(HttpMethod.DELETE, "/api/players/**").hasAnyRole("ADMIN", "DATA_ENTRY")
                 .requestMatchers(HttpMethod.POST, "/api/stats/**").hasAnyRole("ADMIN", "DATA_ENTRY")
+                .requestMatchers(HttpMethod.GET, "/api/sync").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
+                .requestMatchers(HttpMethod.GET, "/api/live/**").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
+                .requestMatchers(HttpMethod.POST, "/api/live/**").hasAnyRole("ADMIN", "DATA_ENTRY")
                 .requestMatchers("/api/auth/register").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
         
+        // Rate limiting and load shedding run first so rejected requests skip the JWT user lookup
+        http.addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(concurrencyLimitFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
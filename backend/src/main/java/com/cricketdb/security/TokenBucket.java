@@ -0,0 +1,41 @@
+package com.cricketdb.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time"
+// updated with a CAS, so concurrent requests on the same key never block each other.
+public final class TokenBucket {
+    
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = Math.multiplyExact(emissionIntervalNanos, (long) capacity);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+    
+    // Returns the tokens left after taking one, or a negative number of nanos to wait when empty
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return -(debt - burstNanos);
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return (burstNanos - debt) / emissionIntervalNanos;
+            }
+        }
+    }
+    
+    public long nanosUntilFull(long nowNanos) {
+        return Math.max(0, theoreticalArrival.get() - nowNanos);
+    }
+    
+    public boolean isIdleSince(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos <= nowNanos;
+    }
+}
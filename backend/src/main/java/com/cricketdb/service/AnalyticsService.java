@@ -1,13 +1,27 @@
 package com.cricketdb.service;
 
+import com.cricketdb.archive.SeasonArchiveService;
+import com.cricketdb.archive.SeasonBoundary;
+import com.cricketdb.concurrency.Coalesced;
 import com.cricketdb.dto.AnalyticsResponse;
+import com.cricketdb.dto.PlayerComparisonResponse;
 import com.cricketdb.repository.BattingStatsRepository;
 import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.shard.Shards;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 public class AnalyticsService {
@@ -18,11 +32,32 @@ public class AnalyticsService {
     @Autowired
     private BowlingStatsRepository bowlingStatsRepository;
     
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private SeasonArchiveService seasonArchiveService;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Value("${cricketdb.compare.max-players:20}")
+    private int maxComparePlayers;
+    
+    @Coalesced
+    @Transactional(readOnly = true)
     public AnalyticsResponse getAnalytics() {
+        return merge(shards.onEveryShard(shard -> summarize()));
+    }
+    
+    private AnalyticsResponse summarize() {
         AnalyticsResponse.AnalyticsResponseBuilder builder = AnalyticsResponse.builder();
+        SeasonBoundary boundary = seasonArchiveService.boundary();
+        LocalDate liveFrom = boundary.liveFrom();
+        int archivedThrough = boundary.archivedThrough();
         
         // Highest Runs
-        List<Object[]> highestRunsData = battingStatsRepository.findHighestRunsData();
+        List<Object[]> highestRunsData = battingStatsRepository.findHighestRunsData(liveFrom, archivedThrough);
         if (!highestRunsData.isEmpty()) {
             Object[] data = highestRunsData.get(0);
             builder.highestRunsPlayer((String) data[0])
@@ -30,7 +65,7 @@ public class AnalyticsService {
         }
         
         // Highest Wickets
-        List<Object[]> highestWicketsData = bowlingStatsRepository.findHighestWicketsData();
+        List<Object[]> highestWicketsData = bowlingStatsRepository.findHighestWicketsData(liveFrom, archivedThrough);
         if (!highestWicketsData.isEmpty()) {
             Object[] data = highestWicketsData.get(0);
             builder.highestWicketsPlayer((String) data[0])
@@ -38,7 +73,7 @@ public class AnalyticsService {
         }
         
         // Most Maiden Overs
-        List<Object[]> mostMaidenOversData = bowlingStatsRepository.findMostMaidenOversData();
+        List<Object[]> mostMaidenOversData = bowlingStatsRepository.findMostMaidenOversData(liveFrom, archivedThrough);
         if (!mostMaidenOversData.isEmpty()) {
             Object[] data = mostMaidenOversData.get(0);
             builder.mostMaidenOversPlayer((String) data[0])
@@ -46,7 +81,7 @@ public class AnalyticsService {
         }
         
         // Best Batting Average
-        List<Object[]> bestBattingAverageData = battingStatsRepository.findBestBattingAverageData();
+        List<Object[]> bestBattingAverageData = battingStatsRepository.findBestBattingAverageData(liveFrom, archivedThrough);
         if (!bestBattingAverageData.isEmpty()) {
             Object[] data = bestBattingAverageData.get(0);
             builder.bestBattingAveragePlayer((String) data[0])
@@ -54,7 +89,7 @@ public class AnalyticsService {
         }
         
         // Best Bowling Economy
-        List<Object[]> bestBowlingEconomyData = bowlingStatsRepository.findBestBowlingEconomyData();
+        List<Object[]> bestBowlingEconomyData = bowlingStatsRepository.findBestBowlingEconomyData(liveFrom, archivedThrough);
         if (!bestBowlingEconomyData.isEmpty()) {
             Object[] data = bestBowlingEconomyData.get(0);
             builder.bestBowlingEconomyPlayer((String) data[0])
@@ -62,7 +97,7 @@ public class AnalyticsService {
         }
         
         // Total Centuries
-        List<Object[]> totalCenturiesData = battingStatsRepository.findTotalCenturiesData();
+        List<Object[]> totalCenturiesData = battingStatsRepository.findTotalCenturiesData(liveFrom, archivedThrough);
         if (!totalCenturiesData.isEmpty()) {
             Object[] data = totalCenturiesData.get(0);
             builder.totalCenturiesPlayer((String) data[0])
@@ -70,7 +105,7 @@ public class AnalyticsService {
         }
         
         // Total Five Wicket Hauls
-        List<Object[]> totalFiveWicketHaulsData = bowlingStatsRepository.findTotalFiveWicketHaulsData();
+        List<Object[]> totalFiveWicketHaulsData = bowlingStatsRepository.findTotalFiveWicketHaulsData(liveFrom, archivedThrough);
         if (!totalFiveWicketHaulsData.isEmpty()) {
             Object[] data = totalFiveWicketHaulsData.get(0);
             builder.totalFiveWicketHaulsPlayer((String) data[0])
@@ -78,23 +113,23 @@ public class AnalyticsService {
         }
         
         // Most Recent Century
-        List<Object[]> mostRecentCenturyData = battingStatsRepository.findMostRecentCenturyData();
+        List<Object[]> mostRecentCenturyData = battingStatsRepository.findMostRecentCenturyData(liveFrom, archivedThrough);
         if (!mostRecentCenturyData.isEmpty()) {
             Object[] data = mostRecentCenturyData.get(0);
             builder.mostRecentCenturyPlayer((String) data[0])
-                   .mostRecentCenturyDate((LocalDate) data[1]);
+                   .mostRecentCenturyDate(toLocalDate(data[1]));
         }
         
         // Most Recent Five Wicket Haul
-        List<Object[]> mostRecentFiveWicketHaulData = bowlingStatsRepository.findMostRecentFiveWicketHaulData();
+        List<Object[]> mostRecentFiveWicketHaulData = bowlingStatsRepository.findMostRecentFiveWicketHaulData(liveFrom, archivedThrough);
         if (!mostRecentFiveWicketHaulData.isEmpty()) {
             Object[] data = mostRecentFiveWicketHaulData.get(0);
             builder.mostRecentFiveWicketHaulPlayer((String) data[0])
-                   .mostRecentFiveWicketHaulDate((LocalDate) data[1]);
+                   .mostRecentFiveWicketHaulDate(toLocalDate(data[1]));
         }
         
         // Most Sixes
-        List<Object[]> mostSixesData = battingStatsRepository.findMostSixesData();
+        List<Object[]> mostSixesData = battingStatsRepository.findMostSixesData(liveFrom, archivedThrough);
         if (!mostSixesData.isEmpty()) {
             Object[] data = mostSixesData.get(0);
             builder.mostSixesPlayer((String) data[0])
@@ -102,7 +137,7 @@ public class AnalyticsService {
         }
         
         // Most Fours
-        List<Object[]> mostFoursData = battingStatsRepository.findMostFoursData();
+        List<Object[]> mostFoursData = battingStatsRepository.findMostFoursData(liveFrom, archivedThrough);
         if (!mostFoursData.isEmpty()) {
             Object[] data = mostFoursData.get(0);
             builder.mostFoursPlayer((String) data[0])
@@ -111,4 +146,177 @@ public class AnalyticsService {
         
         return builder.build();
     }
+    
+    // Side-by-side career figures; one grouped query per discipline for all players.
+    // Batting average (runs per match day) and economy use the same definitions as the summary above.
+    @Transactional(readOnly = true)
+    public PlayerComparisonResponse comparePlayers(List<Long> playerIds, LocalDate from, LocalDate to) {
+        List<Long> ids = playerIds.stream().distinct().toList();
+        if (ids.size() < 2 || ids.size() > maxComparePlayers) {
+            throw new RuntimeException("Compare between 2 and " + maxComparePlayers + " players");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        // Each player and their innings are on one shard, so every shard answers for its own ids
+        Map<Long, String> names = new HashMap<>();
+        shards.onEveryShard(shard -> playerRepository.findAllById(shards.idsOn(ids, shard)))
+                .forEach(players -> players.forEach(player -> names.put(player.getPlayerId(), player.getPlayerName())));
+        for (Long id : ids) {
+            if (!names.containsKey(id)) {
+                throw new RuntimeException("Player not found with id: " + id);
+            }
+        }
+        
+        // MySQL DATE range
+        LocalDate start = from != null ? from : LocalDate.of(1000, 1, 1);
+        LocalDate end = to != null ? to : LocalDate.of(9999, 12, 31);
+        // Archived seasons only have season totals, so a range can't start or end part way through one
+        SeasonBoundary boundary = seasonArchiveService.boundary();
+        if (boundary.isArchived(start.getYear()) && start.getDayOfYear() != 1) {
+            throw new RuntimeException("Season " + start.getYear() + " is archived and can only be compared whole");
+        }
+        if (boundary.isArchived(end.getYear()) && end.getDayOfYear() != end.lengthOfYear()) {
+            throw new RuntimeException("Season " + end.getYear() + " is archived and can only be compared whole");
+        }
+        LocalDate liveStart = start.isBefore(boundary.liveFrom()) ? boundary.liveFrom() : start;
+        int toSeason = Math.min(end.getYear(), boundary.archivedThrough());
+        Map<Long, Object[]> batting = onShardsOf(ids, shardIds -> battingStatsRepository.findAggregatesByPlayerIds(
+                shardIds, liveStart, end, start.getYear(), toSeason));
+        Map<Long, Object[]> bowling = onShardsOf(ids, shardIds -> bowlingStatsRepository.findAggregatesByPlayerIds(
+                shardIds, liveStart, end, start.getYear(), toSeason));
+        
+        Map<String, List<Number>> battingSeries = new LinkedHashMap<>();
+        Map<String, List<Number>> bowlingSeries = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Object[] b = batting.getOrDefault(id, new Object[10]);
+            long runs = count(b[2]);
+            long balls = count(b[3]);
+            add(battingSeries, "innings", count(b[1]));
+            add(battingSeries, "runs", runs);
+            add(battingSeries, "ballsPlayed", balls);
+            add(battingSeries, "average", ratio(runs, count(b[9]), 1));
+            add(battingSeries, "strikeRate", ratio(runs, balls, 100));
+            add(battingSeries, "fours", count(b[4]));
+            add(battingSeries, "sixes", count(b[5]));
+            add(battingSeries, "highestScore", count(b[6]));
+            add(battingSeries, "fifties", count(b[7]));
+            add(battingSeries, "centuries", count(b[8]));
+            
+            Object[] w = bowling.getOrDefault(id, new Object[8]);
+            double overs = w[2] != null ? ((Number) w[2]).doubleValue() : 0;
+            long runsGiven = count(w[4]);
+            long wickets = count(w[5]);
+            add(bowlingSeries, "innings", count(w[1]));
+            add(bowlingSeries, "overs", overs);
+            add(bowlingSeries, "maidens", count(w[3]));
+            add(bowlingSeries, "runsGiven", runsGiven);
+            add(bowlingSeries, "wickets", wickets);
+            add(bowlingSeries, "average", ratio(runsGiven, wickets, 1));
+            add(bowlingSeries, "economy", overs > 0 ? round(runsGiven / overs) : null);
+            add(bowlingSeries, "bestWickets", count(w[6]));
+            add(bowlingSeries, "fiveWicketHauls", count(w[7]));
+        }
+        
+        return new PlayerComparisonResponse(from, to, ids, ids.stream().map(names::get).toList(),
+                battingSeries, bowlingSeries);
+    }
+    
+    // A player's innings are all on one shard, so each overall leader is the best of the shards' leaders
+    private static AnalyticsResponse merge(List<AnalyticsResponse> shardSummaries) {
+        if (shardSummaries.size() == 1) {
+            return shardSummaries.get(0);
+        }
+        AnalyticsResponse highestRuns = leader(shardSummaries, AnalyticsResponse::getHighestRuns, false);
+        AnalyticsResponse highestWickets = leader(shardSummaries, AnalyticsResponse::getHighestWickets, false);
+        AnalyticsResponse mostMaidenOvers = leader(shardSummaries, AnalyticsResponse::getMostMaidenOvers, false);
+        AnalyticsResponse bestBattingAverage = leader(shardSummaries, AnalyticsResponse::getBestBattingAverage, false);
+        // Lower is better for economy
+        AnalyticsResponse bestBowlingEconomy = leader(shardSummaries, AnalyticsResponse::getBestBowlingEconomy, true);
+        AnalyticsResponse totalCenturies = leader(shardSummaries, AnalyticsResponse::getTotalCenturies, false);
+        AnalyticsResponse totalFiveWicketHauls = leader(shardSummaries, AnalyticsResponse::getTotalFiveWicketHauls, false);
+        AnalyticsResponse mostRecentCentury = leader(shardSummaries, AnalyticsResponse::getMostRecentCenturyDate, false);
+        AnalyticsResponse mostRecentFiveWicketHaul = leader(shardSummaries, AnalyticsResponse::getMostRecentFiveWicketHaulDate, false);
+        AnalyticsResponse mostSixes = leader(shardSummaries, AnalyticsResponse::getMostSixes, false);
+        AnalyticsResponse mostFours = leader(shardSummaries, AnalyticsResponse::getMostFours, false);
+        return AnalyticsResponse.builder()
+                .highestRuns(highestRuns.getHighestRuns())
+                .highestRunsPlayer(highestRuns.getHighestRunsPlayer())
+                .highestWickets(highestWickets.getHighestWickets())
+                .highestWicketsPlayer(highestWickets.getHighestWicketsPlayer())
+                .mostMaidenOvers(mostMaidenOvers.getMostMaidenOvers())
+                .mostMaidenOversPlayer(mostMaidenOvers.getMostMaidenOversPlayer())
+                .bestBattingAverage(bestBattingAverage.getBestBattingAverage())
+                .bestBattingAveragePlayer(bestBattingAverage.getBestBattingAveragePlayer())
+                .bestBowlingEconomy(bestBowlingEconomy.getBestBowlingEconomy())
+                .bestBowlingEconomyPlayer(bestBowlingEconomy.getBestBowlingEconomyPlayer())
+                .totalCenturies(totalCenturies.getTotalCenturies())
+                .totalCenturiesPlayer(totalCenturies.getTotalCenturiesPlayer())
+                .totalFiveWicketHauls(totalFiveWicketHauls.getTotalFiveWicketHauls())
+                .totalFiveWicketHaulsPlayer(totalFiveWicketHauls.getTotalFiveWicketHaulsPlayer())
+                .mostRecentCenturyDate(mostRecentCentury.getMostRecentCenturyDate())
+                .mostRecentCenturyPlayer(mostRecentCentury.getMostRecentCenturyPlayer())
+                .mostRecentFiveWicketHaulDate(mostRecentFiveWicketHaul.getMostRecentFiveWicketHaulDate())
+                .mostRecentFiveWicketHaulPlayer(mostRecentFiveWicketHaul.getMostRecentFiveWicketHaulPlayer())
+                .mostSixes(mostSixes.getMostSixes())
+                .mostSixesPlayer(mostSixes.getMostSixesPlayer())
+                .mostFours(mostFours.getMostFours())
+                .mostFoursPlayer(mostFours.getMostFoursPlayer())
+                .build();
+    }
+    
+    // The shard summary with the best non-null value; ties keep the earlier shard's leader. When no
+    // shard has one, the first summary, whose value is null too.
+    private static <T extends Comparable<? super T>> AnalyticsResponse leader(List<AnalyticsResponse> shardSummaries,
+                                                                            Function<AnalyticsResponse, T> value,
+                                                                            boolean lowest) {
+        AnalyticsResponse leader = shardSummaries.get(0);
+        for (AnalyticsResponse shard : shardSummaries) {
+            T candidate = value.apply(shard);
+            T current = value.apply(leader);
+            if (candidate != null && (current == null || (lowest ? candidate.compareTo(current) < 0 : candidate.compareTo(current) > 0))) {
+                leader = shard;
+            }
+        }
+        return leader;
+    }
+    
+    // Runs a grouped per-player query on every shard for the ids that live there
+    private Map<Long, Object[]> onShardsOf(List<Long> ids, Function<List<Long>, List<Object[]>> query) {
+        Map<Long, Object[]> aggregates = new HashMap<>();
+        shards.onEveryShard(shard -> {
+            List<Long> shardIds = shards.idsOn(ids, shard);
+            return shardIds.isEmpty() ? List.<Object[]>of() : query.apply(shardIds);
+        }).forEach(rows -> aggregates.putAll(byPlayer(rows)));
+        return aggregates;
+    }
+    
+    private static Map<Long, Object[]> byPlayer(List<Object[]> rows) {
+        Map<Long, Object[]> byPlayer = new HashMap<>();
+        for (Object[] row : rows) {
+            byPlayer.put(((Number) row[0]).longValue(), row);
+        }
+        return byPlayer;
+    }
+    
+    // Native queries return DATE columns as java.sql.Date
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+    
+    private static void add(Map<String, List<Number>> series, String metric, Number value) {
+        series.computeIfAbsent(metric, m -> new ArrayList<>()).add(value);
+    }
+    
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+    
+    private static Double ratio(long numerator, long denominator, int scale) {
+        return denominator > 0 ? round((double) numerator * scale / denominator) : null;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
 }
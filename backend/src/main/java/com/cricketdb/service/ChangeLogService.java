@@ -0,0 +1,234 @@
+package com.cricketdb.service;
+
+import com.cricketdb.dto.SyncResponse;
+import com.cricketdb.event.ChangeType;
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.model.ChangeEntityType;
+import com.cricketdb.model.ChangeLogEntry;
+import com.cricketdb.repository.ChangeLogRepository;
+import com.cricketdb.shard.Shards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ChangeLogService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogService.class);
+    private static final int COMPACT_BATCH = 1000;
+    
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cricketdb.sync.max-limit:1000}")
+    private int maxLimit;
+    
+    @Value("${cricketdb.sync.compact-after:1h}")
+    private Duration compactAfter;
+    
+    private TransactionTemplate primary;
+    private Timer lockWait;
+    private Timer lockHeld;
+    
+    @PostConstruct
+    public void init() {
+        primary = new TransactionTemplate(transactionManager);
+        lockWait = Timer.builder("cricketdb.changelog.lock.wait").register(meterRegistry);
+        lockHeld = Timer.builder("cricketdb.changelog.lock.held").register(meterRegistry);
+    }
+    
+    // Plain listeners run in the publisher's transaction, so the entry commits or rolls back with the write.
+    // The log lives on shard 0; writes on other shards append after they commit (see Shards.onGlobalShard).
+    @EventListener
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        shards.onGlobalShard(() -> append(ChangeEntityType.PLAYER, event.playerId(), event.playerId(), event.type()));
+    }
+    
+    @EventListener
+    public void onInningsChanged(InningsChangedEvent event) {
+        ChangeEntityType type = InningsChangedEvent.BATTING.equals(event.discipline())
+                ? ChangeEntityType.BATTING
+                : ChangeEntityType.BOWLING;
+        shards.onGlobalShard(() -> append(type, event.statsId(), event.playerId(), event.type()));
+    }
+    
+    @Transactional(readOnly = true)
+    public SyncResponse getChangesSince(Long since, int limit) {
+        if (since < 0) {
+            throw new RuntimeException("since cannot be negative");
+        }
+        int pageSize = Math.min(Math.max(limit, 1), maxLimit);
+        List<ChangeLogEntry> page = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = page.size() > pageSize;
+        List<ChangeLogEntry> changes = new ArrayList<>(page.subList(0, Math.min(page.size(), pageSize)));
+        // Seqs are taken in commit order (see PendingEntries), so every seq below a visible entry
+        // has committed or rolled back and a gap can't fill in later
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new SyncResponse(changes, nextSince, hasMore);
+    }
+    
+    // Only the latest entry per entity matters to a client, whatever its since
+    @Scheduled(fixedDelayString = "${cricketdb.sync.compaction-interval:600000}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(compactAfter);
+        int removed = 0;
+        int batch;
+        do {
+            // A transaction per batch keeps each delete's locks short
+            batch = primary.execute(tx -> {
+                List<Long> seqs = changeLogRepository.findSupersededBefore(cutoff, PageRequest.of(0, COMPACT_BATCH));
+                return seqs.isEmpty() ? 0 : changeLogRepository.deleteBySeqIn(seqs);
+            });
+            removed += batch;
+        } while (batch == COMPACT_BATCH);
+        if (removed > 0) {
+            log.info("Compacted {} superseded change log entries", removed);
+        }
+    }
+    
+    private void append(ChangeEntityType entityType, Long entityId, Long playerId, ChangeType op) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            primary.executeWithoutResult(tx -> append(entityType, entityId, playerId, op));
+            return;
+        }
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(new Pending(entityType, entityId, playerId, op));
+    }
+    
+    // The entity's new version. Entities older than the change log get their row on their first change;
+    // if two writers race to create it, one fails on the primary key.
+    private long bumpVersion(Pending entry) {
+        String entityType = entry.entityType().name();
+        if (changeLogRepository.incrementVersion(entityType, entry.entityId()) == 0) {
+            changeLogRepository.insertVersion(entityType, entry.entityId());
+        }
+        return changeLogRepository.findVersion(entityType, entry.entityId());
+    }
+    
+    // Entries of one transaction, written just before it commits. Each entity's version is bumped
+    // under its change_version row lock, so concurrent writers can't both record the same one. The
+    // seqs are taken holding the change_log_lock row, so a transaction gets them only after the
+    // previous appender has committed and seq order is commit order.
+    //
+    // That row serializes the commits of every writing transaction in the cluster: writes can't
+    // commit faster than 1 / (time the lock is held), which is the entries' inserts plus the
+    // commit's redo log flush. cricketdb.changelog.lock.held and .wait measure it; only the inserts
+    // run under the lock, and write-behind ingestion commits a batch at a time to amortize it.
+    private class PendingEntries implements TransactionSynchronization {
+        
+        private final List<Pending> entries = new ArrayList<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Row locks the transaction's own updates need are taken before the shared one
+            changeLogRepository.flush();
+            // In key order, so two writers touching the same entities can't deadlock on their rows
+            List<Integer> byEntity = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                byEntity.add(i);
+            }
+            byEntity.sort(Comparator.comparing((Integer i) -> entries.get(i).entityType())
+                    .thenComparing(i -> entries.get(i).entityId()));
+            long[] versions = new long[entries.size()];
+            for (int i : byEntity) {
+                versions[i] = bumpVersion(entries.get(i));
+            }
+            long start = System.nanoTime();
+            changeLogRepository.lockForAppend();
+            long lockedAt = System.nanoTime();
+            lockWait.record(lockedAt - start, TimeUnit.NANOSECONDS);
+            TransactionSynchronizationManager.registerSynchronization(new LockRelease(lockedAt));
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < entries.size(); i++) {
+                Pending entry = entries.get(i);
+                changeLogRepository.save(new ChangeLogEntry(null, entry.entityType(), entry.entityId(),
+                        entry.playerId(), entry.op(), versions[i], now));
+            }
+        }
+        
+        // After other synchronizations' beforeCommit work (cache invalidation bumps), so no
+        // transaction waits on another row while holding the change_log_lock
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLogService.this);
+        }
+    }
+    
+    // Times the change_log_lock from when it was taken until the commit or rollback released it,
+    // ahead of the after-commit listeners, which run with the lock already gone
+    private class LockRelease implements TransactionSynchronization {
+        
+        private final long lockedAt;
+        private boolean recorded;
+        
+        private LockRelease(long lockedAt) {
+            this.lockedAt = lockedAt;
+        }
+        
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+        
+        @Override
+        public void afterCommit() {
+            record();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            record();
+        }
+        
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                lockHeld.record(System.nanoTime() - lockedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    private record Pending(ChangeEntityType entityType, Long entityId, Long playerId, ChangeType op) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.cricketdb.service;
+
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.BowlingStats;
+import com.cricketdb.model.Player;
+import com.cricketdb.repository.PlayerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Sparse fieldsets (`fields=`): selects only the requested columns and returns them as maps
+// in the requested order
+@Service
+public class FieldSelectionService {
+    
+    // Field name -> attribute path; playerId on innings reads the foreign key, no join
+    private static final Map<String, String> PLAYER_FIELDS = fields(
+            "playerId", "playerName", "country", "startYear", "gender", "role", "notes");
+    private static final Map<String, String> BATTING_FIELDS = withPlayerId(fields(
+            "id", "runs", "ballsPlayed", "sixes", "fours", "against", "matchDate"));
+    private static final Map<String, String> BOWLING_FIELDS = withPlayerId(fields(
+            "id", "overs", "maidens", "runsGiven", "wicketsTaken", "against", "matchDate"));
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    // Validates and normalizes a fields parameter, e.g. "playerName, country" -> [playerName, country]
+    public List<String> parsePlayerFields(String fields) {
+        return parse(fields, PLAYER_FIELDS);
+    }
+    
+    public List<String> parseBattingFields(String fields) {
+        return parse(fields, BATTING_FIELDS);
+    }
+    
+    public List<String> parseBowlingFields(String fields) {
+        return parse(fields, BOWLING_FIELDS);
+    }
+    
+    // Suffix for ETags and cache keys so each fieldset is its own representation
+    public String variant(List<String> fields) {
+        return fields == null ? "" : "~" + String.join(".", fields);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPlayers(List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Player> root = query.from(Player.class);
+        query.multiselect(select(root, fields, PLAYER_FIELDS)).orderBy(cb.asc(root.get("playerId")));
+        return toMaps(entityManager.createQuery(query).getResultList(), fields);
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPlayer(Long id, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Player> root = query.from(Player.class);
+        query.multiselect(select(root, fields, PLAYER_FIELDS)).where(cb.equal(root.get("playerId"), id));
+        List<Map<String, Object>> result = toMaps(entityManager.createQuery(query).getResultList(), fields);
+        if (result.isEmpty()) {
+            throw new RuntimeException("Player not found with id: " + id);
+        }
+        return result.get(0);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBattingStatsByPlayer(Long playerId, List<String> fields) {
+        return getStatsByPlayer(BattingStats.class, playerId, fields, BATTING_FIELDS);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBowlingStatsByPlayer(Long playerId, List<String> fields) {
+        return getStatsByPlayer(BowlingStats.class, playerId, fields, BOWLING_FIELDS);
+    }
+    
+    private <T> List<Map<String, Object>> getStatsByPlayer(Class<T> type, Long playerId, List<String> fields,
+                                                           Map<String, String> allowed) {
+        if (!playerRepository.existsById(playerId)) {
+            throw new RuntimeException("Player not found with id: " + playerId);
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        query.multiselect(select(root, fields, allowed))
+                .where(cb.equal(root.get("player").get("playerId"), playerId))
+                .orderBy(cb.asc(root.get("id")));
+        return toMaps(entityManager.createQuery(query).getResultList(), fields);
+    }
+    
+    private static List<Selection<?>> select(Root<?> root, List<String> fields, Map<String, String> allowed) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            Path<?> path = root;
+            for (String attribute : allowed.get(field).split("\\.")) {
+                path = path.get(attribute);
+            }
+            selections.add(path.alias(field));
+        }
+        return selections;
+    }
+    
+    private static List<Map<String, Object>> toMaps(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    private static List<String> parse(String fields, Map<String, String> allowed) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.containsKey(name)) {
+                throw new RuntimeException("Unknown field: " + name + ". Allowed fields: " + String.join(", ", allowed.keySet()));
+            }
+            parsed.add(name);
+        }
+        if (parsed.isEmpty()) {
+            throw new RuntimeException("fields must name at least one field");
+        }
+        return List.copyOf(parsed);
+    }
+    
+    private static Map<String, String> fields(String... names) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String name : names) {
+            fields.put(name, name);
+        }
+        return fields;
+    }
+    
+    private static Map<String, String> withPlayerId(Map<String, String> fields) {
+        fields.put("playerId", "player.playerId");
+        return fields;
+    }
+}
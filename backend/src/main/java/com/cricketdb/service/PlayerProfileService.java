@@ -0,0 +1,132 @@
+package com.cricketdb.service;
+
+import com.cricketdb.cache.VersionCounters;
+import com.cricketdb.datasource.TaggedReads;
+import com.cricketdb.dto.PlayerProfileResponse;
+import com.cricketdb.dto.PlayerResponse;
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.BowlingStats;
+import com.cricketdb.repository.BattingStatsRepository;
+import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.shard.Shards;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+// Player page in one call: the player, recent innings and innings counts, loaded concurrently.
+// Separate connections can't share a MySQL snapshot, so the parts are checked against the
+// version counters; if a write landed in between, the profile is re-read in one read-only
+// transaction, which does see a single snapshot.
+@Service
+public class PlayerProfileService {
+    
+    @Autowired
+    private PlayerService playerService;
+    
+    @Autowired
+    private BattingStatsRepository battingStatsRepository;
+    
+    @Autowired
+    private BowlingStatsRepository bowlingStatsRepository;
+    
+    @Autowired
+    private VersionCounters versionCounters;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Autowired
+    @Qualifier("profileExecutor")
+    private ExecutorService profileExecutor;
+    
+    @Value("${cricketdb.profile.max-recent:200}")
+    private int maxRecent;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    // Tag of everything a profile depends on
+    public String profileTag(Long playerId) {
+        return versionCounters.playerTag(playerId) + "." + versionCounters.battingTag(playerId)
+                + "." + versionCounters.bowlingTag(playerId);
+    }
+    
+    public PlayerProfileResponse getProfile(Long playerId, int recent) {
+        if (recent < 0 || recent > maxRecent) {
+            throw new RuntimeException("recent must be between 0 and " + maxRecent);
+        }
+        String before = profileTag(playerId);
+        PlayerProfileResponse profile = loadConcurrently(playerId, recent);
+        if (before.equals(profileTag(playerId))) {
+            return profile;
+        }
+        return shards.onShardOf(playerId, () -> readOnlyTransaction.execute(tx -> new PlayerProfileResponse(
+                playerService.getPlayerById(playerId),
+                recentBatting(playerId, recent),
+                recentBowling(playerId, recent),
+                battingStatsRepository.countByPlayerPlayerId(playerId),
+                bowlingStatsRepository.countByPlayerPlayerId(playerId))));
+    }
+    
+    private PlayerProfileResponse loadConcurrently(Long playerId, int recent) {
+        // Carries the caller's authentication and version tag so replica routing treats the parts
+        // like the caller's own reads
+        Executor executor = new DelegatingSecurityContextExecutor(TaggedReads.propagating(profileExecutor));
+        CompletableFuture<PlayerResponse> player = CompletableFuture.supplyAsync(
+                () -> playerService.getPlayerById(playerId), executor);
+        CompletableFuture<Part<BattingStats>> batting = CompletableFuture.supplyAsync(
+                () -> shards.onShardOf(playerId, () -> readOnlyTransaction.execute(tx -> new Part<>(
+                        recentBatting(playerId, recent), battingStatsRepository.countByPlayerPlayerId(playerId)))), executor);
+        CompletableFuture<Part<BowlingStats>> bowling = CompletableFuture.supplyAsync(
+                () -> shards.onShardOf(playerId, () -> readOnlyTransaction.execute(tx -> new Part<>(
+                        recentBowling(playerId, recent), bowlingStatsRepository.countByPlayerPlayerId(playerId)))), executor);
+        
+        PlayerResponse playerResponse = await(player);
+        Part<BattingStats> battingPart = await(batting);
+        Part<BowlingStats> bowlingPart = await(bowling);
+        return new PlayerProfileResponse(playerResponse, battingPart.recent(), bowlingPart.recent(),
+                battingPart.count(), bowlingPart.count());
+    }
+    
+    private List<BattingStats> recentBatting(Long playerId, int recent) {
+        return recent == 0 ? List.of() : battingStatsRepository.findRecentByPlayerId(playerId, PageRequest.of(0, recent));
+    }
+    
+    private List<BowlingStats> recentBowling(Long playerId, int recent) {
+        return recent == 0 ? List.of() : bowlingStatsRepository.findRecentByPlayerId(playerId, PageRequest.of(0, recent));
+    }
+    
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private record Part<T>(List<T> recent, long count) {
+    }
+}
@@ -1,13 +1,28 @@
 package com.cricketdb.service;
 
+import com.cricketdb.archive.SeasonArchiveService;
+import com.cricketdb.concurrency.Coalesced;
+import com.cricketdb.dto.BatchGetResponse;
 import com.cricketdb.dto.PlayerRequest;
 import com.cricketdb.dto.PlayerResponse;
+import com.cricketdb.event.ChangeType;
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
 import com.cricketdb.model.Player;
 import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.shard.ShardRouted;
+import com.cricketdb.shard.Shards;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,12 +31,29 @@ public class PlayerService {
     @Autowired
     private PlayerRepository playerRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private SeasonArchiveService seasonArchiveService;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Value("${cricketdb.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<PlayerResponse> getAllPlayers() {
-        return playerRepository.findAll().stream()
+        return shards.onEveryShard(shard -> playerRepository.findAll()).stream()
+                .flatMap(List::stream)
                 .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .toList();
     }
     
+    @ShardRouted
+    @Transactional(readOnly = true)
     public List<PlayerResponse> getPlayersByCountry(String country) {
         if (country == null || country.equals("All")) {
             return getAllPlayers();
@@ -31,25 +63,57 @@ public class PlayerService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<String> getDistinctCountries() {
-        return playerRepository.findDistinctCountries();
+        return shards.onEveryShard(shard -> playerRepository.findDistinctCountries()).stream()
+                .flatMap(List::stream)
+                .distinct()
+                .sorted()
+                .toList();
     }
     
+    @Coalesced
+    @ShardRouted
+    @Transactional(readOnly = true)
     public PlayerResponse getPlayerById(Long id) {
         Player player = playerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + id));
         return convertToResponse(player);
     }
     
+    // One IN query for the whole batch; missing ids come back as NOT_FOUND
+    @Transactional(readOnly = true)
+    public BatchGetResponse<PlayerResponse> getPlayersByIds(List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new RuntimeException("A batch can contain at most " + maxBatchIds + " ids");
+        }
+        Set<Long> unique = new HashSet<>(ids);
+        Map<Long, PlayerResponse> found = shards.onEveryShard(shard -> playerRepository.findAllById(shards.idsOn(unique, shard)))
+                .stream()
+                .flatMap(List::stream)
+                .map(this::convertToResponse)
+                .collect(Collectors.toMap(PlayerResponse::getPlayerId, Function.identity()));
+        return BatchGetResponse.inRequestOrder(ids, found);
+    }
+    
+    @ShardRouted
+    @Transactional
     public PlayerResponse createPlayer(PlayerRequest request) {
         Player player = convertToEntity(request);
         Player savedPlayer = playerRepository.save(player);
+        eventPublisher.publishEvent(new PlayerChangedEvent(savedPlayer.getPlayerId(), ChangeType.CREATED));
         return convertToResponse(savedPlayer);
     }
     
+    @ShardRouted
+    @Transactional
     public PlayerResponse updatePlayer(Long id, PlayerRequest request) {
         Player existingPlayer = playerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + id));
+        // Their innings and id stay on the shard they were written to
+        if (shards.shardForCountry(request.getCountry()) != shards.shardOf(id)) {
+            throw new RuntimeException("Player " + id + " can't move to a country on another shard");
+        }
         
         existingPlayer.setPlayerName(request.getPlayerName());
         existingPlayer.setCountry(request.getCountry());
@@ -59,14 +123,27 @@ public class PlayerService {
         existingPlayer.setNotes(request.getNotes());
         
         Player updatedPlayer = playerRepository.save(existingPlayer);
+        eventPublisher.publishEvent(new PlayerChangedEvent(id, ChangeType.UPDATED));
         return convertToResponse(updatedPlayer);
     }
     
+    @ShardRouted
+    @Transactional
     public void deletePlayer(Long id) {
-        if (!playerRepository.existsById(id)) {
-            throw new RuntimeException("Player not found with id: " + id);
+        Player player = playerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Player not found with id: " + id));
+        // Innings are removed by cascade; announce them like any other innings delete
+        if (player.getBattingStats() != null) {
+            player.getBattingStats().forEach(stats -> eventPublisher.publishEvent(new InningsChangedEvent(
+                    id, InningsChangedEvent.BATTING, stats.getId(), ChangeType.DELETED, null)));
+        }
+        if (player.getBowlingStats() != null) {
+            player.getBowlingStats().forEach(stats -> eventPublisher.publishEvent(new InningsChangedEvent(
+                    id, InningsChangedEvent.BOWLING, stats.getId(), ChangeType.DELETED, null)));
         }
-        playerRepository.deleteById(id);
+        playerRepository.delete(player);
+        seasonArchiveService.deletePlayer(id);
+        eventPublisher.publishEvent(new PlayerChangedEvent(id, ChangeType.DELETED));
     }
     
     private Player convertToEntity(PlayerRequest request) {
@@ -1,18 +1,34 @@
 package com.cricketdb.service;
 
+import com.cricketdb.archive.SeasonArchiveService;
+import com.cricketdb.concurrency.Coalesced;
+import com.cricketdb.dto.BatchGetResponse;
 import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BattingStatsResponse;
 import com.cricketdb.dto.BowlingStatsRequest;
+import com.cricketdb.dto.BowlingStatsResponse;
+import com.cricketdb.event.ChangeType;
+import com.cricketdb.event.InningsChangedEvent;
 import com.cricketdb.model.BattingStats;
 import com.cricketdb.model.BowlingStats;
 import com.cricketdb.model.Player;
 import com.cricketdb.repository.BattingStatsRepository;
 import com.cricketdb.repository.BowlingStatsRepository;
 import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.shard.ShardRouted;
+import com.cricketdb.shard.Shards;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class StatsService {
@@ -26,9 +42,24 @@ public class StatsService {
     @Autowired
     private PlayerRepository playerRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private SeasonArchiveService seasonArchiveService;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Value("${cricketdb.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    @ShardRouted
+    @Transactional
     public BattingStats addBattingStats(BattingStatsRequest request) {
         Player player = playerRepository.findById(request.getPlayerId())
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + request.getPlayerId()));
+        seasonArchiveService.checkWritable(request.getMatchDate());
         
         BattingStats battingStats = new BattingStats();
         battingStats.setPlayer(player);
@@ -39,12 +70,17 @@ public class StatsService {
         battingStats.setAgainst(request.getAgainst());
         battingStats.setMatchDate(request.getMatchDate());
         
-        return battingStatsRepository.save(battingStats);
+        BattingStats saved = battingStatsRepository.save(battingStats);
+        publishBatting(saved, ChangeType.CREATED);
+        return saved;
     }
     
+    @ShardRouted
+    @Transactional
     public BowlingStats addBowlingStats(BowlingStatsRequest request) {
         Player player = playerRepository.findById(request.getPlayerId())
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + request.getPlayerId()));
+        seasonArchiveService.checkWritable(request.getMatchDate());
         
         BowlingStats bowlingStats = new BowlingStats();
         bowlingStats.setPlayer(player);
@@ -55,47 +91,95 @@ public class StatsService {
         bowlingStats.setAgainst(request.getAgainst());
         bowlingStats.setMatchDate(request.getMatchDate());
         
-        return bowlingStatsRepository.save(bowlingStats);
+        BowlingStats saved = bowlingStatsRepository.save(bowlingStats);
+        publishBowling(saved, ChangeType.CREATED);
+        return saved;
     }
     
+    @Coalesced
+    @ShardRouted
     @Transactional(readOnly = true)
-    public List<BattingStats> getBattingStatsByPlayer(Long playerId) {
+    public List<BattingStatsResponse> getBattingStatsByPlayer(Long playerId) {
         if (!playerRepository.existsById(playerId)) {
             throw new RuntimeException("Player not found with id: " + playerId);
         }
         // Use JOIN FETCH to eagerly load player and avoid lazy loading issues
-        return battingStatsRepository.findByPlayerIdWithPlayer(playerId);
+        return battingStatsRepository.findByPlayerIdWithPlayer(playerId).stream()
+                .map(BattingStatsResponse::from)
+                .toList();
     }
     
+    @Coalesced
+    @ShardRouted
     @Transactional(readOnly = true)
-    public List<BowlingStats> getBowlingStatsByPlayer(Long playerId) {
+    public List<BowlingStatsResponse> getBowlingStatsByPlayer(Long playerId) {
         if (!playerRepository.existsById(playerId)) {
             throw new RuntimeException("Player not found with id: " + playerId);
         }
         // Use JOIN FETCH to eagerly load player and avoid lazy loading issues
-        return bowlingStatsRepository.findByPlayerIdWithPlayer(playerId);
+        return bowlingStatsRepository.findByPlayerIdWithPlayer(playerId).stream()
+                .map(BowlingStatsResponse::from)
+                .toList();
     }
     
+    @ShardRouted
     @Transactional(readOnly = true)
     public BattingStats getBattingStatById(Long id) {
         return battingStatsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Batting stat not found with id: " + id));
     }
     
+    @ShardRouted
     @Transactional(readOnly = true)
     public BowlingStats getBowlingStatById(Long id) {
         return bowlingStatsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Bowling stat not found with id: " + id));
     }
     
+    // One IN query (player fetched in the same join) for the whole batch
+    @Transactional(readOnly = true)
+    public BatchGetResponse<BattingStats> getBattingStatsByIds(List<Long> ids) {
+        checkBatchSize(ids);
+        Set<Long> unique = new HashSet<>(ids);
+        Map<Long, BattingStats> found = shards.onEveryShard(shard -> {
+                    List<Long> onShard = shards.idsOn(unique, shard);
+                    return onShard.isEmpty() ? List.<BattingStats>of() : battingStatsRepository.findAllByIdWithPlayer(onShard);
+                })
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(BattingStats::getId, Function.identity()));
+        return BatchGetResponse.inRequestOrder(ids, found);
+    }
+    
+    @Transactional(readOnly = true)
+    public BatchGetResponse<BowlingStats> getBowlingStatsByIds(List<Long> ids) {
+        checkBatchSize(ids);
+        Set<Long> unique = new HashSet<>(ids);
+        Map<Long, BowlingStats> found = shards.onEveryShard(shard -> {
+                    List<Long> onShard = shards.idsOn(unique, shard);
+                    return onShard.isEmpty() ? List.<BowlingStats>of() : bowlingStatsRepository.findAllByIdWithPlayer(onShard);
+                })
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(BowlingStats::getId, Function.identity()));
+        return BatchGetResponse.inRequestOrder(ids, found);
+    }
+    
+    @ShardRouted
     @Transactional
     public BattingStats updateBattingStats(Long id, BattingStatsRequest request) {
         BattingStats existingStats = battingStatsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Batting stat not found with id: " + id));
+        if (shards.shardOf(request.getPlayerId()) != shards.shardOf(id)) {
+            throw new RuntimeException("Batting stat " + id + " can't move to a player on another shard");
+        }
         
         Player player = playerRepository.findById(request.getPlayerId())
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + request.getPlayerId()));
+        seasonArchiveService.checkWritable(existingStats.getMatchDate());
+        seasonArchiveService.checkWritable(request.getMatchDate());
         
+        Long previousPlayerId = existingStats.getPlayer().getPlayerId();
         existingStats.setPlayer(player);
         existingStats.setRuns(request.getRuns());
         existingStats.setBallsPlayed(request.getBallsPlayed());
@@ -104,17 +188,30 @@ public class StatsService {
         existingStats.setAgainst(request.getAgainst());
         existingStats.setMatchDate(request.getMatchDate());
         
-        return battingStatsRepository.save(existingStats);
+        BattingStats saved = battingStatsRepository.save(existingStats);
+        if (!previousPlayerId.equals(player.getPlayerId())) {
+            eventPublisher.publishEvent(new InningsChangedEvent(previousPlayerId, InningsChangedEvent.BATTING,
+                    id, ChangeType.DELETED, null));
+        }
+        publishBatting(saved, ChangeType.UPDATED);
+        return saved;
     }
     
+    @ShardRouted
     @Transactional
     public BowlingStats updateBowlingStats(Long id, BowlingStatsRequest request) {
         BowlingStats existingStats = bowlingStatsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Bowling stat not found with id: " + id));
+        if (shards.shardOf(request.getPlayerId()) != shards.shardOf(id)) {
+            throw new RuntimeException("Bowling stat " + id + " can't move to a player on another shard");
+        }
         
         Player player = playerRepository.findById(request.getPlayerId())
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + request.getPlayerId()));
+        seasonArchiveService.checkWritable(existingStats.getMatchDate());
+        seasonArchiveService.checkWritable(request.getMatchDate());
         
+        Long previousPlayerId = existingStats.getPlayer().getPlayerId();
         existingStats.setPlayer(player);
         existingStats.setOvers(request.getOvers());
         existingStats.setMaidens(request.getMaidens());
@@ -123,22 +220,50 @@ public class StatsService {
         existingStats.setAgainst(request.getAgainst());
         existingStats.setMatchDate(request.getMatchDate());
         
-        return bowlingStatsRepository.save(existingStats);
+        BowlingStats saved = bowlingStatsRepository.save(existingStats);
+        if (!previousPlayerId.equals(player.getPlayerId())) {
+            eventPublisher.publishEvent(new InningsChangedEvent(previousPlayerId, InningsChangedEvent.BOWLING,
+                    id, ChangeType.DELETED, null));
+        }
+        publishBowling(saved, ChangeType.UPDATED);
+        return saved;
     }
     
+    @ShardRouted
     @Transactional
     public void deleteBattingStats(Long id) {
-        if (!battingStatsRepository.existsById(id)) {
-            throw new RuntimeException("Batting stat not found with id: " + id);
-        }
-        battingStatsRepository.deleteById(id);
+        BattingStats existingStats = battingStatsRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Batting stat not found with id: " + id));
+        seasonArchiveService.checkWritable(existingStats.getMatchDate());
+        battingStatsRepository.delete(existingStats);
+        eventPublisher.publishEvent(new InningsChangedEvent(existingStats.getPlayer().getPlayerId(),
+                InningsChangedEvent.BATTING, id, ChangeType.DELETED, null));
     }
     
+    @ShardRouted
     @Transactional
     public void deleteBowlingStats(Long id) {
-        if (!bowlingStatsRepository.existsById(id)) {
-            throw new RuntimeException("Bowling stat not found with id: " + id);
+        BowlingStats existingStats = bowlingStatsRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Bowling stat not found with id: " + id));
+        seasonArchiveService.checkWritable(existingStats.getMatchDate());
+        bowlingStatsRepository.delete(existingStats);
+        eventPublisher.publishEvent(new InningsChangedEvent(existingStats.getPlayer().getPlayerId(),
+                InningsChangedEvent.BOWLING, id, ChangeType.DELETED, null));
+    }
+    
+    private void checkBatchSize(List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new RuntimeException("A batch can contain at most " + maxBatchIds + " ids");
         }
-        bowlingStatsRepository.deleteById(id);
+    }
+    
+    private void publishBatting(BattingStats stats, ChangeType type) {
+        eventPublisher.publishEvent(new InningsChangedEvent(stats.getPlayer().getPlayerId(),
+                InningsChangedEvent.BATTING, stats.getId(), type, stats));
+    }
+    
+    private void publishBowling(BowlingStats stats, ChangeType type) {
+        eventPublisher.publishEvent(new InningsChangedEvent(stats.getPlayer().getPlayerId(),
+                InningsChangedEvent.BOWLING, stats.getId(), type, stats));
     }
 }
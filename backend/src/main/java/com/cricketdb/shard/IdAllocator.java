@@ -0,0 +1,95 @@
+package com.cricketdb.shard;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ids for players and innings, reserved in blocks from id_allocation on the shard being written
+// and tagged with that shard, so they are unique across shards without AUTO_INCREMENT. Each block
+// is reserved on a connection of its own and committed at once, whatever the caller's
+// transaction does; ids of a rolled-back insert or an unfinished block are skipped. The callers
+// already hold a connection of the main pool, so blocks come from a small pool of their own
+// (ShardingDataSourceConfig) and callers can't use up the connections the reservation needs.
+@Component
+@ConditionalOnProperty(name = "cricketdb.datasource.sharding.enabled", havingValue = "true")
+public class IdAllocator {
+    
+    @Autowired
+    @Qualifier("idAllocationDataSource")
+    private DataSource dataSource;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Value("${cricketdb.ids.block-size:50}")
+    private int blockSize;
+    
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    
+    public long next(String sequence) {
+        int shard = shards.currentShard();
+        Block block = blocks.computeIfAbsent(sequence + "@" + shard, key -> new Block());
+        long value;
+        // A lock rather than synchronized so virtual threads waiting on the round trip don't pin their carrier
+        block.lock.lock();
+        try {
+            if (block.next >= block.end) {
+                block.next = reserve(sequence);
+                block.end = block.next + blockSize;
+            }
+            value = block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+        return shards.encode(value, shard);
+    }
+    
+    private long reserve(String sequence) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long next;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT next_id FROM id_allocation WHERE name = ? FOR UPDATE")) {
+                    select.setString(1, sequence);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new IllegalStateException("No id_allocation row for " + sequence);
+                        }
+                        next = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE id_allocation SET next_id = ? WHERE name = ?")) {
+                    update.setLong(1, next + blockSize);
+                    update.setString(2, sequence);
+                    update.executeUpdate();
+                }
+                connection.commit();
+                return next;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not reserve ids for " + sequence, e);
+        }
+    }
+    
+    private static class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cricketdb.shard;
+
+// The shard the current thread's transactions go to. Set outside the transaction (by
+// ShardRoutingAspect or Shards), since the connection is fetched when the transaction starts.
+public final class ShardContext {
+    
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    
+    private ShardContext() {
+    }
+    
+    // Null when nothing routed this thread, which means shard 0
+    public static Integer current() {
+        return CURRENT.get();
+    }
+    
+    // Returns the previous shard, to be passed to restore
+    public static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+    
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.cricketdb.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Runs the method on the shard of its first argument (see Shards.shardFor): a player or innings
+// id, a country, or a request naming either. Must be entered outside any transaction.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardRouted {
+}
@@ -0,0 +1,33 @@
+package com.cricketdb.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Inside the coalescing advice and outside the transaction advice, so the transaction opens on the shard
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ShardRoutingAspect {
+    
+    @Autowired
+    private Shards shards;
+    
+    @Around("@annotation(com.cricketdb.shard.ShardRouted)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shards.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Object[] args = joinPoint.getArgs();
+        Integer previous = ShardContext.enter(shards.shardFor(args.length > 0 ? args[0] : null));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+}
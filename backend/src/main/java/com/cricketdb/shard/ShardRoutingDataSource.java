@@ -0,0 +1,35 @@
+package com.cricketdb.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sends each connection to the shard in ShardContext, or shard 0 when none is set. Must sit
+// behind a LazyConnectionDataSourceProxy like the read/write router.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private final List<HikariDataSource> shards;
+    
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = shards;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+    
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
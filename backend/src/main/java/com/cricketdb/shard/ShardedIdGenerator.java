@@ -0,0 +1,72 @@
+package com.cricketdb.shard;
+
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.OnExecutionGenerator;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.PostInsertIdentityPersister;
+import org.hibernate.id.insert.InsertGeneratedIdentifierDelegate;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Properties;
+
+// Hibernate side of IdAllocator; the "sequence" parameter names the id_allocation row. With sharding
+// off it is plain IDENTITY, so unsharded inserts keep using AUTO_INCREMENT. Hibernate creates
+// @GenericGenerator types through its bean container, which Boot backs with the Spring context, so
+// the allocator is injected. It is resolved on first use: the entity manager factory needs the
+// generator before the allocator's own dependencies can be created.
+public class ShardedIdGenerator implements IdentifierGenerator, OnExecutionGenerator {
+    
+    @Autowired
+    private ObjectProvider<IdAllocator> allocator;
+    
+    @Value("${cricketdb.datasource.sharding.enabled:false}")
+    private boolean sharded;
+    
+    private final IdentityGenerator identity = new IdentityGenerator();
+    private String sequence;
+    
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        if (allocator == null) {
+            throw new MappingException("ShardedIdGenerator must be created through the Spring bean container");
+        }
+        sequence = parameters.getProperty("sequence");
+    }
+    
+    @Override
+    public boolean generatedOnExecution() {
+        return !sharded;
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return allocator.getObject().next(sequence);
+    }
+    
+    @Override
+    public boolean referenceColumnsInSql(Dialect dialect) {
+        return identity.referenceColumnsInSql(dialect);
+    }
+    
+    @Override
+    public boolean writePropertyValue() {
+        return identity.writePropertyValue();
+    }
+    
+    @Override
+    public String[] getReferencedColumnValues(Dialect dialect) {
+        return identity.getReferencedColumnValues(dialect);
+    }
+    
+    @Override
+    public InsertGeneratedIdentifierDelegate getGeneratedIdentifierDelegate(PostInsertIdentityPersister persister) {
+        return identity.getGeneratedIdentifierDelegate(persister);
+    }
+}
@@ -0,0 +1,104 @@
+package com.cricketdb.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "cricketdb.datasource.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+    
+    // spring.datasource.* stays shard 0; pool settings come from spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shardZeroDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+    
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource shardZeroDataSource,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties shardingProperties,
+                                                         FlywayProperties flywayProperties,
+                                                         MeterRegistry meterRegistry) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(shardZeroDataSource);
+        for (int i = 0; i < shardingProperties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = shardingProperties.getShards().get(i);
+            
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + (i + 1));
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+            dataSource.setMaximumPoolSize(shardingProperties.getPoolSize());
+            dataSource.setMetricRegistry(meterRegistry);
+            
+            // Spring Boot migrates shard 0 only; Hibernate's schema update also only reaches shard 0,
+            // so the migrations create everything a shard needs
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations(flywayProperties.getLocations().toArray(new String[0]))
+                    .baselineOnMigrate(flywayProperties.isBaselineOnMigrate())
+                    .baselineVersion(flywayProperties.getBaselineVersion())
+                    .load()
+                    .migrate();
+            
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+    
+    // For IdAllocator, whose callers already hold a connection from the pools above
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource idAllocationDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties shardingProperties,
+                                                         @Value("${cricketdb.ids.pool-size:2}") int poolSize) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(idAllocationPool(0, dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(), dataSourceProperties, poolSize));
+        for (int i = 0; i < shardingProperties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = shardingProperties.getShards().get(i);
+            shards.add(idAllocationPool(i + 1, shard.getUrl(), shard.getUsername(), shard.getPassword(),
+                    dataSourceProperties, poolSize));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+    
+    private static HikariDataSource idAllocationPool(int shard, String url, String username, String password,
+                                                     DataSourceProperties dataSourceProperties, int poolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("shard-" + shard + "-ids");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+        return dataSource;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cricketdb.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cricketdb.datasource.sharding")
+public class ShardingProperties {
+    
+    private boolean enabled = false;
+    
+    private int poolSize = 10;
+    
+    // Country -> shard index; countries without a placement are hashed across the shards
+    private Map<String, Integer> placements = new HashMap<>();
+    
+    // Shards 1..n; spring.datasource is shard 0 and also holds the tables that aren't sharded
+    private List<Shard> shards = new ArrayList<>();
+    
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,76 @@
+package com.cricketdb.shard;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Shards.shardOf reads the shard out of an id, and only ids written with sharding on carry one.
+// Each database records which kind its players have (sharding_state) and startup refuses the
+// other mode while players exist. Runs once the schema is migrated, before the server takes requests.
+@Component
+public class ShardingStateCheck implements SmartInitializingSingleton {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            Integer previous = ShardContext.enter(shard);
+            try {
+                check(shard);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not check the sharding state of shard " + shard, e);
+            } finally {
+                ShardContext.restore(previous);
+            }
+        }
+    }
+    
+    private void check(int shard) throws SQLException {
+        boolean encoded = shards.isEnabled();
+        try (Connection connection = dataSource.getConnection()) {
+            // The first node to start on an empty database records its mode
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO sharding_state (id, encoded, shard_count) VALUES (1, ?, ?) ON DUPLICATE KEY UPDATE id = id")) {
+                insert.setBoolean(1, encoded);
+                insert.setInt(2, shards.count());
+                insert.executeUpdate();
+            }
+            boolean recorded;
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT encoded FROM sharding_state WHERE id = 1");
+                 ResultSet rs = select.executeQuery()) {
+                rs.next();
+                recorded = rs.getBoolean(1);
+            }
+            if (recorded != encoded && holdsPlayers(connection)) {
+                throw new IllegalStateException(encoded
+                        ? "Shard " + shard + " holds players written without sharding; sharding needs empty databases"
+                        : "The database holds players written with sharding on; it can't be used with sharding off");
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE sharding_state SET encoded = ?, shard_count = ? WHERE id = 1")) {
+                update.setBoolean(1, encoded);
+                update.setInt(2, shards.count());
+                update.executeUpdate();
+            }
+        }
+    }
+    
+    private static boolean holdsPlayers(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT 1 FROM players LIMIT 1");
+             ResultSet rs = select.executeQuery()) {
+            return rs.next();
+        }
+    }
+}
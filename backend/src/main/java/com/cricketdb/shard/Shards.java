@@ -0,0 +1,264 @@
+package com.cricketdb.shard;
+
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BowlingStatsRequest;
+import com.cricketdb.dto.PlayerRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Where players live when sharding is on. A player goes to the shard of their country and their
+// innings follow them. Ids carry the shard they were written on (id % MAX_SHARDS), so a lookup
+// by id needs no directory. With sharding off there is one shard and everything runs inline.
+@Component
+public class Shards {
+    
+    public static final int MAX_SHARDS = 64;
+    
+    @Autowired
+    private ShardingProperties properties;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${cricketdb.datasource.routing.enabled:false}")
+    private boolean routingEnabled;
+    
+    // Features that keep state or run queries across players on one database only
+    @Value("${cricketdb.live.enabled:true}")
+    private boolean liveEnabled;
+    
+    @Value("${cricketdb.rank.enabled:true}")
+    private boolean rankEnabled;
+    
+    @Value("${cricketdb.similarity.enabled:true}")
+    private boolean similarityEnabled;
+    
+    @Value("${cricketdb.distribution.enabled:true}")
+    private boolean distributionEnabled;
+    
+    @Value("${cricketdb.archive.enabled:false}")
+    private boolean archiveEnabled;
+    
+    @Value("${cricketdb.warm-start.enabled:false}")
+    private boolean warmStartEnabled;
+    
+    private final Map<String, Integer> placements = new HashMap<>();
+    private TransactionTemplate readOnly;
+    private TransactionTemplate global;
+    private ExecutorService executor;
+    
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // Runs from afterCommit, where the caller's resources are still bound
+        global = new TransactionTemplate(transactionManager);
+        global.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (routingEnabled) {
+            throw new IllegalStateException("Sharding can't be combined with read/write routing");
+        }
+        List<String> unsharded = new ArrayList<>();
+        addIf(unsharded, liveEnabled, "cricketdb.live");
+        addIf(unsharded, rankEnabled, "cricketdb.rank");
+        addIf(unsharded, similarityEnabled, "cricketdb.similarity");
+        addIf(unsharded, distributionEnabled, "cricketdb.distribution");
+        addIf(unsharded, archiveEnabled, "cricketdb.archive");
+        addIf(unsharded, warmStartEnabled, "cricketdb.warm-start");
+        if (!unsharded.isEmpty()) {
+            throw new IllegalStateException("Sharding only covers players, innings and analytics; set enabled: false for "
+                    + String.join(", ", unsharded));
+        }
+        int count = count();
+        if (count > MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported");
+        }
+        properties.getPlacements().forEach((country, shard) -> {
+            if (shard < 0 || shard >= count) {
+                throw new IllegalStateException("Shard " + shard + " for " + country + " does not exist");
+            }
+            placements.put(normalize(country), shard);
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(count, r -> {
+            Thread thread = new Thread(r, "shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+    
+    public int count() {
+        return properties.isEnabled() ? properties.getShards().size() + 1 : 1;
+    }
+    
+    public int currentShard() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+    
+    public int shardForCountry(String country) {
+        if (!properties.isEnabled() || country == null) {
+            return 0;
+        }
+        String key = normalize(country);
+        Integer placed = placements.get(key);
+        // String.hashCode is fixed by the spec, so every node hashes a country the same way
+        return placed != null ? placed : Math.floorMod(key.hashCode(), count());
+    }
+    
+    public int shardOf(long id) {
+        return properties.isEnabled() ? (int) (id % MAX_SHARDS) : 0;
+    }
+    
+    // An id drawn from a sequence on this shard
+    public long encode(long value, int shard) {
+        return properties.isEnabled() ? value * MAX_SHARDS + shard : value;
+    }
+    
+    public int shardFor(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        if (key instanceof Long id) {
+            return shardOf(id);
+        }
+        if (key instanceof String country) {
+            return shardForCountry(country);
+        }
+        if (key instanceof PlayerRequest request) {
+            return shardForCountry(request.getCountry());
+        }
+        if (key instanceof BattingStatsRequest request) {
+            return request.getPlayerId() != null ? shardOf(request.getPlayerId()) : 0;
+        }
+        if (key instanceof BowlingStatsRequest request) {
+            return request.getPlayerId() != null ? shardOf(request.getPlayerId()) : 0;
+        }
+        throw new IllegalArgumentException("No shard key in " + key.getClass().getSimpleName());
+    }
+    
+    // The ids among `ids` that live on `shard`
+    public List<Long> idsOn(Collection<Long> ids, int shard) {
+        return ids.stream().filter(id -> shardOf(id) == shard).toList();
+    }
+    
+    // Runs `work` with its transactions on the id's shard; the caller opens them inside
+    public <T> T onShardOf(Long id, Supplier<T> work) {
+        if (!properties.isEnabled()) {
+            return work.get();
+        }
+        Integer previous = ShardContext.enter(shardOf(id));
+        try {
+            return work.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+    
+    // Scatter-gather: `work` runs in a read-only transaction on every shard in parallel, results in
+    // shard order. With sharding off it runs once, inline, in the caller's transaction.
+    public <T> List<T> onEveryShard(IntFunction<T> work) {
+        if (!properties.isEnabled()) {
+            return Collections.singletonList(work.apply(0));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < count(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Integer previous = ShardContext.enter(target);
+                try {
+                    return readOnly.execute(tx -> work.apply(target));
+                } finally {
+                    ShardContext.restore(previous);
+                }
+            }, executor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+    
+    // For writes to tables only shard 0 serves (change log, cache invalidation). On shard 0 they
+    // join the caller's transaction. From another shard they run on shard 0 in a transaction of
+    // their own once the caller commits, so a node dying in between loses them.
+    public void onGlobalShard(Runnable work) {
+        if (currentShard() == 0) {
+            work.run();
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runOnShardZero(work);
+                }
+            });
+            return;
+        }
+        runOnShardZero(work);
+    }
+    
+    private void runOnShardZero(Runnable work) {
+        Integer previous = ShardContext.enter(0);
+        try {
+            global.executeWithoutResult(tx -> work.run());
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+    
+    private static void addIf(List<String> features, boolean enabled, String feature) {
+        if (enabled) {
+            features.add(feature);
+        }
+    }
+    
+    private static String normalize(String country) {
+        return country.trim().toLowerCase(Locale.ROOT);
+    }
+}
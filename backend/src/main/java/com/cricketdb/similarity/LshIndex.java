@@ -0,0 +1,86 @@
+package com.cricketdb.similarity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Random-hyperplane LSH. Each table hashes a vector to the sign pattern of its dot products
+// with `bits` random hyperplanes, so nearby vectors tend to share a bucket in some table.
+// Not thread-safe; PlayerVectors guards it with its own lock.
+public class LshIndex {
+    
+    private final int tables;
+    private final int bits;
+    private final float[] planes;
+    private final List<Map<Integer, Set<Long>>> buckets;
+    private final Map<Long, int[]> codes = new HashMap<>();
+    
+    public LshIndex(int tables, int bits, long seed) {
+        this.tables = tables;
+        this.bits = bits;
+        this.planes = new float[tables * bits * PlayerVectors.DIMS];
+        Random random = new Random(seed);
+        for (int i = 0; i < planes.length; i++) {
+            planes[i] = (float) random.nextGaussian();
+        }
+        this.buckets = new ArrayList<>(tables);
+        for (int t = 0; t < tables; t++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+    
+    void put(long playerId, float[] vector) {
+        remove(playerId);
+        int[] code = new int[tables];
+        for (int t = 0; t < tables; t++) {
+            code[t] = hash(t, vector);
+            buckets.get(t).computeIfAbsent(code[t], c -> new HashSet<>()).add(playerId);
+        }
+        codes.put(playerId, code);
+    }
+    
+    void remove(long playerId) {
+        int[] code = codes.remove(playerId);
+        if (code == null) {
+            return;
+        }
+        for (int t = 0; t < tables; t++) {
+            Set<Long> bucket = buckets.get(t).get(code[t]);
+            bucket.remove(playerId);
+            if (bucket.isEmpty()) {
+                buckets.get(t).remove(code[t]);
+            }
+        }
+    }
+    
+    Set<Long> candidates(float[] vector) {
+        Set<Long> candidates = new HashSet<>();
+        for (int t = 0; t < tables; t++) {
+            Set<Long> bucket = buckets.get(t).get(hash(t, vector));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+    
+    private int hash(int table, float[] vector) {
+        int code = 0;
+        int base = table * bits * PlayerVectors.DIMS;
+        for (int b = 0; b < bits; b++) {
+            int offset = base + b * PlayerVectors.DIMS;
+            float dot = 0;
+            for (int d = 0; d < PlayerVectors.DIMS; d++) {
+                dot += planes[offset + d] * vector[d];
+            }
+            if (dot > 0) {
+                code |= 1 << b;
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,205 @@
+package com.cricketdb.similarity;
+
+import com.cricketdb.model.PlayerRole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Normalized career vectors, DIMS floats per player in one row-major array so a scan is a
+// single pass over contiguous memory. Removal moves the last row into the gap to keep it dense.
+public class PlayerVectors {
+    
+    public static final int DIMS = 8;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final LshIndex lsh;
+    private float[] matrix;
+    private long[] ids;
+    private String[] names;
+    private PlayerRole[] roles;
+    private int size;
+    
+    // lsh may be null, in which case every query is an exact scan
+    public PlayerVectors(int capacity, LshIndex lsh) {
+        int initial = Math.max(capacity, 16);
+        this.matrix = new float[initial * DIMS];
+        this.ids = new long[initial];
+        this.names = new String[initial];
+        this.roles = new PlayerRole[initial];
+        this.lsh = lsh;
+    }
+    
+    public void put(long playerId, String playerName, PlayerRole role, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(playerId);
+            if (slot == null) {
+                ensureCapacity(size + 1);
+                slot = size++;
+                slots.put(playerId, slot);
+            }
+            System.arraycopy(vector, 0, matrix, slot * DIMS, DIMS);
+            ids[slot] = playerId;
+            names[slot] = playerName;
+            roles[slot] = role;
+            if (lsh != null) {
+                lsh.put(playerId, vector);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long playerId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(playerId);
+            if (slot == null) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                System.arraycopy(matrix, last * DIMS, matrix, slot * DIMS, DIMS);
+                ids[slot] = ids[last];
+                names[slot] = names[last];
+                roles[slot] = roles[last];
+                slots.put(ids[slot], slot);
+            }
+            names[last] = null;
+            roles[last] = null;
+            if (lsh != null) {
+                lsh.remove(playerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // A copy of every row, for the warm-start snapshot
+    public List<Row> rows() {
+        lock.readLock().lock();
+        try {
+            List<Row> rows = new ArrayList<>(size);
+            for (int row = 0; row < size; row++) {
+                rows.add(new Row(ids[row], names[row], roles[row],
+                        Arrays.copyOfRange(matrix, row * DIMS, row * DIMS + DIMS)));
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Null when the player isn't indexed. Approximate queries re-rank the LSH candidates exactly
+    // and fall back to a full scan if the buckets hold fewer than k other players.
+    public Nearest nearest(long playerId, int k, boolean approximate) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(playerId);
+            if (slot == null) {
+                return null;
+            }
+            float[] query = Arrays.copyOfRange(matrix, slot * DIMS, slot * DIMS + DIMS);
+            if (approximate && lsh != null) {
+                TopK top = new TopK(k);
+                for (long candidate : lsh.candidates(query)) {
+                    Integer row = slots.get(candidate);
+                    if (row != null && row.intValue() != slot) {
+                        top.offer(row, squaredDistance(query, row));
+                    }
+                }
+                if (top.count == k || top.count == size - 1) {
+                    return new Nearest("approximate", top.toNeighbours());
+                }
+            }
+            TopK top = new TopK(k);
+            for (int row = 0; row < size; row++) {
+                if (row != slot) {
+                    top.offer(row, squaredDistance(query, row));
+                }
+            }
+            return new Nearest("exact", top.toNeighbours());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private float squaredDistance(float[] query, int row) {
+        int offset = row * DIMS;
+        float sum = 0;
+        for (int d = 0; d < DIMS; d++) {
+            float diff = matrix[offset + d] - query[d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+    
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        matrix = Arrays.copyOf(matrix, capacity * DIMS);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        roles = Arrays.copyOf(roles, capacity);
+    }
+    
+    public record Row(long playerId, String playerName, PlayerRole role, float[] vector) {
+    }
+    
+    public record Neighbour(long playerId, String playerName, PlayerRole role, double distance) {
+    }
+    
+    public record Nearest(String method, List<Neighbour> neighbours) {
+    }
+    
+    // Sorted insertion into fixed arrays; k is small, so this beats a heap
+    private class TopK {
+        private final float[] distances;
+        private final int[] rows;
+        private int count;
+        
+        TopK(int k) {
+            distances = new float[k];
+            rows = new int[k];
+        }
+        
+        void offer(int row, float distance) {
+            if (count == rows.length && distance >= distances[count - 1]) {
+                return;
+            }
+            int i = count < rows.length ? count++ : count - 1;
+            while (i > 0 && distances[i - 1] > distance) {
+                distances[i] = distances[i - 1];
+                rows[i] = rows[i - 1];
+                i--;
+            }
+            distances[i] = distance;
+            rows[i] = row;
+        }
+        
+        List<Neighbour> toNeighbours() {
+            List<Neighbour> neighbours = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int row = rows[i];
+                neighbours.add(new Neighbour(ids[row], names[row], roles[row], Math.sqrt(distances[i])));
+            }
+            return neighbours;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.cricketdb.similarity;
+
+import com.cricketdb.archive.SeasonArchiveService;
+import com.cricketdb.archive.SeasonBoundary;
+import com.cricketdb.dto.SimilarPlayersResponse;
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.event.RemoteChangesEvent;
+import com.cricketdb.model.Player;
+import com.cricketdb.model.PlayerRole;
+import com.cricketdb.repository.BattingStatsRepository;
+import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.snapshot.SnapshotReader;
+import com.cricketdb.snapshot.SnapshotWriter;
+import com.cricketdb.snapshot.WarmStartState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// "Players like X": each player is a vector of career ratios (batting average, strike rate,
+// boundary %, economy, wickets per innings), z-scored, plus a one-hot role. Writes only mark
+// the player dirty; the refresh job re-reads the dirty players' totals in one grouped query
+// per discipline. Normalization is refitted on a full rebuild, which also runs once enough
+// rows have been updated against the old fit. Vectors are built without holding any lock and
+// published with one volatile write; only the publication itself is serialized.
+@Service
+public class SimilarPlayerService implements WarmStartState {
+    
+    private static final Logger log = LoggerFactory.getLogger(SimilarPlayerService.class);
+    private static final int FEATURES = 5;
+    private static final long LSH_SEED = 0x5eed;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private BattingStatsRepository battingStatsRepository;
+    
+    @Autowired
+    private BowlingStatsRepository bowlingStatsRepository;
+    
+    @Autowired
+    private SeasonArchiveService seasonArchiveService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cricketdb.similarity.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.similarity.max-k:50}")
+    private int maxK;
+    
+    @Value("${cricketdb.similarity.rebuild-interval:3600000}")
+    private long rebuildIntervalMillis;
+    
+    @Value("${cricketdb.similarity.approximate-threshold:20000}")
+    private int approximateThreshold;
+    
+    @Value("${cricketdb.similarity.lsh-tables:8}")
+    private int lshTables;
+    
+    @Value("${cricketdb.similarity.lsh-bits:12}")
+    private int lshBits;
+    
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final AtomicReference<CompletableFuture<Snapshot>> firstLoad = new AtomicReference<>();
+    private volatile Snapshot snapshot;
+    private volatile int updatesSinceRebuild;
+    private TransactionTemplate primaryReads;
+    
+    @PostConstruct
+    public void init() {
+        // Not read-only, so refreshes go to the primary and see the commit that marked them dirty
+        primaryReads = new TransactionTemplate(transactionManager);
+        Gauge.builder("cricketdb.similarity.players", this, s -> s.snapshot != null ? s.snapshot.vectors().size() : 0)
+                .register(meterRegistry);
+    }
+    
+    public SimilarPlayersResponse findSimilar(Long playerId, int k) {
+        if (!enabled) {
+            throw new RuntimeException("Similar players are disabled");
+        }
+        if (k < 1 || k > maxK) {
+            throw new RuntimeException("k must be between 1 and " + maxK);
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = loadIfEmpty();
+        }
+        // A player created since the last refresh isn't indexed yet and reads as not found
+        PlayerVectors.Nearest nearest = current.vectors().nearest(playerId, k, current.approximate());
+        if (nearest == null) {
+            throw new RuntimeException("Player not found with id: " + playerId);
+        }
+        List<SimilarPlayersResponse.SimilarPlayer> similar = new ArrayList<>(nearest.neighbours().size());
+        for (PlayerVectors.Neighbour neighbour : nearest.neighbours()) {
+            similar.add(new SimilarPlayersResponse.SimilarPlayer(neighbour.playerId(), neighbour.playerName(),
+                    neighbour.role(), Math.round(neighbour.distance() * 10000) / 10000.0));
+        }
+        return new SimilarPlayersResponse(playerId, nearest.method(), similar);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInningsChanged(InningsChangedEvent event) {
+        if (enabled) {
+            dirty.add(event.playerId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        if (enabled) {
+            dirty.add(event.playerId());
+        }
+    }
+    
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (enabled) {
+            dirty.addAll(event.playerIds());
+        }
+    }
+    
+    // After the first load only this job replaces the snapshot, and the scheduler never overlaps its runs
+    @Scheduled(fixedDelayString = "${cricketdb.similarity.refresh-interval:1000}")
+    public void refresh() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Built on first use, so an idle node never loads it
+            return;
+        }
+        try {
+            if (System.currentTimeMillis() - current.builtAt() >= rebuildIntervalMillis
+                    || updatesSinceRebuild > current.vectors().size() / 10) {
+                // Anything committed after this point is marked dirty again and applied on top
+                dirty.clear();
+                publish(build(), false);
+                return;
+            }
+            if (dirty.isEmpty()) {
+                return;
+            }
+            List<Long> playerIds = new ArrayList<>(dirty);
+            playerIds.forEach(dirty::remove);
+            try {
+                update(current, playerIds);
+            } catch (RuntimeException e) {
+                dirty.addAll(playerIds);
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh similar-player vectors", e);
+        }
+    }
+    
+    @Override
+    public String snapshotSection() {
+        return "similarity";
+    }
+    
+    // The fit (means, deviations), whether the LSH index is on, then per player: id, name, role
+    // and vector; then the players still marked dirty
+    @Override
+    public boolean writeSnapshot(SnapshotWriter out) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+        out.writeInt(FEATURES);
+        out.writeInt(PlayerVectors.DIMS);
+        for (int f = 0; f < FEATURES; f++) {
+            out.writeFloat(current.scaler().means()[f]);
+            out.writeFloat(current.scaler().deviations()[f]);
+        }
+        out.writeBoolean(current.approximate());
+        List<PlayerVectors.Row> rows = current.vectors().rows();
+        out.writeInt(rows.size());
+        for (PlayerVectors.Row row : rows) {
+            out.writeLong(row.playerId());
+            out.writeString(row.playerName());
+            out.writeString(row.role().name());
+            for (float value : row.vector()) {
+                out.writeFloat(value);
+            }
+        }
+        List<Long> pending = new ArrayList<>(dirty);
+        out.writeInt(pending.size());
+        pending.forEach(out::writeLong);
+        return true;
+    }
+    
+    // Read in full before anything is published, so a bad section leaves the service empty
+    @Override
+    public void readSnapshot(SnapshotReader in, Set<Long> changedPlayerIds) {
+        if (snapshot != null) {
+            return;
+        }
+        int features = in.readInt();
+        int dims = in.readInt();
+        if (features != FEATURES || dims != PlayerVectors.DIMS) {
+            throw new IllegalStateException("Snapshot vectors have " + features + " features and " + dims
+                    + " dimensions, expected " + FEATURES + " and " + PlayerVectors.DIMS);
+        }
+        float[] means = new float[FEATURES];
+        float[] deviations = new float[FEATURES];
+        for (int f = 0; f < FEATURES; f++) {
+            means[f] = in.readFloat();
+            deviations[f] = in.readFloat();
+        }
+        boolean approximate = in.readBoolean();
+        int count = in.readInt();
+        PlayerVectors vectors = new PlayerVectors(count, approximate ? new LshIndex(lshTables, lshBits, LSH_SEED) : null);
+        float[] vector = new float[PlayerVectors.DIMS];
+        for (int i = 0; i < count; i++) {
+            long playerId = in.readLong();
+            String playerName = in.readString();
+            PlayerRole role = PlayerRole.valueOf(in.readString());
+            for (int d = 0; d < PlayerVectors.DIMS; d++) {
+                vector[d] = in.readFloat();
+            }
+            vectors.put(playerId, playerName, role, vector);
+        }
+        Set<Long> pending = new HashSet<>(changedPlayerIds);
+        int pendingCount = in.readInt();
+        for (int i = 0; i < pendingCount; i++) {
+            pending.add(in.readLong());
+        }
+        // Counted from now, so the restored fit isn't refitted by a full rebuild straight away
+        Snapshot restored = new Snapshot(vectors, new Scaler(means, deviations), approximate, System.currentTimeMillis());
+        if (publish(restored, true) != restored) {
+            return;
+        }
+        dirty.addAll(pending);
+        log.info("Restored similar-player vectors for {} players; {} to re-read", count, dirty.size());
+    }
+    
+    // Concurrent first callers wait for one build instead of each starting their own
+    private Snapshot loadIfEmpty() {
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> inFlight = firstLoad.compareAndExchange(null, mine);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                dirty.clear();
+                current = publish(build(), true);
+            }
+            mine.complete(current);
+            return current;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            firstLoad.compareAndSet(mine, null);
+        }
+    }
+    
+    // Returns the snapshot in place afterwards: the existing one when onlyIfEmpty finds one
+    private Snapshot publish(Snapshot built, boolean onlyIfEmpty) {
+        publishLock.lock();
+        try {
+            if (onlyIfEmpty && snapshot != null) {
+                return snapshot;
+            }
+            snapshot = built;
+            updatesSinceRebuild = 0;
+            return built;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+    
+    private Snapshot build() {
+        return primaryReads.execute(tx -> {
+            List<Player> players = playerRepository.findAll();
+            SeasonBoundary boundary = seasonArchiveService.boundary();
+            Map<Long, Object[]> batting = byPlayer(battingStatsRepository.findCareerTotals(
+                    boundary.liveFrom(), boundary.archivedThrough()));
+            Map<Long, Object[]> bowling = byPlayer(bowlingStatsRepository.findCareerTotals(
+                    boundary.liveFrom(), boundary.archivedThrough()));
+            
+            List<float[]> raw = new ArrayList<>(players.size());
+            for (Player player : players) {
+                raw.add(rawFeatures(batting.get(player.getPlayerId()), bowling.get(player.getPlayerId())));
+            }
+            Scaler scaler = Scaler.fit(raw);
+            boolean approximate = players.size() >= approximateThreshold;
+            PlayerVectors vectors = new PlayerVectors(players.size(),
+                    approximate ? new LshIndex(lshTables, lshBits, LSH_SEED) : null);
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                vectors.put(player.getPlayerId(), player.getPlayerName(), player.getRole(),
+                        scaler.vector(raw.get(i), player.getRole()));
+            }
+            return new Snapshot(vectors, scaler, approximate, System.currentTimeMillis());
+        });
+    }
+    
+    private void update(Snapshot current, List<Long> playerIds) {
+        primaryReads.executeWithoutResult(tx -> {
+            Map<Long, Player> players = new HashMap<>();
+            playerRepository.findAllById(playerIds).forEach(player -> players.put(player.getPlayerId(), player));
+            SeasonBoundary boundary = seasonArchiveService.boundary();
+            Map<Long, Object[]> batting = byPlayer(battingStatsRepository.findCareerTotalsByPlayerIds(playerIds,
+                    boundary.liveFrom(), boundary.archivedThrough()));
+            Map<Long, Object[]> bowling = byPlayer(bowlingStatsRepository.findCareerTotalsByPlayerIds(playerIds,
+                    boundary.liveFrom(), boundary.archivedThrough()));
+            for (Long playerId : playerIds) {
+                Player player = players.get(playerId);
+                if (player == null) {
+                    current.vectors().remove(playerId);
+                    continue;
+                }
+                float[] raw = rawFeatures(batting.get(playerId), bowling.get(playerId));
+                current.vectors().put(playerId, player.getPlayerName(), player.getRole(),
+                        current.scaler().vector(raw, player.getRole()));
+            }
+        });
+        updatesSinceRebuild += playerIds.size();
+    }
+    
+    // NaN marks a ratio the player has no data for; it normalizes to the population mean
+    private static float[] rawFeatures(Object[] batting, Object[] bowling) {
+        float[] raw = new float[FEATURES];
+        Arrays.fill(raw, Float.NaN);
+        if (batting != null) {
+            double innings = number(batting[1]);
+            double runs = number(batting[2]);
+            double balls = number(batting[3]);
+            double boundaryRuns = 4 * number(batting[4]) + 6 * number(batting[5]);
+            raw[0] = ratio(runs, innings, 1);
+            raw[1] = ratio(runs, balls, 100);
+            raw[2] = ratio(boundaryRuns, runs, 100);
+        }
+        if (bowling != null) {
+            double innings = number(bowling[1]);
+            raw[3] = ratio(number(bowling[3]), number(bowling[2]), 1);
+            raw[4] = ratio(number(bowling[4]), innings, 1);
+        }
+        return raw;
+    }
+    
+    private static float ratio(double numerator, double denominator, int scale) {
+        return denominator > 0 ? (float) (numerator * scale / denominator) : Float.NaN;
+    }
+    
+    private static double number(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0;
+    }
+    
+    private static Map<Long, Object[]> byPlayer(List<Object[]> rows) {
+        Map<Long, Object[]> byPlayer = new HashMap<>();
+        for (Object[] row : rows) {
+            byPlayer.put(((Number) row[0]).longValue(), row);
+        }
+        return byPlayer;
+    }
+    
+    private record Snapshot(PlayerVectors vectors, Scaler scaler, boolean approximate, long builtAt) {
+    }
+    
+    // Per-feature mean and standard deviation over the players that have the feature
+    private record Scaler(float[] means, float[] deviations) {
+        
+        static Scaler fit(List<float[]> rows) {
+            float[] means = new float[FEATURES];
+            float[] deviations = new float[FEATURES];
+            for (int f = 0; f < FEATURES; f++) {
+                double sum = 0;
+                double sumOfSquares = 0;
+                int count = 0;
+                for (float[] row : rows) {
+                    if (!Float.isNaN(row[f])) {
+                        sum += row[f];
+                        sumOfSquares += (double) row[f] * row[f];
+                        count++;
+                    }
+                }
+                double mean = count > 0 ? sum / count : 0;
+                double variance = count > 0 ? sumOfSquares / count - mean * mean : 0;
+                means[f] = (float) mean;
+                deviations[f] = variance > 1e-9 ? (float) Math.sqrt(variance) : 1;
+            }
+            return new Scaler(means, deviations);
+        }
+        
+        float[] vector(float[] raw, PlayerRole role) {
+            float[] vector = new float[PlayerVectors.DIMS];
+            for (int f = 0; f < FEATURES; f++) {
+                vector[f] = Float.isNaN(raw[f]) ? 0 : (raw[f] - means[f]) / deviations[f];
+            }
+            vector[FEATURES + role.ordinal()] = 1;
+            return vector;
+        }
+    }
+}
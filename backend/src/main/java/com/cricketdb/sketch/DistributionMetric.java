@@ -0,0 +1,35 @@
+package com.cricketdb.sketch;
+
+public enum DistributionMetric {
+    // Per batting innings
+    RUNS("runs"),
+    STRIKE_RATE("strike-rate"),
+    // Per bowling innings
+    ECONOMY("economy"),
+    WICKETS("wickets"),
+    // Distinct teams faced, batting or bowling
+    OPPONENTS("opponents");
+    
+    private final String path;
+    
+    DistributionMetric(String path) {
+        this.path = path;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public boolean isQuantile() {
+        return this != OPPONENTS;
+    }
+    
+    public static DistributionMetric fromPath(String path) {
+        for (DistributionMetric metric : values()) {
+            if (metric.path.equals(path)) {
+                return metric;
+            }
+        }
+        throw new RuntimeException("Unknown distribution metric: " + path);
+    }
+}
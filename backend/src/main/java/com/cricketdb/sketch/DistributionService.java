@@ -0,0 +1,471 @@
+package com.cricketdb.sketch;
+
+import com.cricketdb.dto.DistributionResponse;
+import com.cricketdb.dto.SyncResponse;
+import com.cricketdb.event.ChangeType;
+import com.cricketdb.model.AnalyticsSketch;
+import com.cricketdb.model.ChangeEntityType;
+import com.cricketdb.model.ChangeLogEntry;
+import com.cricketdb.repository.AnalyticsSketchRepository;
+import com.cricketdb.repository.BattingStatsRepository;
+import com.cricketdb.repository.BowlingStatsRepository;
+import com.cricketdb.repository.ChangeLogRepository;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.service.ChangeLogService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Quantile (KLL) and distinct-opponent (HyperLogLog) sketches over all innings and per player.
+// Sketches follow the change log rather than in-process events, so they catch up from their
+// persisted throughSeq after a restart and see writes from every node. New innings are folded
+// in; an updated or deleted one marks the scope stale. Stale player sketches are rebuilt on
+// their next read (a few hundred rows), the global one at most once per rebuild-debounce.
+//
+// A scope's throughSeq is the highest change_log seq visible in the snapshot it was built
+// from; entries at or below it are never applied to it again. Seqs are taken in commit order
+// (see ChangeLogService), so every lower seq is settled in that snapshot and the rows read
+// alongside it include their writes; builds run REPEATABLE READ so they share the snapshot.
+//
+// Scopes are loaded and built outside the monitor, one load per scope at a time, and only
+// published under it; readers of loaded scopes never wait on the database.
+@Service
+public class DistributionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DistributionService.class);
+    private static final String GLOBAL = "global";
+    // A player rarely faces more than a dozen teams; 1k registers keep their rows small
+    private static final int PLAYER_HLL_PRECISION = 10;
+    private static final int MAX_QUANTILES = 20;
+    private static final List<Double> DEFAULT_QUANTILES = List.of(0.1, 0.25, 0.5, 0.75, 0.9, 0.99);
+    
+    @Autowired
+    private ChangeLogService changeLogService;
+    
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    
+    @Autowired
+    private BattingStatsRepository battingStatsRepository;
+    
+    @Autowired
+    private BowlingStatsRepository bowlingStatsRepository;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private AnalyticsSketchRepository sketchRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${cricketdb.distribution.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.distribution.kll-k:200}")
+    private int kllK;
+    
+    @Value("${cricketdb.distribution.hll-precision:12}")
+    private int hllPrecision;
+    
+    @Value("${cricketdb.distribution.max-player-sketches:1000}")
+    private int maxPlayerSketches;
+    
+    @Value("${cricketdb.distribution.rebuild-debounce:600000}")
+    private long rebuildDebounceMillis;
+    
+    @Value("${cricketdb.sync.max-limit:1000}")
+    private int tailBatch;
+    
+    // Serializes the tail, global rebuilds and flushes; readers only take the monitor on this
+    private final Object maintenance = new Object();
+    private final Map<String, CompletableFuture<DistributionSketches>> loading = new ConcurrentHashMap<>();
+    private final Set<String> unsaved = new HashSet<>();
+    private Map<Long, DistributionSketches> players;
+    private DistributionSketches global;
+    private long watermark;
+    private long globalStaleSince;
+    private TransactionTemplate primary;
+    private TransactionTemplate snapshot;
+    
+    @PostConstruct
+    public void init() {
+        // Not read-only: the tail must see rows for every entry it reads, so no replica lag
+        primary = new TransactionTemplate(transactionManager);
+        snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        players = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DistributionSketches> eldest) {
+                // Unsaved changes are dropped with it; the next load catches up from the change log
+                return size() > maxPlayerSketches;
+            }
+        };
+    }
+    
+    public DistributionResponse getDistribution(String metricPath, Long playerId, List<Double> quantiles) {
+        if (!enabled) {
+            throw new RuntimeException("Distributions are disabled");
+        }
+        DistributionMetric metric = DistributionMetric.fromPath(metricPath);
+        List<Double> requested = quantiles == null || quantiles.isEmpty() ? DEFAULT_QUANTILES : quantiles;
+        if (requested.size() > MAX_QUANTILES) {
+            throw new RuntimeException("At most " + MAX_QUANTILES + " quantiles can be requested");
+        }
+        for (Double q : requested) {
+            if (q == null || q < 0 || q > 1) {
+                throw new RuntimeException("Quantiles must be between 0 and 1");
+            }
+        }
+        
+        DistributionSketches sketches = playerId == null ? globalSketches() : playerSketches(playerId);
+        // The tail updates sketches in place under the monitor
+        synchronized (this) {
+            if (!metric.isQuantile()) {
+                HyperLogLog opponents = sketches.opponents();
+                return new DistributionResponse(metric.getPath(), playerId, null, null, null, null, null,
+                        opponents.estimate(), round(opponents.relativeError(), 4), sketches.isStale());
+            }
+            KllSketch sketch = sketches.quantiles(metric);
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (Double q : requested) {
+                values.put(String.valueOf(q), value(sketch.quantile(q)));
+            }
+            return new DistributionResponse(metric.getPath(), playerId, sketch.getCount(), value(sketch.getMin()),
+                    value(sketch.getMax()), values, round(sketch.rankError(), 4), null, null, sketches.isStale());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.distribution.refresh-interval:2000}")
+    public void refresh() {
+        synchronized (maintenance) {
+            synchronized (this) {
+                if (global == null) {
+                    // Loaded on first use, so an idle node never builds it
+                    return;
+                }
+            }
+            try {
+                tail();
+                boolean rebuildDue;
+                synchronized (this) {
+                    rebuildDue = globalStaleSince > 0 && System.currentTimeMillis() - globalStaleSince >= rebuildDebounceMillis;
+                }
+                if (rebuildDue) {
+                    rebuildGlobal();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh distribution sketches", e);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.distribution.persist-interval:30000}")
+    public void persist() {
+        synchronized (maintenance) {
+            List<AnalyticsSketch> rows = new ArrayList<>();
+            synchronized (this) {
+                for (String scope : unsaved) {
+                    DistributionSketches sketches = GLOBAL.equals(scope) ? global : players.get(playerId(scope));
+                    if (sketches != null && !sketches.isStale()) {
+                        rows.add(new AnalyticsSketch(scope, sketches.toBytes(), sketches.getThroughSeq(), LocalDateTime.now()));
+                    }
+                }
+                unsaved.clear();
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                primary.executeWithoutResult(tx -> sketchRepository.saveAll(rows));
+            } catch (RuntimeException e) {
+                log.warn("Could not persist {} distribution sketches", rows.size(), e);
+                synchronized (this) {
+                    rows.forEach(row -> unsaved.add(row.getScope()));
+                }
+            }
+        }
+    }
+    
+    private DistributionSketches globalSketches() {
+        synchronized (this) {
+            if (global != null) {
+                return global;
+            }
+        }
+        DistributionSketches loaded = load(GLOBAL, () -> snapshot.execute(tx -> sketchRepository.findById(GLOBAL)
+                .map(row -> DistributionSketches.fromBytes(row.getData(), row.getThroughSeq()))
+                .orElseGet(this::buildGlobal)));
+        synchronized (this) {
+            if (global == null) {
+                global = loaded;
+                watermark = loaded.getThroughSeq();
+            }
+            return global;
+        }
+    }
+    
+    private DistributionSketches playerSketches(Long playerId) {
+        // The tail only advances once the global sketches exist
+        globalSketches();
+        synchronized (this) {
+            DistributionSketches sketches = players.get(playerId);
+            if (sketches != null && !sketches.isStale()) {
+                return sketches;
+            }
+        }
+        DistributionSketches loaded = load(playerScope(playerId), () -> snapshot.execute(tx -> loadPlayer(playerId)));
+        synchronized (this) {
+            DistributionSketches current = players.get(playerId);
+            if (current != null && !current.isStale()) {
+                // Published by a load that finished first
+                return current;
+            }
+            players.put(playerId, loaded);
+            unsaved.add(playerScope(playerId));
+            // The tail skipped this player's entries while it had no sketches; as after a global
+            // rebuild, entries past the snapshot are read again and filtered by each scope's throughSeq
+            watermark = Math.min(watermark, loaded.getThroughSeq());
+            return loaded;
+        }
+    }
+    
+    // Callers asking for a scope that is already loading wait for that load instead of starting another
+    private DistributionSketches load(String scope, Supplier<DistributionSketches> loader) {
+        CompletableFuture<DistributionSketches> mine = new CompletableFuture<>();
+        CompletableFuture<DistributionSketches> inFlight = loading.putIfAbsent(scope, mine);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            DistributionSketches loaded = loader.get();
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(scope, mine);
+        }
+    }
+    
+    // Persisted sketches plus the player's newer innings, or a rebuild if any of those were edited
+    private DistributionSketches loadPlayer(Long playerId) {
+        if (!playerRepository.existsById(playerId)) {
+            throw new RuntimeException("Player not found with id: " + playerId);
+        }
+        long maxSeq = changeLogRepository.findMaxSeq();
+        DistributionSketches sketches = sketchRepository.findById(playerScope(playerId))
+                .map(row -> DistributionSketches.fromBytes(row.getData(), row.getThroughSeq()))
+                .orElse(null);
+        if (sketches != null && catchUp(sketches, changeLogRepository.findByPlayerIdAndSeqGreaterThanOrderBySeqAsc(
+                playerId, sketches.getThroughSeq()))) {
+            sketches.setThroughSeq(maxSeq);
+            return sketches;
+        }
+        sketches = new DistributionSketches(kllK, PLAYER_HLL_PRECISION);
+        for (Object[] row : battingStatsRepository.findDistributionValuesByPlayerId(playerId)) {
+            addBatting(sketches, row);
+        }
+        for (Object[] row : bowlingStatsRepository.findDistributionValuesByPlayerId(playerId)) {
+            addBowling(sketches, row);
+        }
+        for (Object[] row : battingStatsRepository.findArchivedDistributionValuesByPlayerId(playerId)) {
+            addBatting(sketches, row);
+        }
+        for (Object[] row : bowlingStatsRepository.findArchivedDistributionValuesByPlayerId(playerId)) {
+            addBowling(sketches, row);
+        }
+        sketches.setThroughSeq(maxSeq);
+        return sketches;
+    }
+    
+    private boolean catchUp(DistributionSketches sketches, List<ChangeLogEntry> entries) {
+        List<Long> batting = new ArrayList<>();
+        List<Long> bowling = new ArrayList<>();
+        for (ChangeLogEntry entry : entries) {
+            if (entry.getEntityType() == ChangeEntityType.PLAYER) {
+                continue;
+            }
+            if (entry.getOp() != ChangeType.CREATED) {
+                return false;
+            }
+            (entry.getEntityType() == ChangeEntityType.BATTING ? batting : bowling).add(entry.getEntityId());
+        }
+        if (!batting.isEmpty()) {
+            battingStatsRepository.findDistributionValuesByIds(batting).forEach(row -> addBatting(sketches, row));
+        }
+        if (!bowling.isEmpty()) {
+            bowlingStatsRepository.findDistributionValuesByIds(bowling).forEach(row -> addBowling(sketches, row));
+        }
+        return true;
+    }
+    
+    private DistributionSketches buildGlobal() {
+        DistributionSketches sketches = new DistributionSketches(kllK, hllPrecision);
+        sketches.setThroughSeq(changeLogRepository.findMaxSeq());
+        try (Stream<Object[]> rows = battingStatsRepository.streamDistributionValues()) {
+            rows.forEach(row -> addBatting(sketches, row));
+        }
+        try (Stream<Object[]> rows = bowlingStatsRepository.streamDistributionValues()) {
+            rows.forEach(row -> addBowling(sketches, row));
+        }
+        // Innings the season archiver moved out still count
+        try (Stream<Object[]> rows = battingStatsRepository.streamArchivedDistributionValues()) {
+            rows.forEach(row -> addBatting(sketches, row));
+        }
+        try (Stream<Object[]> rows = bowlingStatsRepository.streamArchivedDistributionValues()) {
+            rows.forEach(row -> addBowling(sketches, row));
+        }
+        return sketches;
+    }
+    
+    private void rebuildGlobal() {
+        DistributionSketches rebuilt = snapshot.execute(tx -> buildGlobal());
+        synchronized (this) {
+            global = rebuilt;
+            globalStaleSince = 0;
+            // Entries the old sketches had applied past the snapshot are applied again by the tail
+            watermark = Math.min(watermark, rebuilt.getThroughSeq());
+            unsaved.add(GLOBAL);
+        }
+        log.info("Rebuilt global distribution sketches through change log seq {}", rebuilt.getThroughSeq());
+    }
+    
+    private void tail() {
+        for (int page = 0; page < 10; page++) {
+            long since;
+            synchronized (this) {
+                since = watermark;
+            }
+            Batch batch = primary.execute(tx -> readBatch(since));
+            if (batch.changes().getNextSince() == since) {
+                return;
+            }
+            synchronized (this) {
+                apply(batch);
+                watermark = batch.changes().getNextSince();
+            }
+            if (!batch.changes().isHasMore()) {
+                return;
+            }
+        }
+    }
+    
+    private Batch readBatch(long since) {
+        SyncResponse changes = changeLogService.getChangesSince(since, tailBatch);
+        List<Long> batting = new ArrayList<>();
+        List<Long> bowling = new ArrayList<>();
+        for (ChangeLogEntry entry : changes.getChanges()) {
+            if (entry.getOp() == ChangeType.CREATED && entry.getEntityType() == ChangeEntityType.BATTING) {
+                batting.add(entry.getEntityId());
+            } else if (entry.getOp() == ChangeType.CREATED && entry.getEntityType() == ChangeEntityType.BOWLING) {
+                bowling.add(entry.getEntityId());
+            }
+        }
+        return new Batch(changes,
+                batting.isEmpty() ? Map.of() : byId(battingStatsRepository.findDistributionValuesByIds(batting)),
+                bowling.isEmpty() ? Map.of() : byId(bowlingStatsRepository.findDistributionValuesByIds(bowling)));
+    }
+    
+    private void apply(Batch batch) {
+        for (ChangeLogEntry entry : batch.changes().getChanges()) {
+            if (entry.getEntityType() == ChangeEntityType.PLAYER) {
+                continue;
+            }
+            boolean isBatting = entry.getEntityType() == ChangeEntityType.BATTING;
+            // Gone since; its DELETED entry follows
+            Object[] row = (isBatting ? batch.batting() : batch.bowling()).get(entry.getEntityId());
+            applyTo(GLOBAL, global, entry, row, isBatting);
+            applyTo(playerScope(entry.getPlayerId()), players.get(entry.getPlayerId()), entry, row, isBatting);
+        }
+    }
+    
+    private void applyTo(String scope, DistributionSketches sketches, ChangeLogEntry entry, Object[] row, boolean isBatting) {
+        if (sketches == null || sketches.isStale() || entry.getSeq() <= sketches.getThroughSeq()) {
+            return;
+        }
+        if (entry.getOp() != ChangeType.CREATED) {
+            sketches.markStale();
+            if (sketches == global) {
+                globalStaleSince = System.currentTimeMillis();
+            }
+            return;
+        }
+        if (row != null) {
+            if (isBatting) {
+                addBatting(sketches, row);
+            } else {
+                addBowling(sketches, row);
+            }
+        }
+        sketches.setThroughSeq(entry.getSeq());
+        unsaved.add(scope);
+    }
+    
+    private static void addBatting(DistributionSketches sketches, Object[] row) {
+        sketches.addBatting(((Number) row[1]).intValue(), ((Number) row[2]).intValue(), (String) row[3]);
+    }
+    
+    private static void addBowling(DistributionSketches sketches, Object[] row) {
+        sketches.addBowling(((Number) row[1]).doubleValue(), ((Number) row[2]).intValue(),
+                ((Number) row[3]).intValue(), (String) row[4]);
+    }
+    
+    private static Map<Long, Object[]> byId(List<Object[]> rows) {
+        Map<Long, Object[]> byId = new HashMap<>();
+        for (Object[] row : rows) {
+            byId.put((Long) row[0], row);
+        }
+        return byId;
+    }
+    
+    private static String playerScope(Long playerId) {
+        return "player:" + playerId;
+    }
+    
+    private static Long playerId(String scope) {
+        return Long.valueOf(scope.substring("player:".length()));
+    }
+    
+    private static Double value(float value) {
+        return Float.isNaN(value) ? null : round(value, 2);
+    }
+    
+    private static double round(double value, int places) {
+        double scale = Math.pow(10, places);
+        return Math.round(value * scale) / scale;
+    }
+    
+    private record Batch(SyncResponse changes, Map<Long, Object[]> batting, Map<Long, Object[]> bowling) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.cricketdb.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// All distribution sketches for one scope (the whole database or one player), applied
+// through the change log up to throughSeq. Sketches can only grow, so an updated or deleted
+// innings marks the scope stale until it is rebuilt from the tables.
+public class DistributionSketches {
+    
+    private static final int FORMAT_VERSION = 1;
+    
+    private final KllSketch runs;
+    private final KllSketch strikeRate;
+    private final KllSketch economy;
+    private final KllSketch wickets;
+    private final HyperLogLog opponents;
+    private long throughSeq;
+    private boolean stale;
+    
+    public DistributionSketches(int k, int hllPrecision) {
+        this(new KllSketch(k), new KllSketch(k), new KllSketch(k), new KllSketch(k), new HyperLogLog(hllPrecision));
+    }
+    
+    private DistributionSketches(KllSketch runs, KllSketch strikeRate, KllSketch economy, KllSketch wickets,
+                                 HyperLogLog opponents) {
+        this.runs = runs;
+        this.strikeRate = strikeRate;
+        this.economy = economy;
+        this.wickets = wickets;
+        this.opponents = opponents;
+    }
+    
+    public void addBatting(int runsScored, int ballsPlayed, String against) {
+        runs.update(runsScored);
+        if (ballsPlayed > 0) {
+            strikeRate.update(runsScored * 100f / ballsPlayed);
+        }
+        opponents.add(against);
+    }
+    
+    public void addBowling(double overs, int runsGiven, int wicketsTaken, String against) {
+        if (overs > 0) {
+            economy.update((float) (runsGiven / overs));
+        }
+        wickets.update(wicketsTaken);
+        opponents.add(against);
+    }
+    
+    public KllSketch quantiles(DistributionMetric metric) {
+        return switch (metric) {
+            case RUNS -> runs;
+            case STRIKE_RATE -> strikeRate;
+            case ECONOMY -> economy;
+            case WICKETS -> wickets;
+            case OPPONENTS -> throw new IllegalArgumentException("opponents is a cardinality metric");
+        };
+    }
+    
+    public HyperLogLog opponents() {
+        return opponents;
+    }
+    
+    public long getThroughSeq() {
+        return throughSeq;
+    }
+    
+    public void setThroughSeq(long throughSeq) {
+        this.throughSeq = throughSeq;
+    }
+    
+    public boolean isStale() {
+        return stale;
+    }
+    
+    public void markStale() {
+        stale = true;
+    }
+    
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            runs.writeTo(out);
+            strikeRate.writeTo(out);
+            economy.writeTo(out);
+            wickets.writeTo(out);
+            opponents.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    // Null for a format this build doesn't know, so the caller rebuilds instead
+    public static DistributionSketches fromBytes(byte[] data, long throughSeq) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readUnsignedByte() != FORMAT_VERSION) {
+                return null;
+            }
+            DistributionSketches sketches = new DistributionSketches(KllSketch.readFrom(in), KllSketch.readFrom(in),
+                    KllSketch.readFrom(in), KllSketch.readFrom(in), HyperLogLog.readFrom(in));
+            sketches.throughSeq = throughSeq;
+            return sketches;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
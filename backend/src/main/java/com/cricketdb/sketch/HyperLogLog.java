@@ -0,0 +1,118 @@
+package com.cricketdb.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// HyperLogLog distinct counter with 2^precision one-byte registers and the usual linear
+// counting correction for small cardinalities. Merging takes the register-wise max.
+// Not thread-safe.
+public class HyperLogLog {
+    
+    private final int precision;
+    private final byte[] registers;
+    
+    public HyperLogLog(int precision) {
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+    
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value.trim().toLowerCase().getBytes(StandardCharsets.UTF_8));
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+    
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+    
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.pow(2, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    // Relative standard error of the estimate
+    public double relativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+    
+    // Sparse encoding (index, value pairs) while few registers are set, which is the usual case
+    // for a single player's opponents
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(precision);
+        int set = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                set++;
+            }
+        }
+        boolean sparse = set * 3 < registers.length;
+        out.writeBoolean(sparse);
+        if (sparse) {
+            out.writeShort(set);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    out.writeShort(i);
+                    out.writeByte(registers[i]);
+                }
+            }
+        } else {
+            out.write(registers);
+        }
+    }
+    
+    public static HyperLogLog readFrom(DataInputStream in) throws IOException {
+        HyperLogLog sketch = new HyperLogLog(in.readUnsignedByte());
+        if (in.readBoolean()) {
+            int set = in.readUnsignedShort();
+            for (int i = 0; i < set; i++) {
+                int index = in.readUnsignedShort();
+                sketch.registers[index] = in.readByte();
+            }
+        } else {
+            in.readFully(sketch.registers);
+        }
+        return sketch;
+    }
+    
+    // 64-bit FNV-1a followed by the MurmurHash3 finalizer to spread the high bits
+    private static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e5a85L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
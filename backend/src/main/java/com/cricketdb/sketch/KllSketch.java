@@ -0,0 +1,219 @@
+package com.cricketdb.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// KLL quantile sketch (Karnin, Lang, Liberty). Level h holds items of weight 2^h; a full level
+// is sorted and every other item, from a random offset, is promoted to the next level. Level
+// capacities shrink by 2/3 going down, so the sketch stays around 3k floats whatever n is.
+// Not thread-safe.
+public class KllSketch {
+    
+    private static final int MIN_CAPACITY = 8;
+    
+    private final int k;
+    private final Random random = new Random();
+    private final List<float[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private long count;
+    private float min = Float.NaN;
+    private float max = Float.NaN;
+    
+    public KllSketch(int k) {
+        this.k = k;
+        addLevel();
+    }
+    
+    public void update(float value) {
+        if (Float.isNaN(value)) {
+            return;
+        }
+        append(0, value);
+        count++;
+        min = Float.isNaN(min) ? value : Math.min(min, value);
+        max = Float.isNaN(max) ? value : Math.max(max, value);
+        compressIfFull();
+    }
+    
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            while (levels.size() <= h) {
+                addLevel();
+            }
+            float[] items = other.levels.get(h);
+            for (int i = 0; i < other.sizes.get(h); i++) {
+                append(h, items[i]);
+            }
+        }
+        count += other.count;
+        min = Float.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Float.isNaN(max) ? other.max : Math.max(max, other.max);
+        compressIfFull();
+    }
+    
+    // Value at normalized rank q in [0, 1]; NaN when empty
+    public float quantile(double q) {
+        if (count == 0) {
+            return Float.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        int retained = retained();
+        float[] values = new float[retained];
+        long[] weights = new long[retained];
+        int i = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            float[] items = levels.get(h);
+            for (int j = 0; j < sizes.get(h); j++) {
+                values[i] = items[j];
+                weights[i++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[retained];
+        for (int j = 0; j < retained; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(values[a], values[b]));
+        
+        long total = 0;
+        for (long weight : weights) {
+            total += weight;
+        }
+        double target = q * total;
+        long cumulative = 0;
+        for (int j : order) {
+            cumulative += weights[j];
+            if (cumulative >= target) {
+                return values[j];
+            }
+        }
+        return max;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public float getMin() {
+        return min;
+    }
+    
+    public float getMax() {
+        return max;
+    }
+    
+    // Approximate normalized rank error at ~99% confidence, as published for KLL by DataSketches
+    public double rankError() {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeShort(k);
+        out.writeLong(count);
+        out.writeFloat(min);
+        out.writeFloat(max);
+        out.writeByte(levels.size());
+        for (int h = 0; h < levels.size(); h++) {
+            float[] items = levels.get(h);
+            int size = sizes.get(h);
+            out.writeShort(size);
+            for (int i = 0; i < size; i++) {
+                out.writeFloat(items[i]);
+            }
+        }
+    }
+    
+    public static KllSketch readFrom(DataInputStream in) throws IOException {
+        KllSketch sketch = new KllSketch(in.readUnsignedShort());
+        sketch.count = in.readLong();
+        sketch.min = in.readFloat();
+        sketch.max = in.readFloat();
+        int levelCount = in.readUnsignedByte();
+        for (int h = 0; h < levelCount; h++) {
+            while (sketch.levels.size() <= h) {
+                sketch.addLevel();
+            }
+            int size = in.readUnsignedShort();
+            for (int i = 0; i < size; i++) {
+                sketch.append(h, in.readFloat());
+            }
+        }
+        return sketch;
+    }
+    
+    private void compressIfFull() {
+        while (retained() > totalCapacity()) {
+            for (int h = 0; h < levels.size(); h++) {
+                if (sizes.get(h) >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+    
+    // Promotes half of level h to h + 1; with an odd size the smallest item stays behind at index 0
+    private void compact(int h) {
+        if (h + 1 == levels.size()) {
+            addLevel();
+        }
+        float[] items = levels.get(h);
+        int size = sizes.get(h);
+        Arrays.sort(items, 0, size);
+        int kept = size % 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = kept + offset; i < size; i += 2) {
+            append(h + 1, items[i]);
+        }
+        sizes.set(h, kept);
+    }
+    
+    private int capacity(int h) {
+        int depth = levels.size() - 1 - h;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+    
+    private int totalCapacity() {
+        int total = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            total += capacity(h);
+        }
+        return total;
+    }
+    
+    private int retained() {
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+    
+    private void append(int h, float value) {
+        float[] items = levels.get(h);
+        int size = sizes.get(h);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(h, items);
+        }
+        items[size] = value;
+        sizes.set(h, size + 1);
+    }
+    
+    private void addLevel() {
+        levels.add(new float[MIN_CAPACITY]);
+        sizes.add(0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.cricketdb.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Reads what SnapshotWriter wrote, straight from the mapped file. A truncated section throws
+// BufferUnderflowException, which the caller treats like any other unreadable snapshot.
+public class SnapshotReader {
+    
+    private final ByteBuffer buffer;
+    
+    public SnapshotReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+    
+    public int readInt() {
+        return buffer.getInt();
+    }
+    
+    public long readLong() {
+        return buffer.getLong();
+    }
+    
+    public float readFloat() {
+        return buffer.getFloat();
+    }
+    
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+    
+    public String readString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+    
+    // A section of `length` bytes, read without copying
+    public SnapshotReader section(int length) {
+        ByteBuffer section = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return new SnapshotReader(section);
+    }
+}
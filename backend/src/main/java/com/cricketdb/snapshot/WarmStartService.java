@@ -0,0 +1,207 @@
+package com.cricketdb.snapshot;
+
+import com.cricketdb.repository.ChangeLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+// Saves the in-memory leaderboard and similarity state to a local file, tagged with the change
+// log seq it covers, and restores it at startup. A restart then re-reads only the players
+// written after that seq instead of scanning every table. The file is memory-mapped and checked
+// against its CRC; a missing, corrupt or older-format file leaves the state to build lazily.
+// The seq saved is the one read on the previous run, so the writes up to it have reached the
+// state through their after-commit listeners by the time it is saved.
+@Service
+public class WarmStartService {
+    
+    private static final Logger log = LoggerFactory.getLogger(WarmStartService.class);
+    private static final int MAGIC = 0x43444257;
+    private static final int FORMAT_VERSION = 1;
+    // magic, format version, seq, written at, body length, body CRC32
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 8;
+    
+    @Autowired
+    private List<WarmStartState> states;
+    
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${cricketdb.warm-start.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${cricketdb.warm-start.path:data/warm-start.snapshot}")
+    private String path;
+    
+    private TransactionTemplate primary;
+    // change_log seq read on the previous run, or -1 before the first
+    private long previousMaxSeq = -1;
+    
+    @PostConstruct
+    public void init() {
+        // Not read-only, so the catch-up sees everything committed on the primary
+        primary = new TransactionTemplate(transactionManager);
+        if (enabled) {
+            // Before the web server starts, so no request triggers a full build first
+            load();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.warm-start.interval:300000}")
+    public synchronized void write() {
+        if (!enabled) {
+            return;
+        }
+        long maxSeq;
+        try {
+            maxSeq = primary.execute(tx -> changeLogRepository.findMaxSeq());
+        } catch (RuntimeException e) {
+            log.warn("Could not read the change log position for the warm-start snapshot", e);
+            return;
+        }
+        long throughSeq = previousMaxSeq;
+        previousMaxSeq = maxSeq;
+        if (throughSeq >= 0) {
+            save(throughSeq);
+        }
+    }
+    
+    // A planned restart picks up from here rather than from the last scheduled run
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (enabled && previousMaxSeq >= 0) {
+            save(previousMaxSeq);
+        }
+    }
+    
+    private void save(long throughSeq) {
+        long started = System.nanoTime();
+        try {
+            Map<String, byte[]> sections = new LinkedHashMap<>();
+            for (WarmStartState state : states) {
+                SnapshotWriter section = new SnapshotWriter();
+                if (state.writeSnapshot(section)) {
+                    sections.put(state.snapshotSection(), section.toByteArray());
+                }
+            }
+            if (sections.isEmpty()) {
+                return;
+            }
+            SnapshotWriter body = new SnapshotWriter();
+            body.writeInt(sections.size());
+            sections.forEach((name, section) -> {
+                body.writeString(name);
+                body.writeBytes(section);
+            });
+            byte[] bytes = body.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(throughSeq).putLong(System.currentTimeMillis())
+                    .putInt(bytes.length).putLong(crc.getValue()).flip();
+            Path target = Path.of(path);
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = parent.resolve(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(bytes)});
+                channel.force(true);
+            }
+            // Readers see the old file or the new one, never a partial write
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Wrote warm-start snapshot through change log seq {} ({} bytes) in {} ms", throughSeq,
+                    HEADER_BYTES + bytes.length, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write warm-start snapshot {}", path, e);
+        }
+    }
+    
+    private void load() {
+        Path file = Path.of(path);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                log.warn("Ignoring truncated warm-start snapshot {}", file);
+                return;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) {
+                log.info("Ignoring warm-start snapshot {} written in another format", file);
+                return;
+            }
+            long throughSeq = mapped.getLong();
+            long writtenAt = mapped.getLong();
+            int length = mapped.getInt();
+            long expectedCrc = mapped.getLong();
+            if (length < 0 || length > mapped.remaining()) {
+                log.warn("Ignoring truncated warm-start snapshot {}", file);
+                return;
+            }
+            ByteBuffer body = mapped.slice(HEADER_BYTES, length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                log.warn("Ignoring corrupt warm-start snapshot {}", file);
+                return;
+            }
+            
+            Set<Long> changed = new HashSet<>(primary.execute(tx ->
+                    changeLogRepository.findPlayerIdsChangedAfter(throughSeq)));
+            Map<String, WarmStartState> byName = new HashMap<>();
+            states.forEach(state -> byName.put(state.snapshotSection(), state));
+            SnapshotReader in = new SnapshotReader(body);
+            int sections = in.readInt();
+            int restored = 0;
+            for (int i = 0; i < sections; i++) {
+                String name = in.readString();
+                SnapshotReader section = in.section(in.readInt());
+                WarmStartState state = byName.get(name);
+                if (state == null) {
+                    continue;
+                }
+                try {
+                    state.readSnapshot(section, changed);
+                    restored++;
+                } catch (RuntimeException e) {
+                    log.warn("Could not restore {} from the warm-start snapshot; it will be rebuilt", name, e);
+                }
+            }
+            log.info("Restored {} of {} states from warm-start snapshot through change log seq {} ({} s old) in {} ms; "
+                    + "{} players changed since", restored, sections, throughSeq,
+                    (System.currentTimeMillis() - writtenAt) / 1000, (System.nanoTime() - started) / 1_000_000,
+                    changed.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read warm-start snapshot {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.cricketdb.snapshot;
+
+import java.util.Set;
+
+// In-memory state that WarmStartService saves to the snapshot file and restores at startup
+public interface WarmStartState {
+    
+    // Identifies this state's section in the file; states whose format changes take a new name
+    String snapshotSection();
+    
+    // False when there is nothing built to save yet
+    boolean writeSnapshot(SnapshotWriter out);
+    
+    // Called once, before any lazy build. changedPlayerIds were written after the snapshot and
+    // must be re-read; throwing leaves the state to build lazily as before.
+    void readSnapshot(SnapshotReader in, Set<Long> changedPlayerIds);
+}
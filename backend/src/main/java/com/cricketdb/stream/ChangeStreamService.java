@@ -0,0 +1,125 @@
+package com.cricketdb.stream;
+
+import com.cricketdb.dto.AnalyticsResponse;
+import com.cricketdb.event.InningsChangedEvent;
+import com.cricketdb.event.PlayerChangedEvent;
+import com.cricketdb.event.RemoteChangesEvent;
+import com.cricketdb.service.AnalyticsService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Turns committed writes into stream events. Innings changes go straight to the player's topic;
+// leaderboard changes are debounced, recomputed once and sent as a diff of the summary fields.
+// Nothing here queries the database except for the first subscriber's baseline, or when a write has
+// happened and someone is listening.
+@Service
+public class ChangeStreamService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+    private static final String ANALYTICS_TOPIC = "analytics";
+    private static final TypeReference<LinkedHashMap<String, Object>> FIELDS = new TypeReference<>() {
+    };
+    
+    @Autowired
+    private SseBroadcaster broadcaster;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final AtomicBoolean leaderboardDirty = new AtomicBoolean();
+    private final AtomicReference<Map<String, Object>> lastLeaderboard = new AtomicReference<>();
+    
+    // The summary is the baseline the next diff is taken from, so it can be up to one debounce behind
+    // after writes; the leaderboard event that follows brings the subscriber up to date
+    public SseEmitter subscribeAnalytics() {
+        SseEmitter emitter = broadcaster.subscribe(ANALYTICS_TOPIC);
+        Map<String, Object> current = lastLeaderboard.get();
+        if (current == null) {
+            // Only until the first baseline; concurrent first subscribers share one coalesced computation
+            lastLeaderboard.compareAndSet(null, toFields(analyticsService.getAnalytics()));
+            current = lastLeaderboard.get();
+        }
+        broadcaster.sendInitial(emitter, "summary", current);
+        return emitter;
+    }
+    
+    public SseEmitter subscribePlayer(Long playerId) {
+        return broadcaster.subscribe(playerTopic(playerId));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInningsChanged(InningsChangedEvent event) {
+        broadcaster.publish(playerTopic(event.playerId()), "innings", event);
+        leaderboardDirty.set(true);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        broadcaster.publish(playerTopic(event.playerId()), "player", event);
+        leaderboardDirty.set(true);
+    }
+    
+    // Per-player streams only carry this node's writes; the leaderboard covers every node
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        leaderboardDirty.set(true);
+    }
+    
+    @Scheduled(fixedDelayString = "${cricketdb.stream.leaderboard-debounce:2000}")
+    public void publishLeaderboard() {
+        // With no one listening the flag stays set and the baseline is kept, so the first tick after
+        // someone subscribes sends them the changes since it
+        if (!broadcaster.hasSubscribers(ANALYTICS_TOPIC) || !leaderboardDirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            Map<String, Object> current = toFields(analyticsService.getAnalytics());
+            Map<String, Object> previous = lastLeaderboard.getAndSet(current);
+            // Null fields are left out of the maps, so a field missing from current was cleared.
+            // A JSON node keeps the explicit nulls that the non_null inclusion would drop.
+            ObjectNode changes = objectMapper.createObjectNode();
+            current.forEach((field, value) -> {
+                if (previous == null || !Objects.equals(previous.get(field), value)) {
+                    changes.set(field, objectMapper.valueToTree(value));
+                }
+            });
+            if (previous != null) {
+                previous.keySet().stream()
+                        .filter(field -> !current.containsKey(field))
+                        .forEach(changes::putNull);
+            }
+            if (!changes.isEmpty()) {
+                broadcaster.publish(ANALYTICS_TOPIC, "leaderboard", changes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not recompute leaderboard for stream subscribers", e);
+            leaderboardDirty.set(true);
+        }
+    }
+    
+    private Map<String, Object> toFields(AnalyticsResponse analytics) {
+        return objectMapper.convertValue(analytics, FIELDS);
+    }
+    
+    private static String playerTopic(Long playerId) {
+        return "player:" + playerId;
+    }
+}
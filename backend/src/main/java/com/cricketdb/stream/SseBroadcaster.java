@@ -0,0 +1,200 @@
+package com.cricketdb.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans server-sent events out to subscribers grouped by topic. Publishers never block: each
+// payload is serialized once, offered to every subscriber's bounded buffer, and written by a
+// small shared pool. A subscriber whose buffer overflows is disconnected; EventSource clients
+// reconnect and reload. Idle subscribers hold only their emitter and an empty buffer.
+@Component
+public class SseBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cricketdb.stream.buffer-size:64}")
+    private int bufferSize;
+    
+    @Value("${cricketdb.stream.senders:2}")
+    private int senders;
+    
+    @Value("${cricketdb.stream.timeout:30m}")
+    private Duration timeout;
+    
+    @Value("${cricketdb.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private ExecutorService sendExecutor;
+    private Counter dropped;
+    
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        sendExecutor = Executors.newFixedThreadPool(senders, r -> {
+            Thread thread = new Thread(r, "sse-sender-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dropped = Counter.builder("cricketdb.stream.dropped").register(meterRegistry);
+        Gauge.builder("cricketdb.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+    
+    public SseEmitter subscribe(String topic) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Too many stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        topics.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+    
+    public boolean hasSubscribers(String topic) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+    
+    // Sends to a single new subscriber, e.g. the current state right after subscribing
+    public void sendInitial(SseEmitter emitter, String name, Object payload) {
+        try {
+            emitter.send(event(name, objectMapper.writeValueAsString(payload)));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+    
+    public void publish(String topic, String name, Object payload) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event for {}", name, topic, e);
+            return;
+        }
+        Set<DataWithMediaType> event = event(name, json);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+    
+    // Keeps proxies from closing idle connections; no database work involved
+    @Scheduled(fixedDelayString = "${cricketdb.stream.heartbeat-interval:20000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(ping)));
+    }
+    
+    @PreDestroy
+    public void stop() {
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        sendExecutor.shutdownNow();
+    }
+    
+    // Built once and shared by all subscribers; a builder can't be reused across sends
+    private Set<DataWithMediaType> event(String name, String json) {
+        return SseEmitter.event()
+                .id(String.valueOf(eventIds.incrementAndGet()))
+                .name(name)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+    }
+    
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> subscribers = topics.get(subscriber.topic);
+        if (subscribers != null && subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (subscribers.isEmpty()) {
+                topics.remove(subscriber.topic, subscribers);
+            }
+        }
+    }
+    
+    private class Subscriber implements Runnable {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+        
+        void offer(Set<DataWithMediaType> event) {
+            if (!buffer.offer(event)) {
+                dropped.increment();
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                sendExecutor.execute(this);
+            }
+        }
+        
+        // At most one send task per subscriber, so its events stay in order
+        @Override
+        public void run() {
+            try {
+                Set<DataWithMediaType> event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!buffer.isEmpty() && scheduled.compareAndSet(false, true)) {
+                sendExecutor.execute(this);
+            }
+        }
+    }
+}
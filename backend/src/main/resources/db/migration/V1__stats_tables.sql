@@ -0,0 +1,25 @@
+-- Stats tables as Hibernate created them before migrations were introduced. Existing schemas
+-- are baselined below V1, so this only creates them on an empty database.
+CREATE TABLE IF NOT EXISTS batting_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    player_id BIGINT NOT NULL,
+    runs INT NOT NULL,
+    balls_played INT NOT NULL,
+    sixes INT NOT NULL,
+    fours INT NOT NULL,
+    against VARCHAR(255) NOT NULL,
+    match_date DATE NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS bowling_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    player_id BIGINT NOT NULL,
+    overs DOUBLE NOT NULL,
+    maidens INT NOT NULL,
+    runs_given INT NOT NULL,
+    wickets_taken INT NOT NULL,
+    against VARCHAR(255) NOT NULL,
+    match_date DATE NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
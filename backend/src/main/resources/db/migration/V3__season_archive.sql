@@ -0,0 +1,70 @@
+-- Per-player totals of archived seasons (season = calendar year of match_date). All-time
+-- queries read these for seasons up to the newest archived one and the stats tables after it.
+CREATE TABLE IF NOT EXISTS batting_season_summary (
+    player_id BIGINT NOT NULL,
+    season INT NOT NULL,
+    innings BIGINT NOT NULL,
+    runs BIGINT NOT NULL,
+    balls_played BIGINT NOT NULL,
+    fours BIGINT NOT NULL,
+    sixes BIGINT NOT NULL,
+    highest INT NOT NULL,
+    fifties BIGINT NOT NULL,
+    centuries BIGINT NOT NULL,
+    match_days BIGINT NOT NULL,
+    last_century_date DATE NULL,
+    PRIMARY KEY (player_id, season),
+    INDEX idx_batting_season_summary_season (season)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS bowling_season_summary (
+    player_id BIGINT NOT NULL,
+    season INT NOT NULL,
+    innings BIGINT NOT NULL,
+    overs DOUBLE NOT NULL,
+    maidens BIGINT NOT NULL,
+    runs_given BIGINT NOT NULL,
+    wickets BIGINT NOT NULL,
+    best_wickets INT NOT NULL,
+    five_fors BIGINT NOT NULL,
+    last_five_for_date DATE NULL,
+    PRIMARY KEY (player_id, season),
+    INDEX idx_bowling_season_summary_season (season)
+) ENGINE = InnoDB;
+
+-- Archived seasons are contiguous from the oldest and read-only
+CREATE TABLE IF NOT EXISTS season_archive (
+    season INT NOT NULL,
+    batting_innings BIGINT NOT NULL,
+    bowling_innings BIGINT NOT NULL,
+    raw_moved BIT(1) NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (season)
+) ENGINE = InnoDB;
+
+-- Raw innings of archived seasons when cricketdb.archive.move-raw-innings is on
+CREATE TABLE IF NOT EXISTS batting_stats_archive (
+    id BIGINT NOT NULL,
+    player_id BIGINT NOT NULL,
+    runs INT NOT NULL,
+    balls_played INT NOT NULL,
+    sixes INT NOT NULL,
+    fours INT NOT NULL,
+    against VARCHAR(255) NOT NULL,
+    match_date DATE NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_batting_stats_archive_player (player_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS bowling_stats_archive (
+    id BIGINT NOT NULL,
+    player_id BIGINT NOT NULL,
+    overs DOUBLE NOT NULL,
+    maidens INT NOT NULL,
+    runs_given INT NOT NULL,
+    wickets_taken INT NOT NULL,
+    against VARCHAR(255) NOT NULL,
+    match_date DATE NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_bowling_stats_archive_player (player_id)
+) ENGINE = InnoDB;
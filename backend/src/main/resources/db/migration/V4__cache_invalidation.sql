@@ -0,0 +1,8 @@
+-- One row per cache region; writers bump its version, every node polls by updated_at
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    region VARCHAR(64) NOT NULL,
+    version BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (region),
+    INDEX idx_cache_invalidation_updated_at (updated_at)
+);
@@ -0,0 +1,30 @@
+-- Players as Hibernate creates them. Extra shards only get their schema from migrations.
+CREATE TABLE IF NOT EXISTS players (
+    player_id BIGINT NOT NULL AUTO_INCREMENT,
+    player_name VARCHAR(255) NOT NULL,
+    country VARCHAR(255) NOT NULL,
+    start_year INT NOT NULL,
+    gender VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    notes VARCHAR(255),
+    PRIMARY KEY (player_id)
+) ENGINE = InnoDB;
+
+-- Next unreserved id per sequence; IdAllocator reserves blocks from it
+CREATE TABLE IF NOT EXISTS id_allocation (
+    name VARCHAR(32) NOT NULL,
+    next_id BIGINT NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+-- Continue after the ids AUTO_INCREMENT handed out, including innings moved to the archive
+INSERT INTO id_allocation (name, next_id)
+SELECT 'players', COALESCE(MAX(player_id), 0) + 1 FROM players;
+
+INSERT INTO id_allocation (name, next_id)
+SELECT 'batting_stats', GREATEST(COALESCE((SELECT MAX(id) FROM batting_stats), 0),
+                                 COALESCE((SELECT MAX(id) FROM batting_stats_archive), 0)) + 1;
+
+INSERT INTO id_allocation (name, next_id)
+SELECT 'bowling_stats', GREATEST(COALESCE((SELECT MAX(id) FROM bowling_stats), 0),
+                                 COALESCE((SELECT MAX(id) FROM bowling_stats_archive), 0)) + 1;
@@ -0,0 +1,31 @@
+-- The change log as Hibernate creates it, so the counters below can be seeded from it
+CREATE TABLE IF NOT EXISTS change_log (
+    seq BIGINT NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    player_id BIGINT NOT NULL,
+    op VARCHAR(16) NOT NULL,
+    version BIGINT NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (seq),
+    INDEX idx_change_log_entity (entity_type, entity_id, seq)
+) ENGINE = InnoDB;
+
+-- Latest change log version per entity; appends bump it under the row lock
+CREATE TABLE IF NOT EXISTS change_version (
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+) ENGINE = InnoDB;
+
+INSERT INTO change_version (entity_type, entity_id, version)
+SELECT entity_type, entity_id, MAX(version) FROM change_log GROUP BY entity_type, entity_id;
+
+-- A single row every appending transaction locks, so change log seqs are taken in commit order
+CREATE TABLE IF NOT EXISTS change_log_lock (
+    id TINYINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO change_log_lock (id) VALUES (1);
@@ -0,0 +1,13 @@
+-- Whether the player and innings ids on this database carry their shard, which they only do when
+-- written with sharding on. ShardingStateCheck records it at the first startup and refuses to start
+-- in the other mode. Databases that already hold players were written before sharding existed.
+CREATE TABLE IF NOT EXISTS sharding_state (
+    id TINYINT NOT NULL,
+    encoded BOOLEAN NOT NULL,
+    -- Shards the backend last started with, for the reactive API, which only reads shard 0
+    shard_count INT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO sharding_state (id, encoded, shard_count)
+SELECT 1, FALSE, 1 FROM DUAL WHERE EXISTS (SELECT 1 FROM players);
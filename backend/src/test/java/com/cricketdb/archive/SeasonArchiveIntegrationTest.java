@@ -0,0 +1,145 @@
+package com.cricketdb.archive;
+
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.BattingStatsResponse;
+import com.cricketdb.dto.PlayerComparisonResponse;
+import com.cricketdb.dto.PlayerRequest;
+import com.cricketdb.model.BattingStats;
+import com.cricketdb.model.Gender;
+import com.cricketdb.model.PlayerRole;
+import com.cricketdb.service.AnalyticsService;
+import com.cricketdb.service.PlayerService;
+import com.cricketdb.service.StatsService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Seasons more than five years old are archived with their raw innings moved out; the scheduled run is
+// pushed far out and the test archives once after adding innings on both sides of the boundary
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "cricketdb.archive.enabled=true",
+        "cricketdb.archive.keep-seasons=5",
+        "cricketdb.archive.move-raw-innings=true",
+        "cricketdb.archive.interval=86400000"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SeasonArchiveIntegrationTest {
+    
+    private static final int LIVE_SEASON = Year.now().getValue() - 1;
+    
+    @Autowired
+    private SeasonArchiveService seasonArchiveService;
+    
+    @Autowired
+    private PlayerService playerService;
+    
+    @Autowired
+    private StatsService statsService;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    private Long batter;
+    private Long other;
+    private Long liveInnings;
+    
+    @BeforeAll
+    void archiveOldSeasons() {
+        batter = createPlayer("Archive Batter");
+        other = createPlayer("Archive Other");
+        addBatting(batter, 40, LocalDate.of(2015, 3, 1));
+        addBatting(batter, 60, LocalDate.of(2016, 7, 1));
+        addBatting(other, 10, LocalDate.of(2016, 7, 1));
+        liveInnings = addBatting(batter, 25, LocalDate.of(LIVE_SEASON, 5, 1)).getId();
+        
+        seasonArchiveService.archive();
+        assertTrue(seasonArchiveService.boundary().isArchived(2016));
+    }
+    
+    @Test
+    void allTimeTotalsIncludeArchivedSeasons() {
+        PlayerComparisonResponse career = analyticsService.comparePlayers(List.of(batter, other), null, null);
+        assertEquals(List.of(125L, 10L), career.getBatting().get("runs"));
+        assertEquals(List.of(3L, 1L), career.getBatting().get("innings"));
+        assertEquals(List.of(60L, 10L), career.getBatting().get("highestScore"));
+    }
+    
+    @Test
+    void wholeArchivedSeasonsCanBeCompared() {
+        PlayerComparisonResponse archived = analyticsService.comparePlayers(List.of(batter, other),
+                LocalDate.of(2015, 1, 1), LocalDate.of(2016, 12, 31));
+        assertEquals(List.of(100L, 10L), archived.getBatting().get("runs"));
+        
+        PlayerComparisonResponse mixed = analyticsService.comparePlayers(List.of(batter, other),
+                LocalDate.of(2016, 1, 1), LocalDate.of(LIVE_SEASON, 12, 31));
+        assertEquals(List.of(85L, 10L), mixed.getBatting().get("runs"));
+    }
+    
+    @Test
+    void rangesCannotSplitAnArchivedSeason() {
+        assertThrows(RuntimeException.class, () -> analyticsService.comparePlayers(List.of(batter, other),
+                LocalDate.of(2016, 6, 1), null));
+    }
+    
+    @Test
+    void archivedInningsLeaveThePlayersInningsList() {
+        List<BattingStatsResponse> innings = statsService.getBattingStatsByPlayer(batter);
+        assertEquals(List.of(liveInnings), innings.stream().map(BattingStatsResponse::getId).toList());
+    }
+    
+    @Test
+    void archivedSeasonsAreReadOnly() {
+        RuntimeException added = assertThrows(RuntimeException.class,
+                () -> addBatting(batter, 5, LocalDate.of(2016, 8, 1)));
+        assertEquals("Season 2016 is archived and read-only", added.getMessage());
+        
+        BattingStatsRequest moved = battingRequest(batter, 25, LocalDate.of(2015, 5, 1));
+        assertThrows(RuntimeException.class, () -> statsService.updateBattingStats(liveInnings, moved));
+        assertEquals(LocalDate.of(LIVE_SEASON, 5, 1), statsService.getBattingStatById(liveInnings).getMatchDate());
+    }
+    
+    @Test
+    void seasonsAfterTheBoundaryStayWritable() {
+        BattingStats added = addBatting(other, 0, LocalDate.of(Year.now().getValue() - 4, 1, 1));
+        statsService.deleteBattingStats(added.getId());
+    }
+    
+    private Long createPlayer(String name) {
+        PlayerRequest request = new PlayerRequest();
+        request.setPlayerName(name);
+        request.setCountry("India");
+        request.setStartYear(2010);
+        request.setGender(Gender.MALE);
+        request.setRole(PlayerRole.BATSMAN);
+        return playerService.createPlayer(request).getPlayerId();
+    }
+    
+    private BattingStats addBatting(Long playerId, int runs, LocalDate matchDate) {
+        return statsService.addBattingStats(battingRequest(playerId, runs, matchDate));
+    }
+    
+    private static BattingStatsRequest battingRequest(Long playerId, int runs, LocalDate matchDate) {
+        BattingStatsRequest request = new BattingStatsRequest();
+        request.setPlayerId(playerId);
+        request.setRuns(runs);
+        request.setBallsPlayed(runs + 10);
+        request.setFours(0);
+        request.setSixes(0);
+        request.setAgainst("Australia");
+        request.setMatchDate(matchDate);
+        return request;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cricketdb.cache;
+
+import com.cricketdb.CricketDbApplication;
+import com.cricketdb.dto.PlayerRequest;
+import com.cricketdb.dto.PlayerResponse;
+import com.cricketdb.model.Gender;
+import com.cricketdb.model.PlayerRole;
+import com.cricketdb.service.PlayerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Two nodes in one JVM sharing one in-memory database, the way two instances share MySQL:
+// a write through one node must move the other node's tags within a poll interval or so.
+class CacheCoherenceIntegrationTest {
+    
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    private static final long DEADLINE_MILLIS = 5000;
+    
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("a");
+        nodeB = startNode("b");
+    }
+    
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+    
+    @Test
+    void writeOnOneNodeMovesTheOtherNodesTags() {
+        PlayerService playersOnA = nodeA.getBean(PlayerService.class);
+        VersionCounters countersOnB = nodeB.getBean(VersionCounters.class);
+        
+        String listTag = countersOnB.playersTag();
+        PlayerResponse player = playersOnA.createPlayer(player("Coherent", "India"));
+        awaitChange("players tag on node B", listTag, countersOnB::playersTag);
+        
+        String playerTag = countersOnB.playerTag(player.getPlayerId());
+        playersOnA.updatePlayer(player.getPlayerId(), player("Coherent Renamed", "India"));
+        awaitChange("player tag on node B", playerTag, () -> countersOnB.playerTag(player.getPlayerId()));
+    }
+    
+    private static ConfigurableApplicationContext startNode(String name) {
+        // Arguments rather than builder properties, which application.yml would override
+        return new SpringApplicationBuilder(CricketDbApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:coherence;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--cricketdb.coherence.enabled=true",
+                        "--cricketdb.coherence.poll-interval=" + POLL_INTERVAL_MILLIS,
+                        "--cricketdb.ingestion.journal-file=target/coherence-test/node-" + name + "/ingestion.journal");
+    }
+    
+    private static void awaitChange(String what, String before, Supplier<String> current) {
+        long deadline = System.currentTimeMillis() + DEADLINE_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!before.equals(current.get())) {
+                return;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS / 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for the " + what);
+            }
+        }
+        fail("The " + what + " didn't change within " + DEADLINE_MILLIS + "ms of the write");
+    }
+    
+    private static PlayerRequest player(String name, String country) {
+        PlayerRequest request = new PlayerRequest();
+        request.setPlayerName(name);
+        request.setCountry(country);
+        request.setStartYear(2010);
+        request.setGender(Gender.MALE);
+        request.setRole(PlayerRole.BATSMAN);
+        return request;
+    }
+}
@@ -0,0 +1,191 @@
+package com.cricketdb.concurrency;
+
+import com.cricketdb.dto.PlayerResponse;
+import com.cricketdb.service.PlayerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The first call of SlowReads blocks until the test opens the gate, so later calls find it in flight
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "cricketdb.coalescing.max-wait=300ms"
+})
+@ActiveProfiles("test")
+class CoalescingIntegrationTest {
+    
+    private static final String METHOD = "SlowReads.read";
+    
+    @Autowired
+    private SlowReads slowReads;
+    
+    @Autowired
+    private PlayerService playerService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    
+    @BeforeEach
+    void setUp() {
+        slowReads.reset();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        slowReads.open();
+        callers.shutdownNow();
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void concurrentCallsShareOneInvocation() throws Exception {
+        double collapsedBefore = count("collapsed");
+        Future<List<String>> leader = callers.submit(() -> slowReads.read("a"));
+        slowReads.awaitFirstCall();
+        
+        List<Future<List<String>>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(callers.submit(() -> slowReads.read("a")));
+        }
+        awaitCount("collapsed", collapsedBefore + 4);
+        slowReads.open();
+        
+        List<String> result = leader.get(5, TimeUnit.SECONDS);
+        for (Future<List<String>> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, slowReads.calls());
+    }
+    
+    @Test
+    void differentArgumentsAreNotShared() throws Exception {
+        Future<List<String>> leader = callers.submit(() -> slowReads.read("a"));
+        slowReads.awaitFirstCall();
+        
+        assertEquals(List.of("b", "call-2"), slowReads.read("b"));
+        slowReads.open();
+        assertEquals(List.of("a", "call-1"), leader.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void followersStopWaitingAfterMaxWait() throws Exception {
+        double timeoutsBefore = count("timeouts");
+        Future<List<String>> leader = callers.submit(() -> slowReads.read("a"));
+        slowReads.awaitFirstCall();
+        
+        long start = System.nanoTime();
+        assertEquals(List.of("a", "call-2"), slowReads.read("a"));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(timeoutsBefore + 1, count("timeouts"));
+        
+        slowReads.open();
+        assertEquals(List.of("a", "call-1"), leader.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void callersWhoJustWroteRunTheCallThemselves() throws Exception {
+        Future<List<String>> leader = callers.submit(() -> slowReads.read("a"));
+        slowReads.awaitFirstCall();
+        
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer", null, List.of()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+        });
+        assertEquals(List.of("a", "call-2"), slowReads.read("a"));
+        
+        slowReads.open();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    void sharedResultsCannotBeModified() {
+        List<PlayerResponse> players = playerService.getAllPlayers();
+        assertThrows(UnsupportedOperationException.class, () -> players.add(null));
+    }
+    
+    private double count(String outcome) {
+        return meterRegistry.counter("cricketdb.coalescing." + outcome, "method", METHOD).count();
+    }
+    
+    private void awaitCount(String outcome, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count(outcome));
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        SlowReads slowReads() {
+            return new SlowReads();
+        }
+    }
+    
+    // Accessed only through public methods: the test holds the aspect's proxy, not the instance
+    static class SlowReads {
+        
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(1);
+        
+        public void reset() {
+            calls.set(0);
+            entered = new CountDownLatch(1);
+            gate = new CountDownLatch(1);
+        }
+        
+        public void awaitFirstCall() throws InterruptedException {
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+        }
+        
+        public void open() {
+            gate.countDown();
+        }
+        
+        public int calls() {
+            return calls.get();
+        }
+        
+        @Coalesced
+        public List<String> read(String key) throws InterruptedException {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                entered.countDown();
+                gate.await(10, TimeUnit.SECONDS);
+            }
+            return List.of(key, "call-" + call);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cricketdb.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A primary and one replica, each its own in-memory database holding a one-row table that names it,
+// so every read shows where it was routed
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingIntegrationTest.PRIMARY_URL,
+        "cricketdb.datasource.routing.enabled=true",
+        "cricketdb.datasource.routing.sticky-window=1h",
+        "cricketdb.datasource.routing.replicas[0].url=" + ReadWriteRoutingIntegrationTest.REPLICA_URL,
+        "cricketdb.datasource.routing.replicas[0].username=sa",
+        "cricketdb.datasource.routing.replicas[0].check-lag=false"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingIntegrationTest {
+    
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private JdbcTemplate jdbc;
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        new JdbcTemplate(primaryDataSource).execute(
+                "CREATE TABLE IF NOT EXISTS route_probe (source VARCHAR(16)); DELETE FROM route_probe; "
+                        + "INSERT INTO route_probe VALUES ('primary')");
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS route_probe (source VARCHAR(16)); DELETE FROM route_probe; "
+                    + "INSERT INTO route_probe VALUES ('replica')");
+        }
+        jdbc = new JdbcTemplate(dataSource);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", readSource());
+        assertEquals("primary", writes.execute(tx -> source()));
+        // Outside a transaction there is no read-only flag to go by
+        assertEquals("primary", source());
+    }
+    
+    @Test
+    void readsStayOnThePrimaryAfterTheUsersOwnWrite() {
+        signIn("writer");
+        writes.executeWithoutResult(tx -> jdbc.update("UPDATE route_probe SET source = source"));
+        assertEquals("primary", readSource());
+        
+        // Other users are not affected by it
+        signIn("bystander");
+        assertEquals("replica", readSource());
+    }
+    
+    @Test
+    void taggedReadsGoToThePrimary() {
+        assertEquals("primary", TaggedReads.load("players:1", this::readSource));
+        assertEquals("replica", readSource());
+    }
+    
+    private String readSource() {
+        return reads.execute(tx -> source());
+    }
+    
+    private String source() {
+        return jdbc.queryForObject("SELECT source FROM route_probe", String.class);
+    }
+    
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
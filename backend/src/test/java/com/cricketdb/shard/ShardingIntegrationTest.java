@@ -0,0 +1,136 @@
+package com.cricketdb.shard;
+
+import com.cricketdb.dto.AnalyticsResponse;
+import com.cricketdb.dto.BattingStatsRequest;
+import com.cricketdb.dto.PlayerComparisonResponse;
+import com.cricketdb.dto.PlayerRequest;
+import com.cricketdb.dto.PlayerResponse;
+import com.cricketdb.model.Gender;
+import com.cricketdb.model.PlayerRole;
+import com.cricketdb.repository.PlayerRepository;
+import com.cricketdb.service.AnalyticsService;
+import com.cricketdb.service.PlayerService;
+import com.cricketdb.service.StatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Three shards, each its own in-memory database: shard 0 is spring.datasource, India is placed on
+// shard 1 and Australia on shard 2. Features that refuse to run sharded are switched off.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "cricketdb.datasource.sharding.enabled=true",
+        "cricketdb.datasource.sharding.shards[0].url=jdbc:h2:mem:shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "cricketdb.datasource.sharding.shards[0].username=sa",
+        "cricketdb.datasource.sharding.shards[1].url=jdbc:h2:mem:shard2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "cricketdb.datasource.sharding.shards[1].username=sa",
+        "cricketdb.datasource.sharding.placements.India=1",
+        "cricketdb.datasource.sharding.placements.Australia=2",
+        "cricketdb.live.enabled=false",
+        "cricketdb.rank.enabled=false",
+        "cricketdb.similarity.enabled=false",
+        "cricketdb.distribution.enabled=false"
+})
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+    
+    @Autowired
+    private PlayerService playerService;
+    
+    @Autowired
+    private StatsService statsService;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private PlayerRepository playerRepository;
+    
+    @Autowired
+    private Shards shards;
+    
+    @Test
+    void idsCarryTheShardOfTheirCountry() {
+        PlayerResponse india = createPlayer("Encoded India", "India");
+        PlayerResponse australia = createPlayer("Encoded Australia", "Australia");
+        PlayerResponse england = createPlayer("Encoded England", "England");
+        
+        assertEquals(1, india.getPlayerId() % Shards.MAX_SHARDS);
+        assertEquals(2, australia.getPlayerId() % Shards.MAX_SHARDS);
+        assertEquals(shards.shardForCountry("England"), england.getPlayerId() % Shards.MAX_SHARDS);
+        // Stored only on the shard the id names
+        assertEquals(List.of(false, true, false),
+                shards.onEveryShard(shard -> playerRepository.existsById(india.getPlayerId())));
+        assertEquals(List.of(false, false, true),
+                shards.onEveryShard(shard -> playerRepository.existsById(australia.getPlayerId())));
+    }
+    
+    @Test
+    void routesByIdAndByCountry() {
+        PlayerResponse india = createPlayer("Routed India", "India");
+        PlayerResponse australia = createPlayer("Routed Australia", "Australia");
+        
+        assertEquals("Routed India", playerService.getPlayerById(india.getPlayerId()).getPlayerName());
+        assertEquals("Routed Australia", playerService.getPlayerById(australia.getPlayerId()).getPlayerName());
+        
+        List<PlayerResponse> indians = playerService.getPlayersByCountry("India");
+        assertTrue(indians.stream().anyMatch(p -> p.getPlayerId().equals(india.getPlayerId())));
+        assertTrue(indians.stream().allMatch(p -> p.getCountry().equals("India")));
+        
+        // Innings are written on the shard of their player
+        long statsId = statsService.addBattingStats(batting(australia.getPlayerId(), 10, 0)).getId();
+        assertEquals(2, statsId % Shards.MAX_SHARDS);
+        assertEquals(1, statsService.getBattingStatsByPlayer(australia.getPlayerId()).size());
+        
+        assertThrows(RuntimeException.class, () -> playerService.getPlayerById(india.getPlayerId() + Shards.MAX_SHARDS * 1000L));
+    }
+    
+    @Test
+    void mergesSummaryAndComparisonAcrossShards() {
+        PlayerResponse india = createPlayer("Merged India", "India");
+        PlayerResponse australia = createPlayer("Merged Australia", "Australia");
+        statsService.addBattingStats(batting(india.getPlayerId(), 250, 1));
+        statsService.addBattingStats(batting(australia.getPlayerId(), 90, 15));
+        
+        AnalyticsResponse summary = analyticsService.getAnalytics();
+        assertEquals("Merged India", summary.getHighestRunsPlayer());
+        assertEquals(250, summary.getHighestRuns().intValue());
+        assertEquals("Merged Australia", summary.getMostSixesPlayer());
+        assertEquals(15, summary.getMostSixes().intValue());
+        
+        PlayerComparisonResponse comparison = analyticsService.comparePlayers(
+                List.of(india.getPlayerId(), australia.getPlayerId()), null, null);
+        assertEquals(List.of("Merged India", "Merged Australia"), comparison.getPlayerNames());
+        assertEquals(List.of(250L, 90L), comparison.getBatting().get("runs"));
+    }
+    
+    private PlayerResponse createPlayer(String name, String country) {
+        PlayerRequest request = new PlayerRequest();
+        request.setPlayerName(name);
+        request.setCountry(country);
+        request.setStartYear(2010);
+        request.setGender(Gender.MALE);
+        request.setRole(PlayerRole.BATSMAN);
+        return playerService.createPlayer(request);
+    }
+    
+    private static BattingStatsRequest batting(Long playerId, int runs, int sixes) {
+        BattingStatsRequest request = new BattingStatsRequest();
+        request.setPlayerId(playerId);
+        request.setRuns(runs);
+        request.setBallsPlayed(runs + 20);
+        request.setSixes(sixes);
+        request.setFours(5);
+        request.setAgainst("England");
+        request.setMatchDate(LocalDate.of(2024, 3, 1));
+        return request;
+    }
+}
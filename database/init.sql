@@ -43,3 +43,11 @@ INSERT INTO bowling_stats (player_id, overs, maidens, runs_given, wickets_taken,
 (8, 12.0, 4, 48, 3, 'Australia', '2023-02-15'),
 (9, 9.5, 2, 40, 4, 'Pakistan', '2023-02-25'),
 (10, 8.0, 1, 36, 5, 'England', '2023-03-05');
+
+-- The inserts above took AUTO_INCREMENT ids; move id_allocation (used once sharding is on) past them
+UPDATE id_allocation SET next_id = GREATEST(next_id, (SELECT COALESCE(MAX(player_id), 0) + 1 FROM players))
+WHERE name = 'players';
+UPDATE id_allocation SET next_id = GREATEST(next_id, (SELECT COALESCE(MAX(id), 0) + 1 FROM batting_stats))
+WHERE name = 'batting_stats';
+UPDATE id_allocation SET next_id = GREATEST(next_id, (SELECT COALESCE(MAX(id), 0) + 1 FROM bowling_stats))
+WHERE name = 'bowling_stats';
@@ -39,6 +39,10 @@ const AnalyticsPage: React.FC = () => {
 
   useEffect(() => {
     loadAnalytics();
+    // Keep the page current without re-polling the summary
+    return analyticsAPI.subscribeAnalytics((changes) =>
+      setAnalytics((current) => (current ? { ...current, ...changes } : current))
+    );
   }, []);
 
   const loadAnalytics = async () => {
@@ -54,6 +54,9 @@ interface CombinedInning {
   against: string;
 }
 
+// Innings requested with the profile; the backend caps this at cricketdb.profile.max-recent
+const PROFILE_INNINGS = 200;
+
 const PlayerStatisticsPage: React.FC = () => {
   const { playerId } = useParams<{ playerId: string }>();
   const navigate = useNavigate();
@@ -83,10 +86,17 @@ const PlayerStatisticsPage: React.FC = () => {
     setError('');
     try {
       console.log('Loading player data for playerId:', playerId);
-      const [playerData, battingData, bowlingData] = await Promise.all([
-        playerAPI.getPlayerById(parseInt(playerId)),
-        statsAPI.getBattingStatsByPlayer(parseInt(playerId)),
-        statsAPI.getBowlingStatsByPlayer(parseInt(playerId)),
+      const id = parseInt(playerId);
+      // One round trip for the usual case; only players with a very long career need the full lists
+      const profile = await playerAPI.getPlayerProfile(id, PROFILE_INNINGS);
+      const playerData = profile.player;
+      const [battingData, bowlingData] = await Promise.all([
+        profile.battingInnings > profile.recentBatting.length
+          ? statsAPI.getBattingStatsByPlayer(id)
+          : Promise.resolve(profile.recentBatting),
+        profile.bowlingInnings > profile.recentBowling.length
+          ? statsAPI.getBowlingStatsByPlayer(id)
+          : Promise.resolve(profile.recentBowling),
       ]);
       
       console.log('Player data:', playerData);
@@ -8,7 +8,13 @@ import {
   BowlingStatsRequest, 
   BattingStats, 
   BowlingStats, 
-  AnalyticsResponse 
+  AnalyticsResponse,
+  BatchResult,
+  PlayerProfile,
+  PlayerComparison,
+  SimilarPlayers,
+  Distribution,
+  PlayerRank
 } from '../types';
 
 const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:6548/api';
@@ -73,6 +79,17 @@ export const playerAPI = {
   getPlayerById: (id: number): Promise<Player> =>
     api.get(`/players/${id}`).then(res => res.data),
   
+  // Player, most recent innings and innings counts in one round trip
+  getPlayerProfile: (id: number, recent: number = 10): Promise<PlayerProfile> =>
+    api.get(`/players/${id}/profile`, { params: { recent } }).then(res => res.data),
+
+  getSimilarPlayers: (id: number, k: number = 10): Promise<SimilarPlayers> =>
+    api.get(`/players/${id}/similar`, { params: { k } }).then(res => res.data),
+  
+  // One request for many ids; results keep the order of ids
+  getPlayersByIds: (ids: number[]): Promise<BatchResult<Player>> =>
+    api.post('/players/batch', { ids }).then(res => res.data),
+  
   createPlayer: (player: PlayerRequest): Promise<Player> =>
     api.post('/players', player).then(res => res.data),
   
@@ -103,6 +120,12 @@ export const statsAPI = {
   getBowlingStatById: (id: number): Promise<BowlingStats> =>
     api.get(`/stats/bowling/${id}`).then(res => res.data),
   
+  getBattingStatsByIds: (ids: number[]): Promise<BatchResult<BattingStats>> =>
+    api.post('/stats/batting/batch', { ids }).then(res => res.data),
+  
+  getBowlingStatsByIds: (ids: number[]): Promise<BatchResult<BowlingStats>> =>
+    api.post('/stats/bowling/batch', { ids }).then(res => res.data),
+  
   updateBattingStats: (id: number, stats: BattingStatsRequest): Promise<BattingStats> =>
     api.put(`/stats/batting/${id}`, stats).then(res => res.data),
   
@@ -120,6 +143,25 @@ export const statsAPI = {
 export const analyticsAPI = {
   getAnalyticsSummary: (): Promise<AnalyticsResponse> =>
     api.get('/analytics/summary').then(res => res.data),
+
+  comparePlayers: (playerIds: number[], from?: string, to?: string): Promise<PlayerComparison> =>
+    api.get('/analytics/compare', { params: { playerIds: playerIds.join(','), from, to } }).then(res => res.data),
+
+  getDistribution: (metric: Distribution['metric'], playerId?: number, quantiles?: number[]): Promise<Distribution> =>
+    api.get(`/analytics/distribution/${metric}`, { params: { playerId, quantiles: quantiles?.join(',') } }).then(res => res.data),
+
+  getRank: (metric: PlayerRank['metric'], playerId: number, window: number = 5): Promise<PlayerRank> =>
+    api.get(`/analytics/rank/${metric}/${playerId}`, { params: { window } }).then(res => res.data),
+
+  // Server-sent events: the full summary on connect, then only the changed fields.
+  // Returns a function that closes the stream.
+  subscribeAnalytics: (onChange: (changes: Partial<AnalyticsResponse>) => void): (() => void) => {
+    const source = new EventSource(`${API_BASE_URL}/analytics/stream`);
+    const handler = (event: MessageEvent) => onChange(JSON.parse(event.data));
+    source.addEventListener('summary', handler as EventListener);
+    source.addEventListener('leaderboard', handler as EventListener);
+    return () => source.close();
+  },
 };
 
 export default api;
@@ -101,6 +101,70 @@ export interface AnalyticsResponse {
   mostFours: number;
 }
 
+export interface PlayerProfile {
+  player: Player;
+  recentBatting: BattingStats[];
+  recentBowling: BowlingStats[];
+  battingInnings: number;
+  bowlingInnings: number;
+}
+
+export interface BatchResult<T> {
+  results: {
+    id: number;
+    status: 'FOUND' | 'NOT_FOUND';
+    data?: T;
+  }[];
+}
+
+export interface PlayerComparison {
+  from: string;
+  to: string;
+  playerIds: number[];
+  playerNames: string[];
+  // Each series is aligned with playerIds; null where a ratio is undefined
+  batting: Record<string, (number | null)[]>;
+  bowling: Record<string, (number | null)[]>;
+}
+
+export interface SimilarPlayers {
+  playerId: number;
+  method: 'exact' | 'approximate';
+  similar: {
+    playerId: number;
+    playerName: string;
+    role: Player['role'];
+    distance: number;
+  }[];
+}
+
+export interface Distribution {
+  metric: 'runs' | 'strike-rate' | 'economy' | 'wickets' | 'opponents';
+  playerId?: number;
+  count?: number;
+  min?: number;
+  max?: number;
+  quantiles?: Record<string, number | null>;
+  rankError?: number;
+  distinct?: number;
+  relativeError?: number;
+  stale: boolean;
+}
+
+export interface RankedPlayer {
+  playerId: number;
+  playerName: string;
+  value: number;
+  rank: number;
+}
+
+export interface PlayerRank extends RankedPlayer {
+  metric: 'runs' | 'fours' | 'sixes' | 'wickets';
+  totalPlayers: number;
+  above: RankedPlayer[];
+  below: RankedPlayer[];
+}
+
 export interface AuthContextType {
   user: User | null;
   token: string | null;
@@ -0,0 +1,13 @@
+package com.cricketdb.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class CricketDbReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(CricketDbReactiveApplication.class, args);
+    }
+
+}
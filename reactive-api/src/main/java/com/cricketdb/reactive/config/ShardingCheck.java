@@ -0,0 +1,26 @@
+package com.cricketdb.reactive.config;
+
+import com.cricketdb.reactive.repository.ShardingStateRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// This API reads players and innings from one database. When the backend shards them across
+// several, most would be missing here, so refuse to start rather than serve partial results.
+@Component
+public class ShardingCheck {
+    
+    @Autowired
+    private ShardingStateRepository shardingStateRepository;
+    
+    @PostConstruct
+    public void check() {
+        Integer shards = shardingStateRepository.findShardCount().block(Duration.ofSeconds(30));
+        if (shards != null && shards > 1) {
+            throw new IllegalStateException("The backend shards players across " + shards
+                    + " databases; the reactive API only reads one");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cricketdb.reactive.controller;
+
+import com.cricketdb.reactive.dto.AnalyticsResponse;
+import com.cricketdb.reactive.service.AnalyticsReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsReadController {
+    
+    @Autowired
+    private AnalyticsReadService analyticsReadService;
+    
+    @GetMapping("/summary")
+    public Mono<AnalyticsResponse> getAnalyticsSummary() {
+        return analyticsReadService.getAnalytics();
+    }
+}
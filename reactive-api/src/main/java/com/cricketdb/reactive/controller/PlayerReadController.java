@@ -0,0 +1,37 @@
+package com.cricketdb.reactive.controller;
+
+import com.cricketdb.reactive.dto.PlayerResponse;
+import com.cricketdb.reactive.service.PlayerReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/players")
+public class PlayerReadController {
+    
+    @Autowired
+    private PlayerReadService playerReadService;
+    
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PlayerResponse> getAllPlayers() {
+        return playerReadService.getAllPlayers();
+    }
+    
+    @GetMapping(value = "/country/{country}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PlayerResponse> getPlayersByCountry(@PathVariable String country) {
+        return playerReadService.getPlayersByCountry(country);
+    }
+    
+    @GetMapping("/countries")
+    public Flux<String> getDistinctCountries() {
+        return playerReadService.getDistinctCountries();
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<PlayerResponse> getPlayerById(@PathVariable Long id) {
+        return playerReadService.getPlayerById(id);
+    }
+}
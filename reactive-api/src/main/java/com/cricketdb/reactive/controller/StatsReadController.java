@@ -0,0 +1,27 @@
+package com.cricketdb.reactive.controller;
+
+import com.cricketdb.reactive.dto.BattingStatsResponse;
+import com.cricketdb.reactive.dto.BowlingStatsResponse;
+import com.cricketdb.reactive.service.StatsReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsReadController {
+    
+    @Autowired
+    private StatsReadService statsReadService;
+    
+    @GetMapping(value = "/batting/player/{playerId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BattingStatsResponse> getBattingStatsByPlayer(@PathVariable Long playerId) {
+        return statsReadService.getBattingStatsByPlayer(playerId);
+    }
+    
+    @GetMapping(value = "/bowling/player/{playerId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BowlingStatsResponse> getBowlingStatsByPlayer(@PathVariable Long playerId) {
+        return statsReadService.getBowlingStatsByPlayer(playerId);
+    }
+}
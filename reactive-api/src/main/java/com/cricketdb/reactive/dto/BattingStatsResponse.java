@@ -0,0 +1,19 @@
+package com.cricketdb.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BattingStatsResponse {
+    private Long id;
+    private PlayerResponse player;
+    private Integer runs;
+    private Integer ballsPlayed;
+    private Integer sixes;
+    private Integer fours;
+    private String against;
+    private LocalDate matchDate;
+}
@@ -0,0 +1,19 @@
+package com.cricketdb.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BowlingStatsResponse {
+    private Long id;
+    private PlayerResponse player;
+    private Double overs;
+    private Integer maidens;
+    private Integer runsGiven;
+    private Integer wicketsTaken;
+    private String against;
+    private LocalDate matchDate;
+}
@@ -0,0 +1,18 @@
+package com.cricketdb.reactive.dto;
+
+import com.cricketdb.reactive.model.Gender;
+import com.cricketdb.reactive.model.PlayerRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PlayerResponse {
+    private Long playerId;
+    private String playerName;
+    private String country;
+    private Integer startYear;
+    private Gender gender;
+    private PlayerRole role;
+    private String notes;
+}
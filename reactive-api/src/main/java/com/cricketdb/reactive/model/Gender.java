@@ -0,0 +1,6 @@
+package com.cricketdb.reactive.model;
+
+public enum Gender {
+    MALE,
+    FEMALE
+}
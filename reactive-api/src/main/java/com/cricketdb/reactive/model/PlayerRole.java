@@ -0,0 +1,7 @@
+package com.cricketdb.reactive.model;
+
+public enum PlayerRole {
+    BATSMAN,
+    BOWLER,
+    ALL_ROUNDER
+}
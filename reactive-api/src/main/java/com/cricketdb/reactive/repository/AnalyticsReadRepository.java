@@ -0,0 +1,102 @@
+package com.cricketdb.reactive.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Native equivalents of the leaderboard queries in the backend's BattingStatsRepository/BowlingStatsRepository
+@Repository
+public class AnalyticsReadRepository {
+    
+    // Per-player totals from the recent partitions after the last archived season plus the
+    // season summaries up to it, as in the backend's CAREER_ROWS
+    private static final String BATTING_ROWS = "(SELECT player_id, SUM(runs) AS runs, SUM(fours) AS fours, SUM(sixes) AS sixes, "
+            + "SUM(CASE WHEN runs >= 100 THEN 1 ELSE 0 END) AS centuries, COUNT(DISTINCT match_date) AS match_days, "
+            + "MAX(CASE WHEN runs >= 100 THEN match_date END) AS last_century_date "
+            + "FROM batting_stats WHERE match_date >= :liveFrom GROUP BY player_id UNION ALL "
+            + "SELECT player_id, runs, fours, sixes, centuries, match_days, last_century_date "
+            + "FROM batting_season_summary WHERE season <= :archivedThrough)";
+    private static final String BOWLING_ROWS = "(SELECT player_id, SUM(wickets_taken) AS wickets, SUM(maidens) AS maidens, "
+            + "SUM(runs_given) AS runs_given, SUM(overs) AS overs, SUM(CASE WHEN wickets_taken >= 5 THEN 1 ELSE 0 END) AS five_fors, "
+            + "MAX(CASE WHEN wickets_taken >= 5 THEN match_date END) AS last_five_for_date "
+            + "FROM bowling_stats WHERE match_date >= :liveFrom GROUP BY player_id UNION ALL "
+            + "SELECT player_id, wickets, maidens, runs_given, overs, five_fors, last_five_for_date "
+            + "FROM bowling_season_summary WHERE season <= :archivedThrough)";
+    private static final String BATTING_JOIN = " FROM players p JOIN " + BATTING_ROWS + " t ON t.player_id = p.player_id ";
+    private static final String BOWLING_JOIN = " FROM players p JOIN " + BOWLING_ROWS + " t ON t.player_id = p.player_id ";
+    private static final String GROUP_BY_PLAYER = " GROUP BY p.player_id, p.player_name ";
+    
+    // Lowest MySQL DATE; everything is live when nothing is archived
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    // Newest archived season, 0 when none
+    public Mono<Integer> findArchivedThrough() {
+        return databaseClient.sql("SELECT COALESCE(MAX(season), 0) FROM season_archive")
+                .map((row, metadata) -> ((Number) row.get(0)).intValue())
+                .one();
+    }
+    
+    public Mono<Object[]> findHighestRunsData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.runs) AS v" + BATTING_JOIN + GROUP_BY_PLAYER + "ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findTotalCenturiesData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.centuries) AS v" + BATTING_JOIN + GROUP_BY_PLAYER
+                + "HAVING SUM(t.centuries) > 0 ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findMostRecentCenturyData(int archivedThrough) {
+        return top("SELECT p.player_name, MAX(t.last_century_date) AS v" + BATTING_JOIN + GROUP_BY_PLAYER
+                + "HAVING MAX(t.last_century_date) IS NOT NULL ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findMostSixesData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.sixes) AS v" + BATTING_JOIN + GROUP_BY_PLAYER + "ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findMostFoursData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.fours) AS v" + BATTING_JOIN + GROUP_BY_PLAYER + "ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findBestBattingAverageData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.runs) / SUM(t.match_days) AS v" + BATTING_JOIN + GROUP_BY_PLAYER
+                + "HAVING SUM(t.match_days) > 0 ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findHighestWicketsData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.wickets) AS v" + BOWLING_JOIN + GROUP_BY_PLAYER + "ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findMostMaidenOversData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.maidens) AS v" + BOWLING_JOIN + GROUP_BY_PLAYER + "ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findTotalFiveWicketHaulsData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.five_fors) AS v" + BOWLING_JOIN + GROUP_BY_PLAYER
+                + "HAVING SUM(t.five_fors) > 0 ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findMostRecentFiveWicketHaulData(int archivedThrough) {
+        return top("SELECT p.player_name, MAX(t.last_five_for_date) AS v" + BOWLING_JOIN + GROUP_BY_PLAYER
+                + "HAVING MAX(t.last_five_for_date) IS NOT NULL ORDER BY v DESC", archivedThrough);
+    }
+    
+    public Mono<Object[]> findBestBowlingEconomyData(int archivedThrough) {
+        return top("SELECT p.player_name, SUM(t.runs_given) / SUM(t.overs) AS v" + BOWLING_JOIN + GROUP_BY_PLAYER
+                + "HAVING SUM(t.overs) > 0 ORDER BY v ASC", archivedThrough);
+    }
+    
+    private Mono<Object[]> top(String sql, int archivedThrough) {
+        return databaseClient.sql(sql + " LIMIT 1")
+                .bind("liveFrom", archivedThrough > 0 ? LocalDate.of(archivedThrough + 1, 1, 1) : EARLIEST)
+                .bind("archivedThrough", archivedThrough)
+                .map((row, metadata) -> new Object[]{row.get(0, String.class), row.get(1)})
+                .first();
+    }
+}
@@ -0,0 +1,68 @@
+package com.cricketdb.reactive.repository;
+
+import com.cricketdb.reactive.dto.PlayerResponse;
+import com.cricketdb.reactive.model.Gender;
+import com.cricketdb.reactive.model.PlayerRole;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class PlayerReadRepository {
+    
+    static final String PLAYER_COLUMNS = "p.player_id, p.player_name, p.country, p.start_year, p.gender, p.role, p.notes";
+    
+    private static final String SELECT_PLAYERS = "SELECT " + PLAYER_COLUMNS + " FROM players p";
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    public Flux<PlayerResponse> findAll() {
+        return databaseClient.sql(SELECT_PLAYERS + " ORDER BY p.player_id")
+                .map((row, metadata) -> toPlayer(row))
+                .all();
+    }
+    
+    public Flux<PlayerResponse> findByCountry(String country) {
+        return databaseClient.sql(SELECT_PLAYERS + " WHERE p.country = :country ORDER BY p.player_id")
+                .bind("country", country)
+                .map((row, metadata) -> toPlayer(row))
+                .all();
+    }
+    
+    public Flux<String> findDistinctCountries() {
+        return databaseClient.sql("SELECT DISTINCT country FROM players ORDER BY country")
+                .map((row, metadata) -> row.get("country", String.class))
+                .all();
+    }
+    
+    public Mono<PlayerResponse> findById(Long id) {
+        return databaseClient.sql(SELECT_PLAYERS + " WHERE p.player_id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toPlayer(row))
+                .one();
+    }
+    
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM players WHERE player_id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+    
+    static PlayerResponse toPlayer(Row row) {
+        return new PlayerResponse(
+                row.get("player_id", Long.class),
+                row.get("player_name", String.class),
+                row.get("country", String.class),
+                row.get("start_year", Integer.class),
+                Gender.valueOf(row.get("gender", String.class)),
+                PlayerRole.valueOf(row.get("role", String.class)),
+                row.get("notes", String.class)
+        );
+    }
+}
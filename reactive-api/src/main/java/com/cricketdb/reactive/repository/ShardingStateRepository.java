@@ -0,0 +1,22 @@
+package com.cricketdb.reactive.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.BadSqlGrammarException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ShardingStateRepository {
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    // Shards the backend last started with; empty if it never recorded them (a single database)
+    public Mono<Integer> findShardCount() {
+        return databaseClient.sql("SELECT shard_count FROM sharding_state WHERE id = 1")
+                .map((row, metadata) -> row.get("shard_count", Integer.class))
+                .first()
+                .onErrorResume(BadSqlGrammarException.class, e -> Mono.empty());
+    }
+}
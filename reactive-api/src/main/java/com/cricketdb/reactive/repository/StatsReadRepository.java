@@ -0,0 +1,55 @@
+package com.cricketdb.reactive.repository;
+
+import com.cricketdb.reactive.dto.BattingStatsResponse;
+import com.cricketdb.reactive.dto.BowlingStatsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Repository
+public class StatsReadRepository {
+    
+    private static final String SELECT_BATTING = "SELECT b.id, b.runs, b.balls_played, b.sixes, b.fours, b.against, b.match_date, "
+            + PlayerReadRepository.PLAYER_COLUMNS
+            + " FROM batting_stats b JOIN players p ON p.player_id = b.player_id";
+    
+    private static final String SELECT_BOWLING = "SELECT b.id, b.overs, b.maidens, b.runs_given, b.wickets_taken, b.against, b.match_date, "
+            + PlayerReadRepository.PLAYER_COLUMNS
+            + " FROM bowling_stats b JOIN players p ON p.player_id = b.player_id";
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    public Flux<BattingStatsResponse> findBattingByPlayerId(Long playerId) {
+        return databaseClient.sql(SELECT_BATTING + " WHERE b.player_id = :playerId ORDER BY b.id")
+                .bind("playerId", playerId)
+                .map((row, metadata) -> new BattingStatsResponse(
+                        row.get("id", Long.class),
+                        PlayerReadRepository.toPlayer(row),
+                        row.get("runs", Integer.class),
+                        row.get("balls_played", Integer.class),
+                        row.get("sixes", Integer.class),
+                        row.get("fours", Integer.class),
+                        row.get("against", String.class),
+                        row.get("match_date", LocalDate.class)))
+                .all();
+    }
+    
+    public Flux<BowlingStatsResponse> findBowlingByPlayerId(Long playerId) {
+        return databaseClient.sql(SELECT_BOWLING + " WHERE b.player_id = :playerId ORDER BY b.id")
+                .bind("playerId", playerId)
+                .map((row, metadata) -> new BowlingStatsResponse(
+                        row.get("id", Long.class),
+                        PlayerReadRepository.toPlayer(row),
+                        row.get("overs", Double.class),
+                        row.get("maidens", Integer.class),
+                        row.get("runs_given", Integer.class),
+                        row.get("wickets_taken", Integer.class),
+                        row.get("against", String.class),
+                        row.get("match_date", LocalDate.class)))
+                .all();
+    }
+}
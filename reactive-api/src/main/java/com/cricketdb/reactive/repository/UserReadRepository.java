@@ -0,0 +1,20 @@
+package com.cricketdb.reactive.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class UserReadRepository {
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    public Mono<String> findRoleByEmail(String email) {
+        return databaseClient.sql("SELECT role FROM users WHERE email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> row.get("role", String.class))
+                .first();
+    }
+}
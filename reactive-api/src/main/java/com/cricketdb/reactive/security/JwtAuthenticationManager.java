@@ -0,0 +1,35 @@
+package com.cricketdb.reactive.security;
+
+import com.cricketdb.reactive.repository.UserReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private UserReadRepository userReadRepository;
+    
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String jwt = (String) authentication.getCredentials();
+        
+        return Mono.fromCallable(() -> jwtUtil.extractUsername(jwt))
+                .onErrorMap(e -> new BadCredentialsException("JWT token validation failed", e))
+                .flatMap(username -> userReadRepository.findRoleByEmail(username)
+                        .switchIfEmpty(Mono.error(() -> new BadCredentialsException("User not found with email: " + username)))
+                        .map(role -> new UsernamePasswordAuthenticationToken(
+                                username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)))));
+    }
+}
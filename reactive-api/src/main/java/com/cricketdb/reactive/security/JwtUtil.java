@@ -0,0 +1,31 @@
+package com.cricketdb.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+
+// Validates tokens issued by the backend's /api/auth/login; this tier never issues tokens
+@Component
+public class JwtUtil {
+    
+    @Value("${spring.security.jwt.secret}")
+    private String secret;
+    
+    private SecretKey getSigningKey() {
+        return Keys.hmacShaKeyFor(secret.getBytes());
+    }
+    
+    // Signature and expiration are checked by the parser; invalid tokens throw a JwtException
+    public String extractUsername(String token) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claims.getSubject();
+    }
+}
@@ -0,0 +1,76 @@
+package com.cricketdb.reactive.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+// Mirrors the read rules of the backend's SecurityConfig; everything else is denied because this tier is read-only
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+    
+    @Autowired
+    private JwtAuthenticationManager jwtAuthenticationManager;
+    
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager);
+        jwtFilter.setServerAuthenticationConverter(exchange -> {
+            String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+                String jwt = authorizationHeader.substring(7);
+                return Mono.just(new UsernamePasswordAuthenticationToken(jwt, jwt));
+            }
+            return Mono.empty();
+        });
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        // Like the backend's filter, a bad or expired token leaves the request anonymous rather than
+        // failing it, so permitted routes still answer and protected ones get the usual 401
+        jwtFilter.setAuthenticationFailureHandler((webFilterExchange, exception) ->
+                webFilterExchange.getChain().filter(webFilterExchange.getExchange()));
+        
+        http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .httpBasic(basic -> basic.disable())
+            .formLogin(form -> form.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authorizeExchange(authz -> authz
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/analytics/**").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/players", "/api/players/**").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
+                .pathMatchers(HttpMethod.GET, "/api/stats/**").hasAnyRole("ADMIN", "DATA_ENTRY", "VIEWER")
+                .anyExchange().denyAll()
+            )
+            .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION);
+        
+        return http.build();
+    }
+    
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(Arrays.asList("*"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+        
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
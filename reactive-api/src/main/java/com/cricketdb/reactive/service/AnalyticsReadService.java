@@ -0,0 +1,66 @@
+package com.cricketdb.reactive.service;
+
+import com.cricketdb.reactive.dto.AnalyticsResponse;
+import com.cricketdb.reactive.repository.AnalyticsReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@Service
+public class AnalyticsReadService {
+    
+    @Autowired
+    private AnalyticsReadRepository analyticsReadRepository;
+    
+    // The archive boundary is read once so every leaderboard splits at the same season
+    public Mono<AnalyticsResponse> getAnalytics() {
+        return analyticsReadRepository.findArchivedThrough().flatMap(this::getAnalytics);
+    }
+    
+    // All leaderboard queries are issued at once instead of one after another
+    private Mono<AnalyticsResponse> getAnalytics(int archivedThrough) {
+        AnalyticsResponse.AnalyticsResponseBuilder builder = AnalyticsResponse.builder();
+        
+        List<Mono<Runnable>> parts = List.of(
+                part(analyticsReadRepository.findHighestRunsData(archivedThrough), (name, value) ->
+                        builder.highestRunsPlayer(name).highestRuns(((Number) value).intValue())),
+                part(analyticsReadRepository.findHighestWicketsData(archivedThrough), (name, value) ->
+                        builder.highestWicketsPlayer(name).highestWickets(((Number) value).intValue())),
+                part(analyticsReadRepository.findMostMaidenOversData(archivedThrough), (name, value) ->
+                        builder.mostMaidenOversPlayer(name).mostMaidenOvers(((Number) value).intValue())),
+                part(analyticsReadRepository.findBestBattingAverageData(archivedThrough), (name, value) ->
+                        builder.bestBattingAveragePlayer(name).bestBattingAverage(((Number) value).doubleValue())),
+                part(analyticsReadRepository.findBestBowlingEconomyData(archivedThrough), (name, value) ->
+                        builder.bestBowlingEconomyPlayer(name).bestBowlingEconomy(((Number) value).doubleValue())),
+                part(analyticsReadRepository.findTotalCenturiesData(archivedThrough), (name, value) ->
+                        builder.totalCenturiesPlayer(name).totalCenturies(((Number) value).intValue())),
+                part(analyticsReadRepository.findTotalFiveWicketHaulsData(archivedThrough), (name, value) ->
+                        builder.totalFiveWicketHaulsPlayer(name).totalFiveWicketHauls(((Number) value).intValue())),
+                part(analyticsReadRepository.findMostRecentCenturyData(archivedThrough), (name, value) ->
+                        builder.mostRecentCenturyPlayer(name).mostRecentCenturyDate((LocalDate) value)),
+                part(analyticsReadRepository.findMostRecentFiveWicketHaulData(archivedThrough), (name, value) ->
+                        builder.mostRecentFiveWicketHaulPlayer(name).mostRecentFiveWicketHaulDate((LocalDate) value)),
+                part(analyticsReadRepository.findMostSixesData(archivedThrough), (name, value) ->
+                        builder.mostSixesPlayer(name).mostSixes(((Number) value).intValue())),
+                part(analyticsReadRepository.findMostFoursData(archivedThrough), (name, value) ->
+                        builder.mostFoursPlayer(name).mostFours(((Number) value).intValue()))
+        );
+        
+        // Builder updates are applied on a single thread once every query has completed
+        return Flux.merge(parts)
+                .collectList()
+                .map(updates -> {
+                    updates.forEach(Runnable::run);
+                    return builder.build();
+                });
+    }
+    
+    private Mono<Runnable> part(Mono<Object[]> query, BiConsumer<String, Object> apply) {
+        return query.map(data -> () -> apply.accept((String) data[0], data[1]));
+    }
+}
@@ -0,0 +1,35 @@
+package com.cricketdb.reactive.service;
+
+import com.cricketdb.reactive.dto.PlayerResponse;
+import com.cricketdb.reactive.repository.PlayerReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class PlayerReadService {
+    
+    @Autowired
+    private PlayerReadRepository playerReadRepository;
+    
+    public Flux<PlayerResponse> getAllPlayers() {
+        return playerReadRepository.findAll();
+    }
+    
+    public Flux<PlayerResponse> getPlayersByCountry(String country) {
+        if (country == null || country.equals("All")) {
+            return getAllPlayers();
+        }
+        return playerReadRepository.findByCountry(country);
+    }
+    
+    public Flux<String> getDistinctCountries() {
+        return playerReadRepository.findDistinctCountries();
+    }
+    
+    public Mono<PlayerResponse> getPlayerById(Long id) {
+        return playerReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Player not found with id: " + id)));
+    }
+}
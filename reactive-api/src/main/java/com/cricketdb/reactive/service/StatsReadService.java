@@ -0,0 +1,35 @@
+package com.cricketdb.reactive.service;
+
+import com.cricketdb.reactive.dto.BattingStatsResponse;
+import com.cricketdb.reactive.dto.BowlingStatsResponse;
+import com.cricketdb.reactive.repository.PlayerReadRepository;
+import com.cricketdb.reactive.repository.StatsReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class StatsReadService {
+    
+    @Autowired
+    private StatsReadRepository statsReadRepository;
+    
+    @Autowired
+    private PlayerReadRepository playerReadRepository;
+    
+    public Flux<BattingStatsResponse> getBattingStatsByPlayer(Long playerId) {
+        return requirePlayer(playerId).thenMany(statsReadRepository.findBattingByPlayerId(playerId));
+    }
+    
+    public Flux<BowlingStatsResponse> getBowlingStatsByPlayer(Long playerId) {
+        return requirePlayer(playerId).thenMany(statsReadRepository.findBowlingByPlayerId(playerId));
+    }
+    
+    private Mono<Void> requirePlayer(Long playerId) {
+        return playerReadRepository.existsById(playerId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new RuntimeException("Player not found with id: " + playerId)));
+    }
+}
@@ -0,0 +1,77 @@
+-- Mirrors the tables the backend creates through JPA
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS players (
+    player_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    player_name VARCHAR(255) NOT NULL,
+    country VARCHAR(255) NOT NULL,
+    start_year INT NOT NULL,
+    gender VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    notes VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS batting_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL REFERENCES players (player_id),
+    runs INT NOT NULL,
+    balls_played INT NOT NULL,
+    sixes INT NOT NULL,
+    fours INT NOT NULL,
+    against VARCHAR(255) NOT NULL,
+    match_date DATE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS bowling_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL REFERENCES players (player_id),
+    overs DOUBLE NOT NULL,
+    maidens INT NOT NULL,
+    runs_given INT NOT NULL,
+    wickets_taken INT NOT NULL,
+    against VARCHAR(255) NOT NULL,
+    match_date DATE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS batting_season_summary (
+    player_id BIGINT NOT NULL,
+    season INT NOT NULL,
+    innings BIGINT NOT NULL,
+    runs BIGINT NOT NULL,
+    balls_played BIGINT NOT NULL,
+    fours BIGINT NOT NULL,
+    sixes BIGINT NOT NULL,
+    highest INT NOT NULL,
+    fifties BIGINT NOT NULL,
+    centuries BIGINT NOT NULL,
+    match_days BIGINT NOT NULL,
+    last_century_date DATE,
+    PRIMARY KEY (player_id, season)
+);
+
+CREATE TABLE IF NOT EXISTS bowling_season_summary (
+    player_id BIGINT NOT NULL,
+    season INT NOT NULL,
+    innings BIGINT NOT NULL,
+    overs DOUBLE NOT NULL,
+    maidens BIGINT NOT NULL,
+    runs_given BIGINT NOT NULL,
+    wickets BIGINT NOT NULL,
+    best_wickets INT NOT NULL,
+    five_fors BIGINT NOT NULL,
+    last_five_for_date DATE,
+    PRIMARY KEY (player_id, season)
+);
+
+CREATE TABLE IF NOT EXISTS season_archive (
+    season INT PRIMARY KEY,
+    batting_innings BIGINT NOT NULL,
+    bowling_innings BIGINT NOT NULL,
+    raw_moved BOOLEAN NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,131 @@
+package com.cricketdb.reactive;
+
+import com.cricketdb.reactive.dto.PlayerResponse;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the read tier against the h2 profile's sample data (h2/data.sql), with tokens signed the
+// way the backend's /api/auth/login signs them
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class ReactiveApiIntegrationTest {
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Value("${spring.security.jwt.secret}")
+    private String secret;
+    
+    @Test
+    void analyticsSummaryIsPublic() {
+        webTestClient.get().uri("/api/analytics/summary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.highestRunsPlayer").isEqualTo("Virat Kohli")
+                .jsonPath("$.mostSixesPlayer").isEqualTo("Virat Kohli");
+        
+        // A bad token leaves the request anonymous instead of failing it
+        webTestClient.get().uri("/api/analytics/summary")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isOk();
+    }
+    
+    @Test
+    void playersNeedAValidToken() {
+        webTestClient.get().uri("/api/players").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/players")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin@cricketdb.com", 60_000))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].playerName").isEqualTo("Virat Kohli");
+        
+        webTestClient.get().uri("/api/players")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin@cricketdb.com", -60_000))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/players")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("nobody@cricketdb.com", 60_000))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+    
+    @Test
+    void streamsPlayersAsNdjson() {
+        StepVerifier.create(webTestClient.get().uri("/api/players/country/India")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin@cricketdb.com", 60_000))
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(PlayerResponse.class)
+                        .getResponseBody())
+                .expectNextMatches(player -> "India".equals(player.getCountry()))
+                .thenConsumeWhile(player -> "India".equals(player.getCountry()))
+                .verifyComplete();
+    }
+    
+    @Test
+    void readsPlayersAndInnings() {
+        String token = token("admin@cricketdb.com", 60_000);
+        webTestClient.get().uri("/api/players/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.playerName").isEqualTo("Virat Kohli");
+        webTestClient.get().uri("/api/players/999999")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isBadRequest();
+        
+        webTestClient.get().uri("/api/stats/batting/player/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].runs").isNumber();
+        webTestClient.get().uri("/api/players/countries")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertTrue(body.contains("New Zealand")));
+    }
+    
+    @Test
+    void writesAreDenied() {
+        webTestClient.post().uri("/api/players")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin@cricketdb.com", 60_000))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+    
+    private String token(String subject, long expiresInMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(subject)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiresInMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
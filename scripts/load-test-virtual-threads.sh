@@ -0,0 +1,84 @@
+#!/bin/bash
+
+# Compares platform-thread and virtual-thread request execution under high concurrency.
+#
+# Usage:
+#   1. Start the backend in platform-thread mode:   (cd backend && mvn spring-boot:run)
+#      ./scripts/load-test-virtual-threads.sh platform
+#   2. Start the backend in virtual-thread mode:    (cd backend && mvn -Pjava21 spring-boot:run)
+#      ./scripts/load-test-virtual-threads.sh virtual
+#   3. Print the side-by-side comparison:
+#      ./scripts/load-test-virtual-threads.sh compare
+#
+# Requires `hey` (https://github.com/rakyll/hey) and `jq`.
+
+BASE_URL=${BASE_URL:-http://localhost:6548}
+CONCURRENCY_LEVELS=${CONCURRENCY_LEVELS:-"250 1000 2000"}
+DURATION=${DURATION:-30s}
+RESULTS_DIR=${RESULTS_DIR:-load-test-results}
+MODE=$1
+
+if [ -z "$MODE" ]; then
+    echo "Usage: $0 <platform|virtual|compare>"
+    exit 1
+fi
+
+summarize() {
+    local file=$1
+    local rps p50 p99 errors
+    rps=$(grep "Requests/sec" "$file" | awk '{print $2}')
+    p50=$(grep "50% in" "$file" | awk '{print $3}')
+    p99=$(grep "99% in" "$file" | awk '{print $3}')
+    # hey records one final status per request ("[404]  12 responses"), so sum the counts of the
+    # non-200 codes, plus the requests that got no response at all ("[3]  Get ...: dial tcp ...")
+    errors=$(awk '
+        /Status code distribution/ { section = "status"; next }
+        /Error distribution/ { section = "error"; next }
+        section != "" && !/^[[:space:]]*\[/ { section = "" }
+        section == "status" && !/\[200\]/ { sum += $2 }
+        section == "error" { gsub(/[][]/, "", $1); sum += $1 }
+        END { print sum + 0 }' "$file")
+    printf "%-12s %-10s %-10s %-10s %s\n" "$rps" "$p50" "$p99" "$errors" "$(basename "$file")"
+}
+
+if [ "$MODE" = "compare" ]; then
+    printf "%-12s %-10s %-10s %-10s %s\n" "req/s" "p50(s)" "p99(s)" "non-200" "run"
+    for file in "$RESULTS_DIR"/*.txt; do
+        summarize "$file"
+    done
+    exit 0
+fi
+
+for tool in hey jq curl; do
+    if ! command -v $tool &> /dev/null; then
+        echo "❌ $tool is required"
+        exit 1
+    fi
+done
+
+if ! curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+    echo "❌ Backend is not running at $BASE_URL"
+    exit 1
+fi
+
+TOKEN=$(curl -s -X POST "$BASE_URL/api/auth/login" \
+    -H "Content-Type: application/json" \
+    -d '{"email":"admin@cricketdb.com","password":"admin123"}' | jq -r '.token')
+
+if [ -z "$TOKEN" ] || [ "$TOKEN" = "null" ]; then
+    echo "❌ Login failed"
+    exit 1
+fi
+
+mkdir -p "$RESULTS_DIR"
+
+for c in $CONCURRENCY_LEVELS; do
+    echo "⏳ [$MODE] analytics summary with $c concurrent clients for $DURATION..."
+    hey -z "$DURATION" -c "$c" "$BASE_URL/api/analytics/summary" > "$RESULTS_DIR/$MODE-analytics-c$c.txt"
+
+    echo "⏳ [$MODE] player list with $c concurrent clients for $DURATION..."
+    hey -z "$DURATION" -c "$c" -H "Authorization: Bearer $TOKEN" \
+        "$BASE_URL/api/players" > "$RESULTS_DIR/$MODE-players-c$c.txt"
+done
+
+echo "✅ Results written to $RESULTS_DIR"
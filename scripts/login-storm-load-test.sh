@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# Measures read latency on /api/players and /api/analytics/summary before and during a login storm.
+# With the bounded login pool, read latency should stay flat while excess logins get 503s.
+#
+# All requests come from one client, so per-client rate limiting would answer most of them with 429
+# and hide the login pool. Start the backend with rate limiting off for this run:
+#   CRICKETDB_RATELIMIT_ENABLED=false mvn spring-boot:run
+#
+# Usage: ./scripts/login-storm-load-test.sh
+# Requires `hey` (https://github.com/rakyll/hey) and `jq`.
+
+BASE_URL=${BASE_URL:-http://localhost:6548}
+READ_CONCURRENCY=${READ_CONCURRENCY:-50}
+LOGIN_CONCURRENCY=${LOGIN_CONCURRENCY:-500}
+DURATION=${DURATION:-30s}
+RESULTS_DIR=${RESULTS_DIR:-load-test-results}
+
+for tool in hey jq curl; do
+    if ! command -v $tool &> /dev/null; then
+        echo "❌ $tool is required"
+        exit 1
+    fi
+done
+
+if ! curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+    echo "❌ Backend is not running at $BASE_URL"
+    exit 1
+fi
+
+LOGIN_RESPONSE=$(curl -s -D - -X POST "$BASE_URL/api/auth/login" \
+    -H "Content-Type: application/json" \
+    -d '{"email":"admin@cricketdb.com","password":"admin123"}')
+
+if echo "$LOGIN_RESPONSE" | grep -qi '^RateLimit-Limit:'; then
+    echo "❌ Rate limiting is enabled; restart the backend with CRICKETDB_RATELIMIT_ENABLED=false"
+    exit 1
+fi
+
+TOKEN=$(echo "$LOGIN_RESPONSE" | sed -n '/^\r\{0,1\}$/,$p' | jq -r '.token')
+
+if [ -z "$TOKEN" ] || [ "$TOKEN" = "null" ]; then
+    echo "❌ Login failed"
+    exit 1
+fi
+
+mkdir -p "$RESULTS_DIR"
+
+echo "⏳ Baseline read latency ($READ_CONCURRENCY clients, $DURATION)..."
+hey -z "$DURATION" -c "$READ_CONCURRENCY" -H "Authorization: Bearer $TOKEN" \
+    "$BASE_URL/api/players" > "$RESULTS_DIR/reads-baseline.txt"
+
+echo "⏳ Read latency during a login storm ($LOGIN_CONCURRENCY login clients)..."
+hey -z "$DURATION" -c "$LOGIN_CONCURRENCY" -m POST -T "application/json" \
+    -d '{"email":"admin@cricketdb.com","password":"admin123"}' \
+    "$BASE_URL/api/auth/login" > "$RESULTS_DIR/login-storm.txt" &
+STORM_PID=$!
+sleep 2
+hey -z "$DURATION" -c "$READ_CONCURRENCY" -H "Authorization: Bearer $TOKEN" \
+    "$BASE_URL/api/players" > "$RESULTS_DIR/reads-during-storm.txt"
+wait $STORM_PID
+
+for run in reads-baseline reads-during-storm; do
+    echo "$run: $(grep 'Requests/sec' "$RESULTS_DIR/$run.txt" | awk '{print $2}') req/s," \
+        "p50 $(grep '50% in' "$RESULTS_DIR/$run.txt" | awk '{print $3}')s," \
+        "p99 $(grep '99% in' "$RESULTS_DIR/$run.txt" | awk '{print $3}')s"
+done
+
+# hey prints "  [200]	1234 responses" per status code
+status_count() {
+    grep -A10 "Status code distribution" "$1" | grep "\[$2\]" | awk '{print $2}'
+}
+
+LOGIN_OK=$(status_count "$RESULTS_DIR/login-storm.txt" 200)
+LOGIN_SHED=$(status_count "$RESULTS_DIR/login-storm.txt" 503)
+echo "login storm: ${LOGIN_OK:-0} x 200, ${LOGIN_SHED:-0} x 503"
+OTHER=$(grep -A10 "Status code distribution" "$RESULTS_DIR/login-storm.txt" | grep "responses" | grep -v "\[200\]\|\[503\]")
+if [ -n "$OTHER" ]; then
+    echo "❌ Unexpected login status codes:"
+    echo "$OTHER"
+    exit 1
+fi
+if [ -z "$LOGIN_OK" ]; then
+    echo "❌ No login succeeded during the storm"
+    exit 1
+fi
+echo "Hash timings: $BASE_URL/actuator/metrics/cricketdb.auth.hash, queue depth: $BASE_URL/actuator/metrics/executor.queued?tag=name:login"